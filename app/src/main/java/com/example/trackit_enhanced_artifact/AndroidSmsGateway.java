@@ -0,0 +1,76 @@
+package com.example.trackit_enhanced_artifact;
+
+/* AndroidSmsGateway.java
+ *
+ * SmsGateway backed by SmsManager. Each message carries sent and delivered PendingIntents
+ * addressed to SMSNotificationReceiver, which reports them back to the outbox. Messages longer
+ * than one SMS, such as digests, are split by SmsManager and sent as a multipart message, with
+ * a sent report per part so the outbox can wait for all of them.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.telephony.SmsManager;
+
+import java.util.ArrayList;
+
+public class AndroidSmsGateway implements SmsGateway {
+
+    public static final String ACTION_SMS_SENT = "com.example.trackit_enhanced_artifact.SMS_SENT";
+    public static final String ACTION_SMS_DELIVERED = "com.example.trackit_enhanced_artifact.SMS_DELIVERED";
+    public static final String EXTRA_MESSAGE_ID = "messageId";
+    public static final String EXTRA_PART = "part"; // Index of the part a sent report is for
+    public static final String EXTRA_PART_COUNT = "partCount";
+
+    private final Context context;
+
+    public AndroidSmsGateway(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    @Override
+    public void send(long messageId, String phoneNumber, String message) {
+        SmsManager smsManager = SmsManager.getDefault();
+
+        // divideMessage accounts for the encoding, so each part fits exactly one SMS
+        ArrayList<String> parts = smsManager.divideMessage(message);
+        int count = Math.max(1, parts.size());
+        PendingIntent delivered = report(ACTION_SMS_DELIVERED, messageId, 0, 1);
+        if (count == 1) {
+            smsManager.sendTextMessage(phoneNumber, null, message, report(ACTION_SMS_SENT, messageId, 0, 1), delivered);
+            return;
+        }
+
+        // Each part reports sent on its own intent, so the outbox only marks the message sent
+        // once every part is out and retries it if any part fails; the last part's delivery
+        // means the whole message has arrived
+        ArrayList<PendingIntent> sentIntents = new ArrayList<>();
+        ArrayList<PendingIntent> deliveredIntents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sentIntents.add(report(ACTION_SMS_SENT, messageId, i, count));
+            deliveredIntents.add(i == count - 1 ? delivered : null);
+        }
+        smsManager.sendMultipartTextMessage(phoneNumber, null, parts, sentIntents, deliveredIntents);
+    }
+
+    /**
+     * Builds a report intent. PendingIntents that differ only in extras are the same intent,
+     * so the message ID and part go into the data URI as well, which keeps every message's and
+     * every part's report distinct.
+     */
+    private PendingIntent report(String action, long messageId, int part, int partCount) {
+        Intent intent = new Intent(context, SMSNotificationReceiver.class)
+                .setAction(action)
+                .setData(Uri.parse("trackit-sms://outbox/" + messageId + "/" + part))
+                .putExtra(EXTRA_MESSAGE_ID, messageId)
+                .putExtra(EXTRA_PART, part)
+                .putExtra(EXTRA_PART_COUNT, partCount);
+        return PendingIntent.getBroadcast(context, (int) messageId, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.trackit_enhanced_artifact;
+
+/* DatabaseExecutor.java
+ *
+ * Runs database work off the main thread and posts results back to it.
+ * All writes go through a single thread so they apply in submission order, while reads share a
+ * small pool. Each owner (an activity or an EventManager) gets its own DatabaseExecutor so it can
+ * cancel its pending callbacks when it is destroyed; the threads themselves are process-wide.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class DatabaseExecutor {
+
+    private static final String TAG = "DatabaseExecutor";
+
+    private static final int READ_THREADS = 2;
+
+    private static ExecutorService writeExecutor;
+    private static ExecutorService readExecutor;
+    private static Handler mainHandler;
+
+    // The writer thread, so work already running on it is not queued behind itself
+    private static volatile Thread writerThread;
+
+    // Requests submitted by this owner that have not delivered yet
+    private final Set<Request> pending = new HashSet<>();
+
+    /**
+     * Receives the result of an asynchronous operation on the main thread.
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+
+        /**
+         * Called on the main thread instead of onResult if the work threw. Does nothing unless
+         * overridden, so callers that wait on the result (a disabled button, an in-flight request
+         * field) must handle it, see {@link #of(Callback, Consumer)}.
+         */
+        default void onError(Exception error) {
+        }
+
+        /**
+         * A callback built from two lambdas, one for the result and one for a failure.
+         */
+        static <T> Callback<T> of(Callback<T> onResult, Consumer<Exception> onError) {
+            return new Callback<T>() {
+                @Override
+                public void onResult(T result) {
+                    onResult.onResult(result);
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    onError.accept(error);
+                }
+            };
+        }
+    }
+
+    /**
+     * Handle for a submitted operation.
+     */
+    public static final class Request {
+        private volatile boolean cancelled;
+        private Future<?> future;
+        private boolean cancelWork;
+
+        /**
+         * Stops the callback from running. A read that has not started yet is also skipped;
+         * a write always runs so that user changes are never silently dropped.
+         */
+        public void cancel() {
+            cancelled = true;
+            synchronized (this) {
+                if (cancelWork && future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Runs a query on the read pool and delivers its result on the main thread.
+     */
+    public <T> Request read(Callable<T> work, Callback<T> callback) {
+        return submit(readExecutor(), work, callback, true);
+    }
+
+    /**
+     * Runs a mutation on the single writer thread and delivers its result on the main thread.
+     */
+    public <T> Request write(Callable<T> work, Callback<T> callback) {
+        return submit(writeExecutor(), work, callback, false);
+    }
+
+    /**
+     * Runs a long job that writes in steps through {@link #writeAndWait(Callable)}, such as an
+     * import, on the read pool and delivers its result on the main thread. Like a write, the job
+     * runs even if cancelled; only the callback is skipped.
+     */
+    public <T> Request writeInSteps(Callable<T> work, Callback<T> callback) {
+        return submit(readExecutor(), work, callback, false);
+    }
+
+    /**
+     * Runs one step of a long background job on the writer thread and waits for it. Each call
+     * is its own writer task, so edits submitted while the job runs apply between its steps
+     * instead of after all of them. Called on the writer thread, the work runs directly.
+     *
+     * @return the work's result
+     * @throws Exception whatever the work threw, or InterruptedException if the wait was interrupted
+     */
+    @WorkerThread
+    public static <T> T writeAndWait(Callable<T> work) throws Exception {
+        if (Thread.currentThread() == writerThread) return work.call();
+        try {
+            return writeExecutor().submit(work).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels every request from this owner that has not delivered yet.
+     * Call from onDestroy so callbacks never touch a dead activity.
+     */
+    public void cancelAll() {
+        synchronized (pending) {
+            for (Request request : pending) {
+                request.cancel();
+            }
+            pending.clear();
+        }
+    }
+
+    private <T> Request submit(ExecutorService executor, Callable<T> work, Callback<T> callback, boolean cancelWork) {
+        Request request = new Request();
+        synchronized (pending) {
+            pending.add(request);
+        }
+
+        Future<?> future = executor.submit(() -> {
+            if (request.isCancelled() && cancelWork) return;
+
+            T result;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                Log.e(TAG, "Database operation failed", e);
+                mainHandler().post(() -> {
+                    finish(request);
+                    if (!request.isCancelled() && callback != null) {
+                        callback.onError(e);
+                    }
+                });
+                return;
+            }
+
+            mainHandler().post(() -> {
+                finish(request);
+                if (!request.isCancelled() && callback != null) {
+                    callback.onResult(result);
+                }
+            });
+        });
+
+        synchronized (request) {
+            request.future = future;
+            request.cancelWork = cancelWork;
+        }
+        return request;
+    }
+
+    private void finish(Request request) {
+        synchronized (pending) {
+            pending.remove(request);
+        }
+    }
+
+    private static synchronized ExecutorService writeExecutor() {
+        if (writeExecutor == null) {
+            ThreadFactory threads = namedThreads("db-write");
+            writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = threads.newThread(runnable);
+                writerThread = thread;
+                return thread;
+            });
+        }
+        return writeExecutor;
+    }
+
+    private static synchronized ExecutorService readExecutor() {
+        if (readExecutor == null) {
+            readExecutor = Executors.newFixedThreadPool(READ_THREADS, namedThreads("db-read"));
+        }
+        return readExecutor;
+    }
+
+    private static synchronized Handler mainHandler() {
+        if (mainHandler == null) {
+            mainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mainHandler;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -71,17 +71,22 @@ public class DialogManager {
 
             if (validateInputs(name, date, time, description)) {
                 Event newEvent = EventBuilder.fromInput(name, description, date, time);
-                boolean isAdded = eventManager.addEvent(name, description, date, time, currentUserId);
-
-                if (isAdded) {
-                    if (context instanceof EventListActivity) {
-                        ((EventListActivity) context).addEventToRecyclerView();
+                addButton.setEnabled(false);
+
+                DatabaseExecutor.Callback<Boolean> onAdded = isAdded -> {
+                    if (isAdded) {
+                        if (context instanceof EventListActivity) {
+                            ((EventListActivity) context).addEventToRecyclerView(newEvent);
+                        }
+                        smsNotifier.sendEventNotification("1234567890", newEvent, smsNotifier.createEventNotificationMessage(newEvent));
+                        dialog.dismiss();
+                    } else {
+                        addButton.setEnabled(true);
+                        Toast.makeText(context, "Failed to add event. Please try again.", Toast.LENGTH_SHORT).show();
                     }
-                    smsNotifier.sendSMSNotification("1234567890", smsNotifier.createEventNotificationMessage(newEvent));
-                    dialog.dismiss();
-                } else {
-                    Toast.makeText(context, "Failed to add event. Please try again.", Toast.LENGTH_SHORT).show();
-                }
+                };
+                eventManager.addEventAsync(newEvent, currentUserId,
+                        DatabaseExecutor.Callback.of(onAdded, error -> onAdded.onResult(false)));
             }
         });
     }
@@ -89,7 +94,7 @@ public class DialogManager {
     /**
      * Displays a dialog for editing an existing event.
      */
-    @SuppressLint({"SetTextI18n", "DefaultLocale"})
+    @SuppressLint("SetTextI18n")
     public void showEditEventDialog(Event event) {
         View dialogView = inflateDialogView();
         AlertDialog dialog = buildDialog(dialogView);
@@ -103,10 +108,32 @@ public class DialogManager {
         updateButton.setText("Update Event");
 
         eventNameInput.setText(event.getName());
-        eventDateInput.setText(event.getYear() + "-" + event.getMonth() + "-" + event.getDay());
-        eventTimeInput.setText(String.format("%02d:%02d", event.getHour(), event.getMinute()));
+        eventDateInput.setText(event.getFormattedDate());
+        eventTimeInput.setText(event.getFormattedTime());
         eventDescriptionInput.setText(event.getDescription());
 
+        // List rows only carry a preview; show it while the full description loads, and hold the
+        // update until then so a save cannot overwrite the description with the preview
+        if (event.getDescription() == null) {
+            eventDescriptionInput.setText(event.getDescriptionPreview());
+            eventDescriptionInput.setEnabled(false);
+            updateButton.setEnabled(false);
+            eventManager.getEventDescriptionAsync(event.getId(), DatabaseExecutor.Callback.of(description -> {
+                if (description == null) {
+                    Toast.makeText(context, "This event no longer exists.", Toast.LENGTH_SHORT).show();
+                    dialog.dismiss();
+                    return;
+                }
+                eventDescriptionInput.setText(description);
+                eventDescriptionInput.setEnabled(true);
+                updateButton.setEnabled(true);
+            }, error -> {
+                // Saving now would overwrite the description with its preview
+                Toast.makeText(context, "Could not load this event. Please try again.", Toast.LENGTH_SHORT).show();
+                dialog.dismiss();
+            }));
+        }
+
         setupDatePicker(eventDateInput, Calendar.getInstance());
         setupTimePicker(eventTimeInput, Calendar.getInstance());
 
@@ -117,14 +144,25 @@ public class DialogManager {
             String time = eventTimeInput.getText().toString();
 
             if (validateInputs(name, date, time, description)) {
-                EventBuilder.updateEventFromInput(event, name, description, date, time);
-                eventManager.updateEvent(event);
-
-                if (context instanceof EventListActivity) {
-                    ((EventListActivity) context).updateEventInRecyclerView(event);
-                }
-                smsNotifier.sendSMSNotification("1234567890", "Updated Event: " + smsNotifier.createEventNotificationMessage(event));
-                dialog.dismiss();
+                // Edit a copy so the list's snapshot of the old event stays intact for diffing
+                Event updated = EventBuilder.fromInput(name, description, date, time);
+                updated.setId(event.getId());
+                updateButton.setEnabled(false);
+
+                DatabaseExecutor.Callback<Boolean> onUpdated = isUpdated -> {
+                    if (isUpdated) {
+                        if (context instanceof EventListActivity) {
+                            ((EventListActivity) context).updateEventInRecyclerView(event, updated);
+                        }
+                        smsNotifier.sendEventNotification("1234567890", updated, "Updated Event: " + smsNotifier.createEventNotificationMessage(updated));
+                        dialog.dismiss();
+                    } else {
+                        updateButton.setEnabled(true);
+                        Toast.makeText(context, "Failed to update event. Please try again.", Toast.LENGTH_SHORT).show();
+                    }
+                };
+                eventManager.updateEventAsync(updated, currentUserId,
+                        DatabaseExecutor.Callback.of(onUpdated, error -> onUpdated.onResult(false)));
             }
         });
     }
@@ -145,6 +183,14 @@ public class DialogManager {
             Toast.makeText(context, "Event Time is required", Toast.LENGTH_SHORT).show();
             return false;
         }
+        if (!DateTimeCodec.isValidDate(date)) {
+            Toast.makeText(context, "Event Date must be a real date (yyyy-MM-dd)", Toast.LENGTH_SHORT).show();
+            return false;
+        }
+        if (!DateTimeCodec.isValidTime(time)) {
+            Toast.makeText(context, "Event Time must be a 24-hour time (HH:mm)", Toast.LENGTH_SHORT).show();
+            return false;
+        }
         if (description.isEmpty()) {
             Toast.makeText(context, "Event Description is required", Toast.LENGTH_SHORT).show();
             return false;
@@ -154,8 +200,8 @@ public class DialogManager {
 
     private void setupDatePicker(EditText input, Calendar calendar) {
         input.setOnClickListener(v -> {
-            @SuppressLint("SetTextI18n") DatePickerDialog datePickerDialog = new DatePickerDialog(context,
-                    (view, year, month, dayOfMonth) -> input.setText(year + "-" + (month + 1) + "-" + dayOfMonth),
+            DatePickerDialog datePickerDialog = new DatePickerDialog(context,
+                    (view, year, month, dayOfMonth) -> input.setText(DateTimeCodec.formatDate(year, month + 1, dayOfMonth)),
                     calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
             datePickerDialog.getDatePicker().setMinDate(System.currentTimeMillis() - 1000);
             datePickerDialog.show();
@@ -164,8 +210,8 @@ public class DialogManager {
 
     private void setupTimePicker(EditText input, Calendar calendar) {
         input.setOnClickListener(v -> {
-            @SuppressLint("DefaultLocale") TimePickerDialog timePickerDialog = new TimePickerDialog(context,
-                    (view, hourOfDay, minute) -> input.setText(String.format("%02d:%02d", hourOfDay, minute)),
+            TimePickerDialog timePickerDialog = new TimePickerDialog(context,
+                    (view, hourOfDay, minute) -> input.setText(DateTimeCodec.formatTime(hourOfDay, minute)),
                     calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE), true);
             timePickerDialog.show();
         });
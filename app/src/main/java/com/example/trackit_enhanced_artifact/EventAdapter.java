@@ -3,13 +3,14 @@ package com.example.trackit_enhanced_artifact;
 /* EventAdapter.java
  *
  * Adapter for displaying a list of events in a RecyclerView.
- * Applies MVC pattern to bind event data to UI components.
+ * Applies MVC pattern to bind event data to UI components. The adapter holds immutable
+ * snapshots of the list; each submitted snapshot is diffed on a background thread so only
+ * the rows that actually changed are rebound.
  *
  * Author: Collin Lanier
  * Date: 2025-03-26
  */
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -18,35 +19,52 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+import java.util.Objects;
 
-public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHolder> {
+public class EventAdapter extends ListAdapter<Event, EventAdapter.EventViewHolder> {
+
+    /**
+     * Rows are identified by event ID and only rebound when a displayed field changed.
+     */
+    private static final DiffUtil.ItemCallback<Event> DIFF_CALLBACK = new DiffUtil.ItemCallback<Event>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return oldItem.getEpochMinute() == newItem.getEpochMinute()
+                    && Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getDescriptionPreview(), newItem.getDescriptionPreview());
+        }
+    };
 
-    // Context and event list data source
     private final Context context;
-    private final List<Event> eventList; // List for RecyclerView
 
     // Click listeners for delete and edit actions
     private final OnDeleteClickListener deleteClickListener;
     private final OnEditClickListener editClickListener;
 
     /**
-     * Constructor for the EventAdapter.
+     * Constructor for the EventAdapter. Events are supplied later through submitList.
      *
      * @param context             the context
-     * @param eventList           list of events to display
      * @param deleteClickListener listener for delete button clicks
      * @param editClickListener   listener for edit button clicks
      */
-    public EventAdapter(Context context, List<Event> eventList,
+    public EventAdapter(Context context,
                         OnDeleteClickListener deleteClickListener,
                         OnEditClickListener editClickListener) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.eventList = eventList;
         this.deleteClickListener = deleteClickListener;
         this.editClickListener = editClickListener;
+        setHasStableIds(true);
     }
 
     /**
@@ -60,49 +78,48 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     @Override
     public EventViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_event, parent, false);
-        return new EventViewHolder(view);
+        EventViewHolder holder = new EventViewHolder(view);
+
+        // Attached once per holder; the row is resolved at click time so it never goes stale
+        holder.deleteButton.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                deleteClickListener.onDeleteClick(position, getItem(position));
+            }
+        });
+        holder.editButton.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                editClickListener.onEditClick(position, getItem(position));
+            }
+        });
+        return holder;
     }
 
     /**
-     * Binds the event data to the ViewHolder.
+     * Binds the event data to the ViewHolder. Runs for every row scrolled into view, so it only
+     * hands cached strings to the views and allocates nothing.
      *
      * @param holder   the ViewHolder to bind data to
      * @param position the position of the event in the list
      */
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        Event event = eventList.get(position);
+        Event event = getItem(position);
 
         // Set event details
         holder.eventName.setText(event.getName());
-        holder.eventDescription.setText(event.getDescription());
-        holder.eventDate.setText(formatDate(event));
-        holder.eventTime.setText(formatTime(event));
-
-        // Set click listeners for delete and edit actions
-        holder.deleteButton.setOnClickListener(v -> deleteClickListener.onDeleteClick(position));
-        holder.editButton.setOnClickListener(v -> editClickListener.onEditClick(position, event));
-    }
-
-    @Override
-    public int getItemCount() {
-        return eventList.size();
+        holder.eventDescription.setText(event.getDescriptionPreview());
+        holder.eventDate.setText(event.getFormattedDate());
+        holder.eventTime.setText(event.getFormattedTime());
     }
 
     /**
-     * Formats the date string for display.
+     * Event IDs are unique and stable, so RecyclerView can keep views and animations across updates.
      */
-    @SuppressLint("DefaultLocale")
-    private String formatDate(Event event) {
-        return String.format("%04d-%02d-%02d", event.getYear(), event.getMonth(), event.getDay());
-    }
-
-    /**
-     * Formats the time string for display.
-     */
-    @SuppressLint("DefaultLocale")
-    private String formatTime(Event event) {
-        return String.format("%02d:%02d", event.getHour(), event.getMinute());
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     /**
@@ -129,7 +146,7 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     }
 
     public interface OnDeleteClickListener {
-        void onDeleteClick(int position);
+        void onDeleteClick(int position, Event event);
     }
 
     public interface OnEditClickListener {
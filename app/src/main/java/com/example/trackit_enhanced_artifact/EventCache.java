@@ -0,0 +1,264 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventCache.java
+ *
+ * In-memory, per-user snapshot of the events a user has loaded, kept in chronological order.
+ * EventManager serves repeat page loads (for example after a rotation or returning from login)
+ * from here and writes every add, update, and delete through to it. The least recently used
+ * users are evicted first, both when the cache is full and when the system is low on memory.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.content.ComponentCallbacks2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EventCache {
+
+    private final int maxUsers;
+
+    // Access-ordered, so iteration runs from the coldest user to the most recently used one
+    private final LinkedHashMap<Integer, UserEvents> users = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped by every write so a page read that raced with a write is not cached
+    private long generation;
+
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * The loaded prefix of one user's events.
+     */
+    private static final class UserEvents {
+        final List<Event> events = new ArrayList<>();
+        final Map<Integer, Event> byId = new HashMap<>();
+        // True once the prefix reaches the user's last event
+        boolean complete;
+    }
+
+    /**
+     * @param maxUsers how many users' events to keep before evicting the least recently used
+     */
+    public EventCache(int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * Returns the current write generation, to be passed to {@link #putPage} after a database read.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Returns a page of cached events after the given event, or null on a miss.
+     *
+     * @param after    the last event of the previous page, or null for the first page
+     * @param pageSize the page size requested
+     */
+    public synchronized List<Event> getPage(int userId, Event after, int pageSize) {
+        UserEvents entry = users.get(userId);
+        if (entry != null) {
+            int start = after == null ? 0 : indexOf(entry.events, after.getSortKey()) + 1;
+            int available = entry.events.size() - start;
+            if (start > 0 || after == null) {
+                if (available >= pageSize || entry.complete) {
+                    hitCount++;
+                    int end = start + Math.min(pageSize, available);
+                    return new ArrayList<>(entry.events.subList(start, end));
+                }
+            }
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Returns all of a user's events if the cache holds all of them, or null on a miss.
+     */
+    public synchronized List<Event> getAll(int userId) {
+        UserEvents entry = users.get(userId);
+        if (entry != null && entry.complete) {
+            hitCount++;
+            return new ArrayList<>(entry.events);
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Stores a page read from the database. The page is only kept if it extends the cached
+     * prefix exactly and no write happened since the read started.
+     *
+     * @param generation the value of {@link #generation()} taken before the read
+     */
+    public synchronized void putPage(int userId, Event after, List<Event> page, int pageSize, long generation) {
+        if (generation != this.generation) return;
+
+        UserEvents entry = users.get(userId);
+        if (after == null) {
+            entry = new UserEvents();
+            users.put(userId, entry);
+            trimToSize(maxUsers);
+        } else if (entry == null || entry.complete || entry.events.isEmpty()
+                || entry.events.get(entry.events.size() - 1).getId() != after.getId()) {
+            return;
+        }
+
+        for (Event event : page) {
+            entry.events.add(event);
+            entry.byId.put(event.getId(), event);
+        }
+        entry.complete = page.size() < pageSize;
+    }
+
+    /**
+     * Stores a user's complete, sorted event list read from the database.
+     */
+    public synchronized void putAll(int userId, List<Event> events, long generation) {
+        putPage(userId, null, events, Integer.MAX_VALUE, generation);
+    }
+
+    /**
+     * Writes a newly added event through to its user's snapshot.
+     */
+    public synchronized void onEventAdded(int userId, Event event) {
+        generation++;
+        UserEvents entry = users.get(userId);
+        if (entry != null) {
+            insertIfCovered(entry, event);
+        }
+    }
+
+    /**
+     * Moves an edited event to its new position in its user's snapshot. The event is inserted
+     * even if the snapshot did not hold it before, since the edit may move it into the prefix.
+     */
+    public synchronized void onEventUpdated(int userId, Event event) {
+        generation++;
+        UserEvents entry = users.get(userId);
+        if (entry != null) {
+            remove(entry, event.getId());
+            insertIfCovered(entry, event);
+        }
+    }
+
+    /**
+     * Removes a deleted event from whichever snapshot holds it.
+     */
+    public synchronized void onEventDeleted(int eventId) {
+        generation++;
+        for (UserEvents entry : users.values()) {
+            if (remove(entry, eventId)) return;
+        }
+    }
+
+    /**
+     * Releases memory in response to {@link ComponentCallbacks2#onTrimMemory(int)}. Moderate
+     * pressure keeps only the most recently used user; severe pressure empties the cache.
+     */
+    public synchronized void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            trimToSize(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimToSize(1);
+        }
+    }
+
+    /**
+     * Drops one user's snapshot, for bulk changes that bypass the write-through methods.
+     */
+    public synchronized void invalidate(int userId) {
+        users.remove(userId);
+        generation++;
+    }
+
+    /**
+     * Drops every cached user.
+     */
+    public synchronized void clear() {
+        users.clear();
+        generation++;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized int getCachedUserCount() {
+        return users.size();
+    }
+
+    /**
+     * Evicts the least recently used users until at most maxSize remain.
+     */
+    private void trimToSize(int maxSize) {
+        Iterator<UserEvents> coldestFirst = users.values().iterator();
+        while (users.size() > maxSize && coldestFirst.hasNext()) {
+            coldestFirst.next();
+            coldestFirst.remove();
+        }
+    }
+
+    /**
+     * Inserts the event in order unless it falls past the end of an incomplete prefix,
+     * where it will be picked up when the page containing it is loaded.
+     */
+    private static void insertIfCovered(UserEvents entry, Event event) {
+        int index = insertionIndex(entry.events, event);
+        if (index < entry.events.size() || entry.complete) {
+            entry.events.add(index, event);
+            entry.byId.put(event.getId(), event);
+        }
+    }
+
+    private static boolean remove(UserEvents entry, int eventId) {
+        Event cached = entry.byId.remove(eventId);
+        if (cached == null) return false;
+
+        int index = indexOf(entry.events, cached.getSortKey());
+        if (index >= 0) {
+            entry.events.remove(index);
+        }
+        return true;
+    }
+
+    private static int indexOf(List<Event> events, long sortKey) {
+        int index = insertionIndex(events, sortKey);
+        return index < events.size() && events.get(index).getSortKey() == sortKey ? index : -1;
+    }
+
+    private static int insertionIndex(List<Event> events, Event event) {
+        return insertionIndex(events, event.getSortKey());
+    }
+
+    /**
+     * Binary search on the sort key, whose order matches the database's ORDER BY ts, id.
+     */
+    private static int insertionIndex(List<Event> events, long sortKey) {
+        int low = 0;
+        int high = events.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (events.get(mid).getSortKey() < sortKey) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -12,17 +12,22 @@ package com.example.trackit_enhanced_artifact;
  */
 
 import android.Manifest;
-import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
@@ -32,29 +37,81 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.PriorityQueue;
 
 public class EventListActivity extends AppCompatActivity {
 
     private static final int SMS_PERMISSION_CODE = 100;
 
+    // Keyset pagination: rows per page, and how close to the end a scroll triggers the next page
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10;
+
+    // Search runs once typing pauses for this long, and shows at most this many matches
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+    private static final int SEARCH_RESULT_LIMIT = 100;
+
+    // Agenda views: every event (paged), or only the current day's or week's window
+    private static final int VIEW_ALL = 0;
+    private static final int VIEW_DAY = 1;
+    private static final int VIEW_WEEK = 2;
+
+    // Suggested name for export documents; the user can change it in the picker
+    private static final String EXPORT_FILE_NAME = "trackit-events";
+
+    // Documents picked for export and import; an import's format is recognized from its content
+    private final ActivityResultLauncher<String> exportJsonLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(EventTransfer.Format.JSON.getMimeType()),
+            uri -> exportEvents(uri, EventTransfer.Format.JSON));
+    private final ActivityResultLauncher<String> exportCsvLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(EventTransfer.Format.CSV.getMimeType()),
+            uri -> exportEvents(uri, EventTransfer.Format.CSV));
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importEvents);
+
     private EventAdapter eventAdapter;
 
-    // Data source
+    // Working copy of the loaded events; the adapter only ever sees immutable snapshots of it
     private List<Event> eventList;
 
-    private PriorityQueue<Event> upcomingEventQueue;
+    // Loaded events keyed by time, so the banner finds the next one in O(1) and edits re-key in O(log n)
+    private IndexedMinHeap<Event> upcomingEventQueue;
+
+    // Fallback lookup for the banner when no loaded event is still upcoming
+    private DatabaseExecutor.Request bannerRequest;
 
     private TextView upcomingEventBanner;
 
+    // Reused for every banner update, which runs after each load and edit
+    private final StringBuilder bannerText = new StringBuilder(64);
+
     // EventManager for database operations
     private EventManager eventManager;
 
     private DialogManager dialogManager;
 
+    private SMSNotifier smsNotifier;
+
     private int currentUserId;
 
+    private boolean hasMorePages;
+
+    private int viewMode = VIEW_ALL;
+
+    // Half-open [windowStart, windowEnd) epoch-minute range shown by the day and week views
+    private long windowStart;
+    private long windowEnd;
+
+    // Page load in flight, if any; cancelled when the list is reset or the activity is destroyed
+    private DatabaseExecutor.Request pageRequest;
+
+    // Text being searched for, or null while the full list is shown
+    private String searchQuery;
+    private DatabaseExecutor.Request searchRequest;
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::runSearch;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -68,7 +125,14 @@ public class EventListActivity extends AppCompatActivity {
         setupAddEventButton();
         setupUpcomingEventBanner();
         checkSMSPermission();
-        loadEventsFromDatabase(currentUserId);
+        // Send anything left in the SMS outbox by an earlier run
+        SmsOutbox.get(this).kick();
+        // Edits from the user's other devices reload the list when a sync brings them in
+        EventSync.get(this).setListener(userId -> {
+            if (userId == currentUserId) loadEventsFromDatabase();
+        });
+        EventSync.get(this).start(currentUserId);
+        loadEventsFromDatabase();
     }
 
     /**
@@ -85,10 +149,10 @@ public class EventListActivity extends AppCompatActivity {
     private void initializeDependencies() {
         eventManager = new EventManager(this);
         // Utilities
-        SMSNotifier smsNotifier = new SMSNotifier(this);
+        smsNotifier = new SMSNotifier(this);
         dialogManager = new DialogManager(this, eventManager, smsNotifier, currentUserId);
 
-        upcomingEventQueue = new PriorityQueue<>();
+        upcomingEventQueue = new IndexedMinHeap<>();
     }
 
     /**
@@ -97,14 +161,27 @@ public class EventListActivity extends AppCompatActivity {
     private void setupRecyclerView() {
         // UI components
         RecyclerView recyclerView = findViewById(R.id.recyclerView);
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
         eventList = new ArrayList<>();
 
-        eventAdapter = new EventAdapter(this, eventList,
-                this::handleDeleteEvent,
+        eventAdapter = new EventAdapter(this,
+                (position, event) -> handleDeleteEvent(event),
                 (position, event) -> dialogManager.showEditEventDialog(event));
 
         recyclerView.setAdapter(eventAdapter);
+
+        // Fetch the next page once the user scrolls close to the last loaded row
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+                if (searchQuery == null && hasMorePages && dy > 0
+                        && layoutManager.findLastVisibleItemPosition() >= eventList.size() - PREFETCH_DISTANCE) {
+                    // Adapter changes are not allowed inside a scroll callback
+                    view.post(EventListActivity.this::loadNextPage);
+                }
+            }
+        });
     }
 
     /**
@@ -122,78 +199,222 @@ public class EventListActivity extends AppCompatActivity {
         upcomingEventBanner = findViewById(R.id.upcomingEventBanner);
     }
 
+    @Override
+    protected void onDestroy() {
+        searchHandler.removeCallbacks(searchRunnable);
+        // Drop callbacks for queries still in flight so they never touch a destroyed activity
+        eventManager.cancelPending();
+        EventSync.get(this).setListener(null);
+        super.onDestroy();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        EventManager.onTrimMemory(level);
+    }
+
     /**
      * Handle event deletion by removing it from the list and database.
      */
-    private void handleDeleteEvent(int position) {
-        Event event = eventList.get(position);
-        if (eventManager.deleteEvent(event.getId())) {
-            eventList.remove(position);
-            upcomingEventQueue.remove(event);
-            eventAdapter.notifyItemRemoved(position);
-            updateUpcomingBanner();
-        }
+    private void handleDeleteEvent(Event event) {
+        eventManager.deleteEventAsync(event.getId(), isDeleted -> {
+            // The row may have moved while the delete was running, so look it up again
+            int index = indexOf(event.getSortKey());
+            if (isDeleted && index >= 0) {
+                eventList.remove(index);
+                upcomingEventQueue.remove(event.getId());
+                publishList();
+                updateUpcomingBanner();
+            }
+            if (isDeleted) {
+                refreshSearch();
+            }
+        });
     }
 
     /**
-     * Load events from the database, sort them using merge sort, and update the RecyclerView.
+     * Reset the list and load the first page of events, already in chronological order from the database.
+     * In the day and week views only the events inside the window are loaded, in one range query.
      */
-    @SuppressLint("NotifyDataSetChanged")
-    private void loadEventsFromDatabase(int userId) {
+    private void loadEventsFromDatabase() {
+        if (pageRequest != null) {
+            pageRequest.cancel();
+            pageRequest = null;
+        }
         eventList.clear();
         upcomingEventQueue.clear();
+        publishList();
+
+        if (viewMode == VIEW_ALL) {
+            hasMorePages = true;
+            loadNextPage();
+            return;
+        }
 
-        List<Event> events = eventManager.getUserEvents(userId);
-       if (events != null) {
-           List<Event> sortedEvents = mergeSort(events);
-           eventList.addAll(sortedEvents);
-           upcomingEventQueue.addAll(sortedEvents);
-           eventAdapter.notifyDataSetChanged();
-           updateUpcomingBanner();
-       }
+        hasMorePages = false;
+        long now = EventTime.now();
+        windowStart = viewMode == VIEW_DAY ? EventTime.startOfDay(now) : EventTime.startOfWeek(now);
+        windowEnd = windowStart + (viewMode == VIEW_DAY ? EventTime.MINUTES_PER_DAY : EventTime.MINUTES_PER_WEEK);
+        pageRequest = eventManager.getEventsBetweenAsync(currentUserId, windowStart, windowEnd,
+                DatabaseExecutor.Callback.of(events -> {
+                    pageRequest = null;
+                    eventList.addAll(events);
+                    trackUpcoming(events);
+                    publishList();
+                    updateUpcomingBanner();
+                }, error -> pageRequest = null));
     }
 
     /**
-     * Add a new event, re-sort the list using merge sort, and update the RecyclerView.
+     * Switch between the full list and the day or week agenda, reloading only if the view changed.
      */
-    @SuppressLint("NotifyDataSetChanged")
-    public void addEventToRecyclerView() {
-        loadEventsFromDatabase(currentUserId);
+    private void setViewMode(int mode) {
+        if (mode == viewMode) return;
+        viewMode = mode;
+        loadEventsFromDatabase();
     }
 
     /**
-     * Update an event, re-sort the list using merge sort, and refresh the RecyclerView.
+     * Whether an event belongs in the current view. Every event does in the full list.
      */
-    @SuppressLint("NotifyDataSetChanged")
-    public void updateEventInRecyclerView(Event event) {
-        for (int i = 0; i < eventList.size(); i++) {
-            if (eventList.get(i).getId() == event.getId()) {
-                eventList.set(i, event);
-                break;
-            }
+    private boolean isInView(Event event) {
+        if (viewMode == VIEW_ALL) return true;
+        long timestamp = event.getEpochMinute();
+        return timestamp >= windowStart && timestamp < windowEnd;
+    }
+
+    /**
+     * Fetch the page of events that follows the last loaded event in the background and append it.
+     */
+    private void loadNextPage() {
+        if (!hasMorePages || pageRequest != null) return;
+
+        Event last = eventList.isEmpty() ? null : eventList.get(eventList.size() - 1);
+        // A failed read clears the request too, so the next scroll tries the page again
+        pageRequest = eventManager.getUserEventsPageAsync(currentUserId, last, PAGE_SIZE,
+                DatabaseExecutor.Callback.of(page -> {
+                    pageRequest = null;
+                    hasMorePages = page.size() == PAGE_SIZE;
+
+                    if (!page.isEmpty()) {
+                        eventList.addAll(page);
+                        trackUpcoming(page);
+                        publishList();
+                        updateUpcomingBanner();
+                    }
+                }, error -> pageRequest = null));
+    }
+
+    /**
+     * Insert a newly added event at its chronological position in the list.
+     * Events that sort past the loaded pages are left for the page that will contain them.
+     */
+    public void addEventToRecyclerView(Event event) {
+        refreshSearch();
+        if (!isInView(event)) return;
+        int index = insertionIndex(event);
+        if (index == eventList.size() && hasMorePages) return;
+
+        eventList.add(index, event);
+        trackUpcoming(event);
+        publishList();
+        updateUpcomingBanner();
+    }
+
+    /**
+     * Replace an edited event and move it to its new chronological position. An event edited
+     * from search results may not be on a loaded page; the edit can still bring it into view.
+     *
+     * @param previous the event as it was before the edit
+     * @param updated  the edited copy, with the same ID
+     */
+    public void updateEventInRecyclerView(Event previous, Event updated) {
+        refreshSearch();
+        int from = indexOf(previous.getSortKey());
+        if (from >= 0) {
+            eventList.remove(from);
         }
-        upcomingEventQueue.clear();
-        upcomingEventQueue.addAll(eventList);
-        List<Event> sortedEvents = mergeSort(eventList);
-        eventList.clear();
-        eventList.addAll(sortedEvents);
-        eventAdapter.notifyDataSetChanged();
-        loadEventsFromDatabase(currentUserId);
+
+        // Outside the agenda window, or past the loaded pages (it will come back with a later page), it is left out
+        int to = insertionIndex(updated);
+        if (isInView(updated) && (to < eventList.size() || !hasMorePages)) {
+            eventList.add(to, updated);
+            // Re-keys the existing entry in place
+            trackUpcoming(updated);
+        } else {
+            upcomingEventQueue.remove(updated.getId());
+        }
+        publishList();
         updateUpcomingBanner();
     }
 
     /**
-     * Change the text of the upcoming banner at the top of the RecyclerView
+     * Hand the adapter an immutable snapshot of the current list. The adapter diffs it against
+     * the previous snapshot in the background and notifies only the rows that changed.
+     */
+    private void publishList() {
+        // Search results replace the list until the search is cleared
+        if (searchQuery != null) return;
+        eventAdapter.submitList(Collections.unmodifiableList(new ArrayList<>(eventList)));
+    }
+
+    /**
+     * Add or re-key an event in the upcoming-event heap.
+     */
+    private void trackUpcoming(Event event) {
+        upcomingEventQueue.put(event.getId(), event.getSortKey(), event);
+    }
+
+    private void trackUpcoming(List<Event> events) {
+        for (Event event : events) {
+            trackUpcoming(event);
+        }
+    }
+
+    /**
+     * Change the text of the upcoming banner at the top of the RecyclerView.
+     * Events that have already started are dropped from the heap; an edit that moves one into
+     * the future puts it back. If no loaded event is still ahead, the next one is looked up in
+     * the database, since it may sit on a page not loaded yet or outside the agenda window.
      */
-    @SuppressLint("DefaultLocale")
     private void updateUpcomingBanner() {
+        long now = EventTime.now();
+        while (!upcomingEventQueue.isEmpty() && upcomingEventQueue.peek().getEpochMinute() < now) {
+            upcomingEventQueue.poll();
+        }
+
+        if (bannerRequest != null) {
+            bannerRequest.cancel();
+            bannerRequest = null;
+        }
+
         Event next = upcomingEventQueue.peek();
-        if (next != null && upcomingEventBanner != null) {
-            String text = "Upcoming Event: " + next.getName() + " at "
-                    + String.format("%04d-%02d-%02d", next.getYear(), next.getMonth(), next.getDay())
-                    + " " + String.format("%02d:%02d", next.getHour(), next.getMinute());
-            upcomingEventBanner.setText(text);
+        if (next != null) {
+            showUpcomingEvent(next);
+            return;
+        }
+        bannerRequest = eventManager.getNextEventAsync(currentUserId, now, DatabaseExecutor.Callback.of(event -> {
+            bannerRequest = null;
+            showUpcomingEvent(event);
+        }, error -> bannerRequest = null));
+    }
+
+    /**
+     * Show an event in the upcoming banner, or the placeholder if there is none.
+     */
+    private void showUpcomingEvent(Event next) {
+        if (upcomingEventBanner == null) return;
+        if (next == null) {
+            upcomingEventBanner.setText(R.string.upcoming_event);
+            return;
         }
+        bannerText.setLength(0);
+        bannerText.append("Upcoming Event: ").append(next.getName()).append(" at ");
+        DateTimeCodec.appendDate(bannerText, next.getYear(), next.getMonth(), next.getDay()).append(' ');
+        DateTimeCodec.appendTime(bannerText, next.getHour(), next.getMinute());
+        // TextView copies plain text, so the builder can be reused for the next update
+        upcomingEventBanner.setText(bannerText);
     }
 
     /**
@@ -225,26 +446,155 @@ public class EventListActivity extends AppCompatActivity {
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_event_list, menu);
+        menu.findItem(R.id.action_sms_digest).setChecked(smsNotifier.isDigestEnabled());
+
+        SearchView searchView = (SearchView) menu.findItem(R.id.action_search).getActionView();
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                onSearchTextChanged(query, 0);
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                onSearchTextChanged(newText, SEARCH_DEBOUNCE_MS);
+                return true;
+            }
+        });
         return true;
     }
 
+    /**
+     * Schedule a search for the typed text, replacing any search still waiting for typing to pause.
+     * Clearing the text returns to the full list straight away.
+     */
+    private void onSearchTextChanged(String text, long delayMs) {
+        searchHandler.removeCallbacks(searchRunnable);
+        if (searchRequest != null) {
+            searchRequest.cancel();
+            searchRequest = null;
+        }
+
+        if (EventSearch.toMatchQuery(text) == null) {
+            if (searchQuery != null) {
+                searchQuery = null;
+                publishList();
+            }
+            return;
+        }
+
+        searchQuery = text;
+        searchHandler.postDelayed(searchRunnable, delayMs);
+    }
+
+    /**
+     * Query the search index in the background and show the ranked matches.
+     */
+    private void runSearch() {
+        if (searchQuery == null) return;
+
+        String query = searchQuery;
+        searchRequest = eventManager.searchEventsAsync(currentUserId, query, SEARCH_RESULT_LIMIT, results -> {
+            searchRequest = null;
+            if (query.equals(searchQuery)) {
+                eventAdapter.submitList(Collections.unmodifiableList(results));
+            }
+        });
+    }
+
+    /**
+     * Re-run the active search after an add, edit or delete so the results stay current.
+     */
+    private void refreshSearch() {
+        if (searchQuery != null) {
+            onSearchTextChanged(searchQuery, 0);
+        }
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
-        if (item.getItemId() == R.id.action_logout) {
+        int itemId = item.getItemId();
+        if (itemId == R.id.action_logout) {
             handleLogout();
             return true;
+        } else if (itemId == R.id.action_sms_digest) {
+            boolean enabled = !item.isChecked();
+            item.setChecked(enabled);
+            smsNotifier.setDigestEnabled(enabled);
+            return true;
+        } else if (itemId == R.id.action_export_json) {
+            exportJsonLauncher.launch(EXPORT_FILE_NAME + "." + EventTransfer.Format.JSON.getExtension());
+            return true;
+        } else if (itemId == R.id.action_export_csv) {
+            exportCsvLauncher.launch(EXPORT_FILE_NAME + "." + EventTransfer.Format.CSV.getExtension());
+            return true;
+        } else if (itemId == R.id.action_import) {
+            importLauncher.launch(new String[]{"application/json", "text/csv", "text/comma-separated-values", "text/plain"});
+            return true;
+        } else if (itemId == R.id.action_view_all || itemId == R.id.action_view_day || itemId == R.id.action_view_week) {
+            item.setChecked(true);
+            setViewMode(itemId == R.id.action_view_day ? VIEW_DAY
+                    : itemId == R.id.action_view_week ? VIEW_WEEK : VIEW_ALL);
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
 
+    /**
+     * Write the user's events to the picked document in the background, showing the row count
+     * in the toolbar as it goes.
+     */
+    private void exportEvents(Uri uri, EventTransfer.Format format) {
+        if (uri == null) return;
+
+        eventManager.exportEventsAsync(currentUserId, format, uri, this::showTransferProgress, rows -> {
+            showTransferProgress(-1);
+            Toast.makeText(this, rows >= 0 ? "Exported " + rows + " event(s)" : "Export failed. Please try again.",
+                    Toast.LENGTH_SHORT).show();
+        });
+    }
+
+    /**
+     * Add the events from the picked document in the background, then reload the list.
+     */
+    private void importEvents(Uri uri) {
+        if (uri == null) return;
+
+        eventManager.importEventsAsync(currentUserId, uri, this::showTransferProgress, result -> {
+            showTransferProgress(-1);
+            if (result == null) {
+                Toast.makeText(this, "Import failed: the file is not a TrackIt export.", Toast.LENGTH_LONG).show();
+                return;
+            }
+            Toast.makeText(this, "Imported " + result.getImportedCount() + " event(s), skipped "
+                    + result.getDuplicateCount() + " duplicate(s) and " + result.getRejectedCount() + " invalid row(s)",
+                    Toast.LENGTH_LONG).show();
+            loadEventsFromDatabase();
+            refreshSearch();
+        });
+    }
+
+    /**
+     * Show a transfer's running row count as the toolbar subtitle, or clear it when rows is negative.
+     * Called from the transfer thread.
+     */
+    private void showTransferProgress(int rows) {
+        runOnUiThread(() -> {
+            if (getSupportActionBar() != null) {
+                getSupportActionBar().setSubtitle(rows >= 0 ? rows + " event(s)\u2026" : null);
+            }
+        });
+    }
+
     /**
      * Handle logout action and navigate to the login screen.
      */
-    @SuppressLint("NotifyDataSetChanged")
     private void handleLogout() {
+        EventSync.get(this).stop();
         eventList.clear();
         upcomingEventQueue.clear();
-        eventAdapter.notifyDataSetChanged();
+        publishList();
         upcomingEventBanner.setText("");
         Intent intent = new Intent(this, LoginActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -253,69 +603,38 @@ public class EventListActivity extends AppCompatActivity {
     }
 
     /**
-     * Merge Sort method to sort events chronologically by year, month, day, hour, and minute.
-     * Merge Sort has a time complexity of O(n log n).
+     * Binary search for the position of an event in the sorted list.
      *
-     * @param events the unsorted list of events
-     * @return a new sorted list of events
+     * @param sortKey the event's {@link Event#getSortKey() sort key}
+     * @return the index of the event, or -1 if it is not loaded
      */
-    private List<Event> mergeSort(List<Event> events) {
-        if (events.size() <= 1) return events;
-
-        int mid = events.size() / 2;
-        List<Event> left = mergeSort(new ArrayList<>(events.subList(0, mid)));
-        List<Event> right = mergeSort(new ArrayList<>(events.subList(mid, events.size())));
-
-        return merge(left, right);
+    private int indexOf(long sortKey) {
+        int index = insertionIndex(sortKey);
+        return index < eventList.size() && eventList.get(index).getSortKey() == sortKey ? index : -1;
     }
 
     /**
-     * Merge two sorted event lists into a single sorted list.
-     *
-     * @param left  the left half
-     * @param right the right half
-     * @return merged sorted list of events
+     * Binary search for the index at which an event keeps the list in chronological order.
+     * Events at the same minute are ordered by ID, matching the database order.
      */
-    private List<Event> merge(List<Event> left, List<Event> right) {
-        List<Event> result = new ArrayList<>();
-        int i = 0, j = 0;
-
-        while (i < left.size() && j < right.size()) {
-            Event e1 = left.get(i);
-            Event e2 = right.get(j);
-
-            if (isBefore(e1, e2)) {
-                result.add(e1);
-                i++;
-            } else {
-                result.add(e2);
-                j++;
-            }
-        }
-
-        while (i < left.size()) {
-            result.add(left.get(i++));
-        }
-
-        while (j < right.size()) {
-            result.add(right.get(j++));
-        }
-
-        return result;
+    private int insertionIndex(Event event) {
+        return insertionIndex(event.getSortKey());
     }
 
     /**
-     * Compare two events and determine if e1 comes before e2.
-     *
-     * @param e1 the first event
-     * @param e2 the second event
-     * @return true if e1 is earlier than e2, false otherwise
+     * Returns the index of the first loaded event whose sort key is not below the given one.
      */
-    private boolean isBefore(Event e1, Event e2) {
-        if (e1.getYear() != e2.getYear()) return e1.getYear() < e2.getYear();
-        if (e1.getMonth() != e2.getMonth()) return e1.getMonth() < e2.getMonth();
-        if (e1.getDay() != e2.getDay()) return e1.getDay() < e2.getDay();
-        if (e1.getHour() != e2.getHour()) return e1.getHour() < e2.getHour();
-        return e1.getMinute() < e2.getMinute();
+    private int insertionIndex(long sortKey) {
+        int low = 0;
+        int high = eventList.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (eventList.get(mid).getSortKey() < sortKey) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 }
\ No newline at end of file
@@ -5,47 +5,74 @@ package com.example.trackit_enhanced_artifact;
  *
  * This class serves as a service layer that handles operations related to events,
  * including adding, updating, deleting, and retrieving user events from the database.
- * It interacts with the SQLDatabase helper class.
+ * It interacts with the SQLDatabase helper class. Each operation has a blocking form and
+ * an Async form that runs on a DatabaseExecutor and reports back on the main thread.
  *
  * Author: Collin Lanier
  * Date: 2025-03-27
  */
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.database.Cursor;
+import android.net.Uri;
 import android.util.Log;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class EventManager {
 
     private static final String TAG = "EventManager";
 
+    // Users whose loaded events stay in memory across activity instances
+    private static final int MAX_CACHED_USERS = 4;
+
+    // Process-wide, so a rotated or re-created activity is served from memory
+    private static final EventCache cache = new EventCache(MAX_CACHED_USERS);
+
+    private final Context context;
     private final SQLDatabase databaseHelper;
 
+    // Runs the Async variants; cancelled together by cancelPending()
+    private final DatabaseExecutor executor = new DatabaseExecutor();
+
     /**
      * Constructor for EventManager.
      *
      * @param context Application context
      */
     public EventManager(Context context) {
-        databaseHelper = new SQLDatabase(context);
+        this.context = context.getApplicationContext();
+        databaseHelper = SQLDatabase.getInstance(context);
     }
 
     /**
-     * Adds a new event to the database.
+     * Adds a new event to the database and assigns the generated ID to it.
      *
-     * @param name        The name of the event.
-     * @param description The description of the event.
-     * @param date        The date of the event in yyyy-MM-dd format.
-     * @param time        The time of the event in HH:mm format.
-     * @param userId      The ID of the user who created the event.
+     * @param event  The event to store.
+     * @param userId The ID of the user who created the event.
      * @return True if the event was successfully added, false if not.
      */
-    public boolean addEvent(String name, String description, String date, String time, int userId) {
-        boolean success = databaseHelper.insertEvent(name, description, date, time, userId);
+    public boolean addEvent(Event event, int userId) {
+        long id = databaseHelper.insertEvent(
+                event.getName(),
+                event.getDescription(),
+                event.getEpochMinute(),
+                userId
+        );
+        boolean success = id != -1;
+        if (success) {
+            event.setId((int) id);
+            cache.onEventAdded(userId, event);
+            ReminderAlarms.getScheduler(context).schedule(event);
+            EventSync.get(context).requestSync();
+        }
         Log.d(TAG, "addEvent: " + (success ? "Success" : "Failed"));
         return success;
     }
@@ -53,21 +80,22 @@ public class EventManager {
     /**
      * Updates an existing event in the database.
      *
-     * @param event The updated Event object.
+     * @param event  The updated Event object.
+     * @param userId The ID of the user who owns the event.
      * @return True if the event was successfully updated, false if not.
      */
-    @SuppressLint("DefaultLocale")
-    public boolean updateEvent(Event event) {
-        String formattedDate = String.format("%04d-%02d-%02d", event.getYear(), event.getMonth(), event.getDay());
-        String formattedTime = String.format("%02d:%02d", event.getHour(), event.getMinute());
-
+    public boolean updateEvent(Event event, int userId) {
         boolean success = databaseHelper.updateEvent(
                 event.getId(),
                 event.getName(),
                 event.getDescription(),
-                formattedDate,
-                formattedTime
+                event.getEpochMinute()
         );
+        if (success) {
+            cache.onEventUpdated(userId, event);
+            ReminderAlarms.getScheduler(context).schedule(event);
+            EventSync.get(context).requestSync();
+        }
 
         Log.d(TAG, "updateEvent: " + (success ? "Success" : "Failed") + " for ID: " + event.getId());
         return success;
@@ -81,6 +109,11 @@ public class EventManager {
      */
     public boolean deleteEvent(int eventId) {
         boolean success = databaseHelper.deleteEvent(eventId);
+        if (success) {
+            cache.onEventDeleted(eventId);
+            ReminderAlarms.getScheduler(context).cancel(eventId);
+            EventSync.get(context).requestSync();
+        }
         Log.d(TAG, "deleteEvent: " + (success ? "Deleted event ID: " + eventId : "Failed to delete event ID: " + eventId));
         return success;
     }
@@ -89,45 +122,372 @@ public class EventManager {
      * Retrieves all events associated with a given user.
      *
      * @param userId The user ID.
-     * @return A list of Event objects for the user.
+     * @return A list of Event objects for the user, in chronological order.
      */
     public List<Event> getUserEvents(int userId) {
-        List<Event> eventList = new ArrayList<>();
-        Cursor cursor = databaseHelper.getUserEvents(userId);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                try {
-                    int id = cursor.getInt(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_ID));
-                    String name = cursor.getString(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_NAME));
-                    String description = cursor.getString(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_DESCRIPTION));
-                    String date = cursor.getString(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_DATE));
-                    String time = cursor.getString(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_TIME));
-
-                    String[] dateParts = date.split("-");
-                    String[] timeParts = time.split(":");
-
-                    Event event = new Event(
-                            id,
-                            name,
-                            description,
-                            Integer.parseInt(dateParts[0]),
-                            Integer.parseInt(dateParts[1]),
-                            Integer.parseInt(dateParts[2]),
-                            Integer.parseInt(timeParts[0]),
-                            Integer.parseInt(timeParts[1])
-                    );
-
-                    eventList.add(event);
-                } catch (Exception e) {
-                    Log.e(TAG, "Error reading event data", e);
-                }
-            } while (cursor.moveToNext());
+        List<Event> cached = cache.getAll(userId);
+        if (cached != null) return cached;
+
+        long generation = cache.generation();
+        List<Event> eventList = EventRowMapper.readAll(databaseHelper.getUserEvents(userId));
+        cache.putAll(userId, eventList, generation);
+        Log.d(TAG, "Loaded " + eventList.size() + " event(s) for user " + userId);
+        return eventList;
+    }
+
+    /**
+     * Retrieves the next page of a user's events in chronological order.
+     *
+     * @param userId   The user ID.
+     * @param after    The last event of the previous page, or null for the first page.
+     * @param pageSize The maximum number of events to return.
+     * @return Up to pageSize events that come after the given event.
+     */
+    public List<Event> getUserEventsPage(int userId, Event after, int pageSize) {
+        List<Event> cached = cache.getPage(userId, after, pageSize);
+        if (cached != null) return cached;
+
+        long generation = cache.generation();
+        long afterTimestamp = after != null ? after.getEpochMinute() : Long.MIN_VALUE;
+        int afterId = after != null ? after.getId() : Integer.MIN_VALUE;
+
+        List<Event> page = EventRowMapper.readAll(databaseHelper.getUserEventsPage(userId, afterTimestamp, afterId, pageSize));
+        cache.putPage(userId, after, page, pageSize, generation);
+        Log.d(TAG, "Loaded page of " + page.size() + " event(s) for user " + userId);
+        return page;
+    }
+
+    /**
+     * Retrieves a user's events scheduled in a time window, for the day and week agenda views.
+     *
+     * @param userId The user ID.
+     * @param from   The first epoch minute of the window (inclusive).
+     * @param to     The end of the window (exclusive).
+     * @return The events in the window, in chronological order.
+     */
+    public List<Event> getEventsBetween(int userId, long from, long to) {
+        List<Event> eventList = EventRowMapper.readAll(databaseHelper.getEventsBetween(userId, from, to));
+        Log.d(TAG, "Loaded " + eventList.size() + " event(s) between " + from + " and " + to + " for user " + userId);
+        return eventList;
+    }
+
+    /**
+     * Retrieves a user's next event at or after the given time.
+     *
+     * @param userId The user ID.
+     * @param now    The epoch minute to search from.
+     * @return The next event without its description, or null if the user has nothing scheduled.
+     */
+    public Event getNextEvent(int userId, long now) {
+        List<Event> next = EventRowMapper.readAll(databaseHelper.getNextEvent(userId, now));
+        return next.isEmpty() ? null : next.get(0);
+    }
+
+    /**
+     * Retrieves every user's events at or after the given time, for scheduling reminders.
+     * The events carry no description.
+     *
+     * @param from The first epoch minute included.
+     */
+    public List<Event> getEventsFrom(long from) {
+        return EventRowMapper.readAll(databaseHelper.getEventsFrom(from));
+    }
 
+    /**
+     * Retrieves one event's full description. Events read for the list carry only a preview.
+     *
+     * @param eventId The event ID.
+     * @return The description, or null if the event no longer exists.
+     */
+    public String getEventDescription(int eventId) {
+        return databaseHelper.getEventDescription(eventId);
+    }
+
+    /**
+     * Searches a user's event names and descriptions, matching each typed word as a prefix.
+     *
+     * @param userId The user ID.
+     * @param text   The text typed by the user.
+     * @param limit  The maximum number of results.
+     * @return The best matches first; ties are listed in chronological order.
+     */
+    public List<Event> searchEvents(int userId, String text, int limit) {
+        List<Event> results = new ArrayList<>();
+        String matchQuery = EventSearch.toMatchQuery(text);
+        if (matchQuery == null || limit <= 0) return results;
+
+        // Every match is ranked, so a short prefix that matches thousands of events still finds
+        // the best ones; only the id, time and hit counts of each are read at this stage
+        Cursor cursor = databaseHelper.searchEvents(userId, matchQuery);
+        if (cursor == null) return results;
+
+        int count;
+        int[] ids;
+        long[] keys;
+        double[] scores;
+        try {
+            count = cursor.getCount();
+            ids = new int[count];
+            keys = new long[count];
+            scores = new double[count];
+            for (int i = 0; cursor.moveToNext(); i++) {
+                ids[i] = cursor.getInt(0);
+                keys[i] = Event.sortKey(cursor.getLong(1), ids[i]);
+                scores[i] = EventSearch.score(cursor.getBlob(2));
+            }
+        } finally {
             cursor.close();
         }
 
-        Log.d(TAG, "Loaded " + eventList.size() + " event(s) for user " + userId);
-        return eventList;
+        // Chronological order first, then a stable sort by score keeps equal scores in time order
+        int[] chronological = new int[count];
+        for (int i = 0; i < count; i++) {
+            chronological[i] = i;
+        }
+        EventSorter.sortIndices(keys, chronological);
+
+        // Scores are non-negative, so their bit patterns sort like the values; negated for best first
+        int[] ranked = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = -Double.doubleToLongBits(scores[chronological[i]]);
+            ranked[i] = i;
+        }
+        EventSorter.sortIndices(keys, ranked);
+
+        // Load just the rows shown, then put them back in rank order
+        int[] top = new int[Math.min(limit, count)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = ids[chronological[ranked[i]]];
+        }
+        Map<Integer, Event> loaded = new HashMap<>();
+        for (int from = 0; from < top.length; from += SQLDatabase.MAX_IDS_PER_QUERY) {
+            int[] chunk = Arrays.copyOfRange(top, from, Math.min(top.length, from + SQLDatabase.MAX_IDS_PER_QUERY));
+            for (Event event : EventRowMapper.readAll(databaseHelper.getEventsById(chunk))) {
+                loaded.put(event.getId(), event);
+            }
+        }
+        for (int id : top) {
+            // An event deleted between the two queries is skipped
+            Event event = loaded.get(id);
+            if (event != null) results.add(event);
+        }
+        Log.d(TAG, "Search '" + text + "' returned " + results.size() + " of " + count + " match(es)");
+        return results;
+    }
+
+    /**
+     * Reads the change journal after the given sequence, oldest first. A backup or other reader
+     * records the sequence of the last change it processed with {@link #acknowledgeChanges} and
+     * passes it back next time, so it only handles what changed since.
+     *
+     * @param afterSequence The last sequence already processed, or 0 for the whole journal.
+     * @param limit         The maximum number of changes to return.
+     * @return Up to limit changes; fewer means the reader has caught up.
+     */
+    public List<EventChange> getChangesSince(long afterSequence, int limit) {
+        List<EventChange> changes = new ArrayList<>();
+        Cursor cursor = databaseHelper.getChangesSince(afterSequence, limit);
+        if (cursor == null) return changes;
+
+        try {
+            int sequenceIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_JOURNAL_SEQUENCE);
+            int operationIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_JOURNAL_OPERATION);
+            int eventIdIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_JOURNAL_EVENT_ID);
+            int userIdIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_USER_ID);
+            int nameIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_NAME);
+            int descriptionIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_DESCRIPTION);
+            int timestampIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_TIMESTAMP);
+            while (cursor.moveToNext()) {
+                int operation = cursor.getInt(operationIndex);
+                int eventId = cursor.getInt(eventIdIndex);
+                Event event = operation == EventChange.DELETE ? null : new Event(eventId,
+                        cursor.getString(nameIndex), cursor.getString(descriptionIndex), cursor.getLong(timestampIndex));
+                changes.add(new EventChange(cursor.getLong(sequenceIndex), operation, eventId,
+                        cursor.getInt(userIdIndex), event));
+            }
+        } finally {
+            cursor.close();
+        }
+        return changes;
+    }
+
+    /**
+     * The sequence of the newest change, for a reader that wants to start from now.
+     */
+    public long getLatestSequence() {
+        return databaseHelper.getLatestSequence();
+    }
+
+    /**
+     * The last sequence a named reader acknowledged, or 0 for a new reader.
+     */
+    public long getReaderSequence(String reader) {
+        return databaseHelper.getReaderSequence(reader);
+    }
+
+    /**
+     * Saves a named reader's position once it has processed every change up to the given
+     * sequence. Compaction never folds entries the slowest reader has not acknowledged.
+     *
+     * @return Whether the position was saved.
+     */
+    public boolean acknowledgeChanges(String reader, long sequence) {
+        return databaseHelper.setReaderSequence(reader, sequence);
+    }
+
+    /**
+     * Folds superseded journal entries up to the given sequence, see {@link SQLDatabase#compactJournal(long)}.
+     *
+     * @return The number of entries removed.
+     */
+    public int compactJournal(long throughSequence) {
+        return databaseHelper.compactJournal(throughSequence);
+    }
+
+    /**
+     * Exports all of a user's events to a document, such as one picked with ACTION_CREATE_DOCUMENT.
+     *
+     * @param listener Progress callback, called on the exporting thread; may be null.
+     * @return The number of events written, or -1 if the export failed.
+     */
+    public int exportEvents(int userId, EventTransfer.Format format, Uri uri, EventTransfer.ProgressListener listener) {
+        try (OutputStream out = context.getContentResolver().openOutputStream(uri)) {
+            if (out == null) throw new IOException("Cannot open " + uri);
+            return new EventTransfer(context).exportEvents(userId, format, out, listener);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Export to " + uri + " failed", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Imports events from a JSON or CSV export into a user's events, skipping duplicates.
+     *
+     * @param listener Progress callback, called on the importing thread; may be null.
+     * @return The import counts, or null if the document could not be read as an export.
+     */
+    public EventTransfer.ImportResult importEvents(int userId, Uri uri, EventTransfer.ProgressListener listener) {
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            if (in == null) throw new IOException("Cannot open " + uri);
+            return new EventTransfer(context).importEvents(userId, in, listener);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Import from " + uri + " failed", e);
+            return null;
+        }
+    }
+
+    /**
+     * Adds a new event on the writer thread.
+     *
+     * @param callback Receives true on the main thread if the event was added.
+     */
+    public DatabaseExecutor.Request addEventAsync(Event event, int userId, DatabaseExecutor.Callback<Boolean> callback) {
+        return executor.write(() -> addEvent(event, userId), callback);
+    }
+
+    /**
+     * Updates an existing event on the writer thread.
+     *
+     * @param callback Receives true on the main thread if the event was updated.
+     */
+    public DatabaseExecutor.Request updateEventAsync(Event event, int userId, DatabaseExecutor.Callback<Boolean> callback) {
+        return executor.write(() -> updateEvent(event, userId), callback);
+    }
+
+    /**
+     * Deletes an event on the writer thread.
+     *
+     * @param callback Receives true on the main thread if the event was deleted.
+     */
+    public DatabaseExecutor.Request deleteEventAsync(int eventId, DatabaseExecutor.Callback<Boolean> callback) {
+        return executor.write(() -> deleteEvent(eventId), callback);
+    }
+
+    /**
+     * Loads all of a user's events on the read pool.
+     */
+    public DatabaseExecutor.Request getUserEventsAsync(int userId, DatabaseExecutor.Callback<List<Event>> callback) {
+        return executor.read(() -> getUserEvents(userId), callback);
+    }
+
+    /**
+     * Loads the next page of a user's events on the read pool.
+     */
+    public DatabaseExecutor.Request getUserEventsPageAsync(int userId, Event after, int pageSize,
+                                                           DatabaseExecutor.Callback<List<Event>> callback) {
+        return executor.read(() -> getUserEventsPage(userId, after, pageSize), callback);
+    }
+
+    /**
+     * Loads a user's events in a time window on the read pool.
+     */
+    public DatabaseExecutor.Request getEventsBetweenAsync(int userId, long from, long to,
+                                                          DatabaseExecutor.Callback<List<Event>> callback) {
+        return executor.read(() -> getEventsBetween(userId, from, to), callback);
+    }
+
+    /**
+     * Looks up a user's next event on the read pool. The callback receives null if there is none.
+     */
+    public DatabaseExecutor.Request getNextEventAsync(int userId, long now, DatabaseExecutor.Callback<Event> callback) {
+        return executor.read(() -> getNextEvent(userId, now), callback);
+    }
+
+    /**
+     * Loads one event's full description on the read pool. The callback receives null if the
+     * event no longer exists.
+     */
+    public DatabaseExecutor.Request getEventDescriptionAsync(int eventId, DatabaseExecutor.Callback<String> callback) {
+        return executor.read(() -> getEventDescription(eventId), callback);
+    }
+
+    /**
+     * Exports a user's events on the read pool. The callback receives -1 if the export failed.
+     */
+    public DatabaseExecutor.Request exportEventsAsync(int userId, EventTransfer.Format format, Uri uri,
+                                                      EventTransfer.ProgressListener listener,
+                                                      DatabaseExecutor.Callback<Integer> callback) {
+        return executor.read(() -> exportEvents(userId, format, uri, listener), callback);
+    }
+
+    /**
+     * Imports events in the background. Each batch is committed as its own task on the writer
+     * thread, so edits made during a long import apply between batches rather than after it.
+     * The callback receives null if the import failed.
+     */
+    public DatabaseExecutor.Request importEventsAsync(int userId, Uri uri, EventTransfer.ProgressListener listener,
+                                                      DatabaseExecutor.Callback<EventTransfer.ImportResult> callback) {
+        return executor.writeInSteps(() -> importEvents(userId, uri, listener), callback);
+    }
+
+    /**
+     * Runs a search on the read pool.
+     */
+    public DatabaseExecutor.Request searchEventsAsync(int userId, String text, int limit,
+                                                      DatabaseExecutor.Callback<List<Event>> callback) {
+        return executor.read(() -> searchEvents(userId, text, limit), callback);
+    }
+
+    /**
+     * Cancels the callbacks of every Async call made through this manager. Writes already
+     * submitted still complete. Call from the owning activity's onDestroy.
+     */
+    public void cancelPending() {
+        executor.cancelAll();
+    }
+
+    /**
+     * The shared per-user event cache, exposed for its hit and miss counters.
+     */
+    public static EventCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Forwards memory pressure from an activity's onTrimMemory so cold users are dropped.
+     */
+    public static void onTrimMemory(int level) {
+        cache.onTrimMemory(level);
+        Log.d(TAG, "Trimmed event cache at level " + level + ", " + cache.getCachedUserCount() + " user(s) kept");
     }
 }
\ No newline at end of file
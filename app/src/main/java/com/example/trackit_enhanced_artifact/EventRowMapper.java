@@ -0,0 +1,70 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventRowMapper.java
+ *
+ * Turns rows of an events query into Event objects. Column positions are looked up once when
+ * the mapper is created for a cursor, so each row is only typed reads by index. Works with any
+ * of SQLDatabase's event projections; a projection without the description yields events whose
+ * description is null, carrying the stored preview instead when the projection has one.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.database.Cursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EventRowMapper {
+
+    private final int idIndex;
+    private final int nameIndex;
+    private final int descriptionIndex;
+    private final int previewIndex;
+    private final int timestampIndex;
+
+    /**
+     * Resolves the column positions of the cursor's projection.
+     *
+     * @throws IllegalArgumentException if the ID, name or timestamp column is missing
+     */
+    public EventRowMapper(Cursor cursor) {
+        idIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_ID);
+        nameIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_NAME);
+        descriptionIndex = cursor.getColumnIndex(SQLDatabase.COLUMN_EVENT_DESCRIPTION);
+        previewIndex = cursor.getColumnIndex(SQLDatabase.COLUMN_EVENT_DESCRIPTION_PREVIEW);
+        timestampIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_TIMESTAMP);
+    }
+
+    /**
+     * Builds an event from the cursor's current row.
+     */
+    public Event map(Cursor cursor) {
+        String description = descriptionIndex >= 0 ? cursor.getString(descriptionIndex) : null;
+        String preview = previewIndex >= 0 ? cursor.getString(previewIndex) : null;
+        return new Event(cursor.getInt(idIndex), cursor.getString(nameIndex), description, preview,
+                cursor.getLong(timestampIndex));
+    }
+
+    /**
+     * Reads every remaining row and closes the cursor, whether or not it had rows.
+     *
+     * @param cursor the query result, or null if the query failed
+     * @return the events in cursor order; empty if the cursor is null or empty
+     */
+    public static List<Event> readAll(Cursor cursor) {
+        if (cursor == null) return new ArrayList<>();
+
+        try {
+            List<Event> events = new ArrayList<>(Math.max(0, cursor.getCount()));
+            EventRowMapper mapper = new EventRowMapper(cursor);
+            while (cursor.moveToNext()) {
+                events.add(mapper.map(cursor));
+            }
+            return events;
+        } finally {
+            cursor.close();
+        }
+    }
+}
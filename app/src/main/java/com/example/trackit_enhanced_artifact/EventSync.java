@@ -0,0 +1,211 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventSync.java
+ *
+ * Process-wide entry point for syncing the signed-in user's events. A SyncEngine runs on a
+ * dedicated background thread: shortly after local edits, every SYNC_INTERVAL_MS while the app
+ * is open, and after a failure with exponential backoff. Nothing is synced until a transport
+ * for a real backend is installed with setTransport.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public final class EventSync {
+
+    private static final String TAG = "EventSync";
+
+    private static final String PREFS_NAME = "EventSync";
+    private static final String KEY_DEVICE_ID = "device_id";
+
+    // Retries wait 30s, 1m, 2m, ... capped at an hour, the same curve as the SMS outbox
+    private static final long BASE_BACKOFF_MS = 30_000;
+    private static final long MAX_BACKOFF_MS = 60 * 60_000;
+
+    // Between successful syncs, to pick up edits made on other devices
+    private static final long SYNC_INTERVAL_MS = 15 * 60_000;
+
+    // Edits made within this long of each other go out in one push
+    private static final long EDIT_DELAY_MS = 5_000;
+
+    /**
+     * Told on the main thread when a pull changed the user's events.
+     */
+    public interface Listener {
+        void onRemoteChanges(int userId);
+    }
+
+    private static EventSync instance;
+
+    // The backend connection; null until one is configured
+    private static SyncTransport transport;
+
+    private final Context context;
+    private final SQLDatabase database;
+    private final String deviceId;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Listener listener;
+
+    // The signed-in user and the next scheduled sync; only touched on the sync thread
+    private int userId = -1;
+    private String account;
+    private int failures;
+    private ScheduledFuture<?> scheduledSync;
+
+    private EventSync(Context context) {
+        this.context = context;
+        database = SQLDatabase.getInstance(context);
+        deviceId = loadDeviceId(context);
+    }
+
+    /**
+     * Returns the shared sync scheduler, creating it on first use.
+     */
+    public static synchronized EventSync get(Context context) {
+        if (instance == null) {
+            instance = new EventSync(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Installs the transport used by every later sync, or removes it with null.
+     */
+    public static synchronized void setTransport(SyncTransport syncTransport) {
+        transport = syncTransport;
+    }
+
+    private static synchronized SyncTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Starts syncing a user's events now and periodically, replacing any previous user.
+     */
+    public void start(int userId) {
+        executor.execute(() -> {
+            cancelScheduledSync();
+            this.userId = userId;
+            account = database.getUsername(userId);
+            failures = 0;
+            schedule(0);
+        });
+    }
+
+    /**
+     * Stops syncing, for example on logout. Changes made meanwhile go out on the next start.
+     */
+    public void stop() {
+        executor.execute(() -> {
+            cancelScheduledSync();
+            userId = -1;
+            account = null;
+        });
+    }
+
+    /**
+     * Asks for a sync soon after a local edit. While retries are backing off, the retry that is
+     * already scheduled carries the edit instead. Safe to call from any thread.
+     */
+    public void requestSync() {
+        executor.execute(() -> {
+            if (userId == -1 || failures > 0) return;
+            if (scheduledSync != null && scheduledSync.getDelay(TimeUnit.MILLISECONDS) <= EDIT_DELAY_MS) return;
+            schedule(EDIT_DELAY_MS);
+        });
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Delay before the retry that follows the given number of consecutive failures.
+     */
+    static long backoffMillis(int failures) {
+        int doublings = Math.min(failures - 1, 20);
+        return Math.min(BASE_BACKOFF_MS << doublings, MAX_BACKOFF_MS);
+    }
+
+    /**
+     * Runs on the sync thread: syncs the current user and schedules the next sync.
+     */
+    private void run() {
+        scheduledSync = null;
+        SyncTransport syncTransport = getTransport();
+        if (userId == -1 || account == null || syncTransport == null) {
+            Log.d(TAG, "Sync skipped: " + (syncTransport == null ? "no transport configured" : "no user"));
+            return;
+        }
+
+        SyncEngine.Result result;
+        try {
+            result = new SyncEngine(database, syncTransport, deviceId).sync(userId, account);
+        } catch (Exception e) {
+            failures++;
+            long delayMs = backoffMillis(failures);
+            Log.w(TAG, "Sync failed " + failures + " time(s) in a row, retrying in " + delayMs / 1000 + "s", e);
+            schedule(delayMs);
+            return;
+        }
+
+        failures = 0;
+        if (result.hasLocalChanges()) {
+            EventManager.getCache().invalidate(userId);
+            ReminderScheduler reminders = ReminderAlarms.getScheduler(context);
+            reminders.scheduleAll(result.getSaved());
+            for (int eventId : result.getDeletedIds()) {
+                reminders.cancel(eventId);
+            }
+            int changedUser = userId;
+            mainHandler.post(() -> {
+                Listener current = listener;
+                if (current != null) current.onRemoteChanges(changedUser);
+            });
+        }
+        schedule(SYNC_INTERVAL_MS);
+    }
+
+    private void schedule(long delayMs) {
+        cancelScheduledSync();
+        scheduledSync = executor.schedule(this::run, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelScheduledSync() {
+        if (scheduledSync != null) {
+            scheduledSync.cancel(false);
+            scheduledSync = null;
+        }
+    }
+
+    /**
+     * Returns this installation's ID, creating and storing it the first time.
+     */
+    private static String loadDeviceId(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String id = prefs.getString(KEY_DEVICE_ID, null);
+        if (id == null) {
+            id = SQLDatabase.newUuid();
+            prefs.edit().putString(KEY_DEVICE_ID, id).apply();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventTransfer.java
+ *
+ * Exports a user's events to JSON or CSV and imports them back, for backups and for moving
+ * events between devices. Both directions stream: an export writes each row as the database
+ * cursor reaches it, and an import parses one event at a time into fixed-size batches that are
+ * inserted in one transaction each. Memory use is the same for ten events or a million.
+ * Parsing runs on the caller's thread and each batch is committed as its own task on the
+ * database writer thread, so edits made during a long import are not held up until it ends.
+ * Imports skip events whose name and time the user already has, so importing twice is harmless.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventTransfer {
+
+    private static final String TAG = "EventTransfer";
+
+    // Version written to JSON exports, so a later format can still read older files
+    private static final int JSON_VERSION = 1;
+
+    // Events per import transaction: large enough to amortize the commit, small enough to stay flat in memory
+    private static final int BATCH_SIZE = 500;
+
+    // Rows between progress reports
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    public enum Format {
+        JSON("application/json", "json"),
+        CSV("text/csv", "csv");
+
+        private final String mimeType;
+        private final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Receives the running row count on the thread doing the transfer, every
+     * {@value #PROGRESS_INTERVAL} rows and once more at the end.
+     */
+    public interface ProgressListener {
+        void onProgress(int rows);
+    }
+
+    /**
+     * Counts from one import. Every row read ends up in exactly one of the three.
+     */
+    public static final class ImportResult {
+        private int imported;
+        private int duplicates;
+        private int rejected;
+
+        public int getImportedCount() {
+            return imported;
+        }
+
+        /**
+         * Rows skipped because the user already had an event with the same name and time.
+         */
+        public int getDuplicateCount() {
+            return duplicates;
+        }
+
+        /**
+         * Rows that were malformed or could not be inserted.
+         */
+        public int getRejectedCount() {
+            return rejected;
+        }
+
+        int getRowCount() {
+            return imported + duplicates + rejected;
+        }
+    }
+
+    private final Context context;
+    private final SQLDatabase databaseHelper;
+
+    public EventTransfer(Context context) {
+        this.context = context.getApplicationContext();
+        databaseHelper = SQLDatabase.getInstance(context);
+    }
+
+    /**
+     * Writes all of a user's events, in chronological order. The stream is flushed but left open.
+     *
+     * @param listener progress callback, or null
+     * @return the number of events written
+     * @throws IOException if the events cannot be read or written
+     */
+    @WorkerThread
+    public int exportEvents(int userId, Format format, OutputStream out, ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        Cursor cursor = databaseHelper.getUserEventsForExport(userId);
+        if (cursor == null) throw new IOException("Could not read events for user " + userId);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        int rows = 0;
+        try {
+            int nameIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_NAME);
+            int descriptionIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_DESCRIPTION);
+            int timestampIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_TIMESTAMP);
+
+            if (format == Format.JSON) {
+                JsonWriter json = new JsonWriter(writer);
+                json.beginObject();
+                json.name("version").value(JSON_VERSION);
+                json.name("events").beginArray();
+                while (cursor.moveToNext()) {
+                    long timestamp = cursor.getLong(timestampIndex);
+                    int date = EventTime.civilDate(timestamp);
+                    int minuteOfDay = EventTime.minuteOfDay(timestamp);
+                    json.beginObject();
+                    json.name("name").value(cursor.getString(nameIndex));
+                    json.name("description").value(nonNull(cursor.getString(descriptionIndex)));
+                    json.name("date").value(DateTimeCodec.formatDate(date / 10000, date / 100 % 100, date % 100));
+                    json.name("time").value(DateTimeCodec.formatTime(minuteOfDay / 60, minuteOfDay % 60));
+                    json.endObject();
+                    reportProgress(listener, ++rows);
+                }
+                json.endArray();
+                json.endObject();
+                json.flush();
+            } else {
+                EventCsv.Writer csv = new EventCsv.Writer(writer);
+                while (cursor.moveToNext()) {
+                    csv.write(cursor.getString(nameIndex), cursor.getString(descriptionIndex),
+                            cursor.getLong(timestampIndex));
+                    reportProgress(listener, ++rows);
+                }
+                writer.flush();
+            }
+        } finally {
+            cursor.close();
+        }
+
+        if (listener != null) listener.onProgress(rows);
+        Log.d(TAG, "Exported " + rows + " event(s) as " + format + " for user " + userId + " in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return rows;
+    }
+
+    /**
+     * Reads events from a JSON or CSV export and adds them to a user's events. The format is
+     * recognized from the content. The stream is left open.
+     *
+     * @param listener progress callback, or null
+     * @return how many events were imported, skipped as duplicates, or rejected
+     * @throws IOException if the input cannot be read or is not an event export; events from
+     *                     batches before the error stay imported
+     */
+    @WorkerThread
+    public ImportResult importEvents(int userId, InputStream in, ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        Format format = detectFormat(buffered);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(buffered, StandardCharsets.UTF_8));
+
+        ImportResult result = new ImportResult();
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            if (format == Format.JSON) {
+                readJson(new JsonReader(reader), userId, batch, result, listener);
+            } else {
+                readCsv(new EventCsv.Reader(reader), userId, batch, result, listener);
+            }
+        } finally {
+            // Whatever was read before a failure is kept, like the batches already committed
+            flush(userId, batch, result, listener);
+            EventManager.getCache().invalidate(userId);
+            if (result.imported > 0) EventSync.get(context).requestSync();
+        }
+
+        if (listener != null) listener.onProgress(result.getRowCount());
+        Log.d(TAG, "Imported " + result.imported + " event(s) from " + format + " for user " + userId + ", "
+                + result.duplicates + " duplicate(s), " + result.rejected + " rejected, in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return result;
+    }
+
+    /**
+     * Tells JSON from CSV by the first character that is not whitespace or a byte order mark.
+     */
+    static Format detectFormat(BufferedInputStream in) throws IOException {
+        in.mark(64);
+        try {
+            for (int i = 0; i < 64; i++) {
+                int b = in.read();
+                if (b == -1) break;
+                // UTF-8 byte order mark
+                if (b == 0xEF || b == 0xBB || b == 0xBF || Character.isWhitespace(b)) continue;
+                return b == '{' || b == '[' ? Format.JSON : Format.CSV;
+            }
+            return Format.CSV;
+        } finally {
+            in.reset();
+        }
+    }
+
+    private void readCsv(EventCsv.Reader csv, int userId, List<Event> batch, ImportResult result,
+                         ProgressListener listener) throws IOException {
+        while (true) {
+            Event event;
+            try {
+                event = csv.next();
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                reject(result, e.getMessage());
+                continue;
+            }
+            if (event == null) return;
+            add(event, userId, batch, result, listener);
+        }
+    }
+
+    /**
+     * Reads {"version": 1, "events": [...]}, or a bare array of events. Unknown names are skipped,
+     * so files from a newer version with extra fields still import.
+     */
+    private void readJson(JsonReader json, int userId, List<Event> batch, ImportResult result,
+                          ProgressListener listener) throws IOException {
+        if (json.peek() == JsonToken.BEGIN_ARRAY) {
+            readJsonEvents(json, userId, batch, result, listener);
+            return;
+        }
+
+        boolean sawEvents = false;
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (name.equals("version")) {
+                int version = json.nextInt();
+                if (version > JSON_VERSION) throw new IOException("Unsupported export version " + version);
+            } else if (name.equals("events")) {
+                readJsonEvents(json, userId, batch, result, listener);
+                sawEvents = true;
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        if (!sawEvents) throw new IOException("Not an event export: no events array");
+    }
+
+    private void readJsonEvents(JsonReader json, int userId, List<Event> batch, ImportResult result,
+                                ProgressListener listener) throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            String name = null;
+            String description = "";
+            String date = null;
+            String time = null;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                String field = json.nextName();
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                switch (field) {
+                    case "name":
+                        name = json.nextString();
+                        break;
+                    case "description":
+                        description = json.nextString();
+                        break;
+                    case "date":
+                        date = json.nextString();
+                        break;
+                    case "time":
+                        time = json.nextString();
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+
+            if (name == null || date == null || time == null) {
+                reject(result, "Event without a name, date or time");
+                continue;
+            }
+            try {
+                add(EventBuilder.fromInput(name, description, date, time), userId, batch, result, listener);
+            } catch (IllegalArgumentException e) {
+                reject(result, e.getMessage());
+            }
+        }
+        json.endArray();
+    }
+
+    private void add(Event event, int userId, List<Event> batch, ImportResult result, ProgressListener listener)
+            throws IOException {
+        if (event.getName().trim().isEmpty()) {
+            reject(result, "Event without a name");
+            return;
+        }
+        batch.add(event);
+        if (batch.size() == BATCH_SIZE) {
+            flush(userId, batch, result, listener);
+        }
+    }
+
+    private static void reject(ImportResult result, String reason) {
+        result.rejected++;
+        Log.d(TAG, "Skipped row: " + reason);
+    }
+
+    /**
+     * Inserts the batch in one transaction and schedules reminders for what it added, as one task
+     * on the writer thread, then empties it. The parsing thread waits, so batches stay in order.
+     *
+     * @throws IOException if the wait for the writer was interrupted
+     */
+    private void flush(int userId, List<Event> batch, ImportResult result, ProgressListener listener)
+            throws IOException {
+        if (batch.isEmpty()) return;
+
+        int before = result.getRowCount();
+        SQLDatabase.BatchInsertResult inserted;
+        try {
+            inserted = DatabaseExecutor.writeAndWait(() -> insertBatch(userId, batch));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (Exception e) {
+            throw new IOException("Could not store imported events", e);
+        }
+        result.imported += inserted.getInsertedCount();
+        result.duplicates += inserted.getSkippedCount();
+        result.rejected += inserted.getFailures().size();
+        batch.clear();
+
+        if (listener != null && before / PROGRESS_INTERVAL != result.getRowCount() / PROGRESS_INTERVAL) {
+            listener.onProgress(result.getRowCount());
+        }
+    }
+
+    /**
+     * Runs on the writer thread: inserts one batch and schedules reminders for what it added.
+     */
+    private SQLDatabase.BatchInsertResult insertBatch(int userId, List<Event> batch) {
+        SQLDatabase.BatchInsertResult inserted = databaseHelper.insertEventsIfAbsent(batch, userId);
+        long[] ids = inserted.getIds();
+        List<Event> added = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] > 0) {
+                // Reminders only need the name and time, so the description is not kept alive for them
+                added.add(new Event((int) ids[i], batch.get(i).getName(), null, batch.get(i).getEpochMinute()));
+            }
+        }
+        if (!added.isEmpty()) {
+            ReminderAlarms.getScheduler(context).scheduleAll(added);
+        }
+        return inserted;
+    }
+
+    private static void reportProgress(ProgressListener listener, int rows) {
+        if (listener != null && rows % PROGRESS_INTERVAL == 0) {
+            listener.onProgress(rows);
+        }
+    }
+
+    private static String nonNull(String text) {
+        return text != null ? text : "";
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.trackit_enhanced_artifact;
+
+/* LatencyStats.java
+ *
+ * Thread-safe counters for how long named operations take (call count, total, and worst case).
+ * SQLDatabase records every statement it runs here so per-operation latency can be inspected
+ * from logs, tests, or a debugger.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+public class LatencyStats {
+
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    /**
+     * Records one completed operation.
+     *
+     * @param operation  the operation name, for example "insertEvent"
+     * @param startNanos the {@link System#nanoTime()} value taken when the operation started
+     * @return the elapsed time in nanoseconds
+     */
+    public long record(String operation, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        synchronized (entries) {
+            Entry entry = entries.get(operation);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(operation, entry);
+            }
+            entry.count++;
+            entry.totalNanos += elapsed;
+            entry.maxNanos = Math.max(entry.maxNanos, elapsed);
+        }
+        return elapsed;
+    }
+
+    public long getCount(String operation) {
+        synchronized (entries) {
+            Entry entry = entries.get(operation);
+            return entry != null ? entry.count : 0;
+        }
+    }
+
+    public long getAverageNanos(String operation) {
+        synchronized (entries) {
+            Entry entry = entries.get(operation);
+            return entry != null && entry.count > 0 ? entry.totalNanos / entry.count : 0;
+        }
+    }
+
+    public long getMaxNanos(String operation) {
+        synchronized (entries) {
+            Entry entry = entries.get(operation);
+            return entry != null ? entry.maxNanos : 0;
+        }
+    }
+
+    /**
+     * Clears all recorded operations.
+     */
+    public void reset() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns one line per operation with its count, average and maximum latency in microseconds.
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        synchronized (entries) {
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                builder.append(e.getKey())
+                        .append(": n=").append(entry.count)
+                        .append(" avg=").append(entry.totalNanos / Math.max(1, entry.count) / 1000).append("us")
+                        .append(" max=").append(entry.maxNanos / 1000).append("us\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class Entry {
+        long count;
+        long totalNanos;
+        long maxNanos;
+    }
+}
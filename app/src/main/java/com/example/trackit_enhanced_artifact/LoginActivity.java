@@ -12,8 +12,6 @@ package com.example.trackit_enhanced_artifact;
 
 import android.app.ActivityOptions;
 import android.content.Intent;
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.Button;
@@ -31,6 +29,9 @@ public class LoginActivity extends AppCompatActivity {
     // Database helper instance
     private SQLDatabase databaseHelper;
 
+    // Runs credential checks and signups off the main thread
+    private final DatabaseExecutor databaseExecutor = new DatabaseExecutor();
+
     private static final String TAG = "LoginActivity"; // Tag for logging
 
     private static final String ERROR_USERNAME_REQUIRED = "Username is required";
@@ -54,8 +55,8 @@ public class LoginActivity extends AppCompatActivity {
         Button loginButton = findViewById(R.id.loginButton);
         Button signupButton = findViewById(R.id.signupButton);
 
-        // Initialize database helper
-        databaseHelper = new SQLDatabase(this);
+        // Shared database helper, kept open for the life of the process
+        databaseHelper = SQLDatabase.getInstance(this);
 
         // Set up login button click event
         loginButton.setOnClickListener(v -> handleLogin());
@@ -64,6 +65,12 @@ public class LoginActivity extends AppCompatActivity {
         signupButton.setOnClickListener(v -> handleSignup());
     }
 
+    @Override
+    protected void onDestroy() {
+        databaseExecutor.cancelAll();
+        super.onDestroy();
+    }
+
     /**
      * Handles the login action.
      * Checks the username and password against the database.
@@ -75,53 +82,25 @@ public class LoginActivity extends AppCompatActivity {
         Log.d(TAG, "Trying login for user: " + username);
 
         if (validateInputs(username, password)) {
-            try {
-                if (checkUserCredentials(username, password)) {
-                    int userId = getUserId(username);
-                    if (userId != -1) {
-                        Toast.makeText(this, "Login successful", Toast.LENGTH_SHORT).show();
-                        Intent intent = new Intent(LoginActivity.this, EventListActivity.class);
-                        intent.putExtra("userId", userId);
-                        startActivity(intent, ActivityOptions.makeCustomAnimation(
-                                LoginActivity.this, R.anim.slide_in_right, R.anim.slide_out_left).toBundle());
-                    } else {
-                        Toast.makeText(this, "Error getting user ID", Toast.LENGTH_SHORT).show();
-                    }
-                } else {
+            // Resolves to the user ID, -1 if the ID lookup failed, or null for bad credentials
+            databaseExecutor.read(() -> databaseHelper.checkUserCredentials(username, password)
+                    ? databaseHelper.getUserId(username) : null, userId -> {
+                if (userId == null) {
                     Toast.makeText(this, "Invalid username or password", Toast.LENGTH_SHORT).show();
+                } else if (userId != -1) {
+                    Toast.makeText(this, "Login successful", Toast.LENGTH_SHORT).show();
+                    Intent intent = new Intent(LoginActivity.this, EventListActivity.class);
+                    intent.putExtra("userId", (int) userId);
+                    startActivity(intent, ActivityOptions.makeCustomAnimation(
+                            LoginActivity.this, R.anim.slide_in_right, R.anim.slide_out_left).toBundle());
+                } else {
+                    Log.e(TAG, ERROR_LOGIN_FAILED);
+                    Toast.makeText(this, "Error getting user ID", Toast.LENGTH_SHORT).show();
                 }
-            } catch (Exception e) {
-                Log.e(TAG, ERROR_LOGIN_FAILED, e);
-                Toast.makeText(this, ERROR_LOGIN_FAILED, Toast.LENGTH_SHORT).show();
-            }
-        }
-    }
-
-    /**
-     * Retrieves the user ID based on the username.
-     *
-     * @param username the entered username
-     * @return the user ID if found
-     */
-    private int getUserId(String username) {
-        int userId = -1;
-        String query = "SELECT " + SQLDatabase.COLUMN_USER_ID + " FROM " + SQLDatabase.USER_TABLE +
-                " WHERE " + SQLDatabase.COLUMN_USERNAME + " = ?";
-
-        try (SQLiteDatabase db = databaseHelper.getReadableDatabase();
-             Cursor cursor = db.rawQuery(query, new String[]{username})) {
-            if (cursor.moveToFirst()) {
-                userId = cursor.getInt(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_USER_ID));
-            }
-            Log.d(TAG, "User ID obtained " + userId);
-        } catch (Exception e) {
-            Log.e(TAG, "Error getting user ID", e);
+            });
         }
-
-        return userId;
     }
 
-
     /**
      * Handles the signup action.
      * Adds a new user to the database.
@@ -132,16 +111,14 @@ public class LoginActivity extends AppCompatActivity {
 
         if (validateInputs(username, password)) {
             // Insert new user into the database
-            try {
-                if (databaseHelper.insertUser(username, password)) {
+            databaseExecutor.write(() -> databaseHelper.insertUser(username, password), isInserted -> {
+                if (isInserted) {
                     Toast.makeText(this, "Signup successful. You can now log in.", Toast.LENGTH_SHORT).show();
                 } else {
+                    Log.w(TAG, ERROR_SIGNUP_FAILED);
                     Toast.makeText(this, "Signup failed. Username may already exist.", Toast.LENGTH_SHORT).show();
                 }
-            } catch (Exception e) {
-                Log.e(TAG, ERROR_SIGNUP_FAILED, e);
-                Toast.makeText(this, ERROR_SIGNUP_FAILED, Toast.LENGTH_SHORT).show();
-            }
+            });
         }
     }
 
@@ -164,28 +141,4 @@ public class LoginActivity extends AppCompatActivity {
         }
         return true;
     }
-
-    /**
-     * Checks if the user's credentials exist in the database.
-     *
-     * @param username the entered username
-     * @param password the entered password
-     * @return true if user credentials are found, if not
-     */
-    private boolean checkUserCredentials(String username, String password) {
-        boolean userExists = false;
-        String query = "SELECT * FROM " + SQLDatabase.USER_TABLE + " WHERE " +
-                SQLDatabase.COLUMN_USERNAME + " = ? AND " +
-                SQLDatabase.COLUMN_PASSWORD + " = ?";
-
-        try (SQLiteDatabase db = databaseHelper.getReadableDatabase();
-             Cursor cursor = db.rawQuery(query, new String[]{username, password})) {
-            userExists = cursor.getCount() > 0;
-            Log.d(TAG, "User exists: " + userExists);
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking user credentials", e);
-        }
-
-        return userExists;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.trackit_enhanced_artifact;
+
+/* ReminderAlarms.java
+ *
+ * Connects the process-wide ReminderScheduler to Android: the alarm is an exact AlarmManager
+ * alarm delivered to SMSNotificationReceiver, and due reminders go out through the SMS outbox. The scheduler is
+ * rebuilt from the database the first time it is used in a process, since the process may have
+ * been started just to handle the alarm.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import java.util.Calendar;
+
+public final class ReminderAlarms {
+
+    private static final String TAG = "ReminderAlarms";
+
+    public static final String ACTION_REMINDER_ALARM = "com.example.trackit_enhanced_artifact.REMINDER_ALARM";
+
+    // Reminders go out an hour before each event and again ten minutes before
+    private static final int[] LEAD_MINUTES = {60, 10};
+
+    // Same destination as the confirmation sent when an event is saved
+    private static final String REMINDER_PHONE_NUMBER = "1234567890";
+
+    private static ReminderScheduler scheduler;
+
+    private ReminderAlarms() {
+    }
+
+    /**
+     * Returns the shared scheduler, loading every upcoming event from the database on first use.
+     * Reads the database, so call it off the main thread.
+     */
+    @WorkerThread
+    public static synchronized ReminderScheduler getScheduler(Context context) {
+        if (scheduler == null) {
+            Context appContext = context.getApplicationContext();
+            scheduler = new ReminderScheduler(EventTime::now, new ExactAlarmSetter(appContext),
+                    (event, leadMinutes) -> sendReminder(appContext, event, leadMinutes), LEAD_MINUTES);
+
+            // Past events have no reminders left; the scheduler skips any that are already overdue
+            scheduler.scheduleAll(new EventManager(appContext).getEventsFrom(EventTime.now()));
+            Log.d(TAG, "Scheduled reminders for " + scheduler.getPendingCount() + " event(s)");
+        }
+        return scheduler;
+    }
+
+    /**
+     * Forgets the shared scheduler so each test starts from the current database.
+     */
+    @VisibleForTesting
+    static synchronized void resetInstance() {
+        scheduler = null;
+    }
+
+    /**
+     * Converts a wall-clock epoch minute to UTC milliseconds in the device's time zone.
+     */
+    static long toMillis(long epochMinute) {
+        int date = EventTime.civilDate(epochMinute);
+        int minuteOfDay = EventTime.minuteOfDay(epochMinute);
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(date / 10000, date / 100 % 100 - 1, date % 100, minuteOfDay / 60, minuteOfDay % 60);
+        return calendar.getTimeInMillis();
+    }
+
+    private static void sendReminder(Context context, Event event, int leadMinutes) {
+        String message = "Reminder (" + leadMinutes + " min): "
+                + new SMSNotifier(context).createEventNotificationMessage(event);
+        SmsOutbox.get(context).enqueue(REMINDER_PHONE_NUMBER, message);
+        Log.d(TAG, "Queued reminder for event " + event.getId());
+    }
+
+    /**
+     * Keeps one alarm registered with AlarmManager; setting it again replaces the previous one
+     * because the PendingIntent is the same.
+     */
+    private static final class ExactAlarmSetter implements ReminderScheduler.AlarmSetter {
+        private final Context context;
+
+        ExactAlarmSetter(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public void setAlarm(long epochMinute) {
+            AlarmManager alarmManager = context.getSystemService(AlarmManager.class);
+            long triggerAtMillis = toMillis(epochMinute);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+                // Without the exact-alarm grant the reminder may arrive a few minutes late
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent());
+            } else {
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent());
+            }
+        }
+
+        @Override
+        public void cancelAlarm() {
+            context.getSystemService(AlarmManager.class).cancel(pendingIntent());
+        }
+
+        private PendingIntent pendingIntent() {
+            Intent intent = new Intent(context, SMSNotificationReceiver.class).setAction(ACTION_REMINDER_ALARM);
+            return PendingIntent.getBroadcast(context, 0, intent,
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        }
+    }
+}
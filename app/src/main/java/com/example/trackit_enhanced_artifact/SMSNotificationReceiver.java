@@ -4,7 +4,9 @@ package com.example.trackit_enhanced_artifact;
  * SMSNotificationReceiver.java
  *
  * BroadcastReceiver that handles sending SMS notifications for event reminders.
- * It listens for broadcast Intents and triggers SMS delivery using SmsManager.
+ * It listens for broadcast Intents and triggers SMS delivery using SmsManager. It also receives
+ * the reminder alarm armed by ReminderAlarms, and re-arms it after a reboot clears all alarms,
+ * and it passes the sent and delivered reports of outbox messages back to SmsOutbox.
  *
  * Author: Collin Lanier
  * Date: 2025-03-27
@@ -13,7 +15,6 @@ package com.example.trackit_enhanced_artifact;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.telephony.SmsManager;
 import android.util.Log;
 import android.widget.Toast;
 
@@ -30,6 +31,26 @@ public class SMSNotificationReceiver extends BroadcastReceiver {
      */
     @Override
     public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (ReminderAlarms.ACTION_REMINDER_ALARM.equals(action) || Intent.ACTION_BOOT_COMPLETED.equals(action)) {
+            handleReminderAlarm(context, action);
+            if (Intent.ACTION_BOOT_COMPLETED.equals(action)) {
+                // Messages left in the outbox when the device went down
+                SmsOutbox.get(context).kick();
+            }
+            return;
+        }
+        if (AndroidSmsGateway.ACTION_SMS_SENT.equals(action)) {
+            SmsOutbox.get(context).onSent(intent.getLongExtra(AndroidSmsGateway.EXTRA_MESSAGE_ID, -1),
+                    intent.getIntExtra(AndroidSmsGateway.EXTRA_PART, 0),
+                    intent.getIntExtra(AndroidSmsGateway.EXTRA_PART_COUNT, 1), getResultCode());
+            return;
+        }
+        if (AndroidSmsGateway.ACTION_SMS_DELIVERED.equals(action)) {
+            SmsOutbox.get(context).onDelivered(intent.getLongExtra(AndroidSmsGateway.EXTRA_MESSAGE_ID, -1));
+            return;
+        }
+
         String phoneNumber = intent.getStringExtra("phoneNumber");
         String message = intent.getStringExtra("message");
 
@@ -42,21 +63,35 @@ public class SMSNotificationReceiver extends BroadcastReceiver {
     }
 
     /**
-     * Sends an SMS message using the Android SmsManager.
+     * Sends the reminders that are due and re-arms the alarm for the next one. Loading the
+     * scheduler may read the database, so the work runs on the database writer thread while
+     * goAsync keeps the receiver alive.
+     */
+    private void handleReminderAlarm(Context context, String action) {
+        PendingResult result = goAsync();
+        new DatabaseExecutor().write(() -> {
+            try {
+                ReminderScheduler scheduler = ReminderAlarms.getScheduler(context);
+                if (ReminderAlarms.ACTION_REMINDER_ALARM.equals(action)) {
+                    Log.d(TAG, "Reminder alarm sent " + scheduler.onAlarm() + " reminder(s)");
+                }
+            } finally {
+                result.finish();
+            }
+            return null;
+        }, null);
+    }
+
+    /**
+     * Queues an SMS message in the outbox, which sends it in the background.
      *
      * @param context     the application context
      * @param phoneNumber the destination phone number
      * @param message     the message content
      */
     private void sendSms(Context context, String phoneNumber, String message) {
-        try {
-            SmsManager smsManager = SmsManager.getDefault();
-            smsManager.sendTextMessage(phoneNumber, null, message, null, null);
-            Toast.makeText(context, "Event reminder sent via SMS!", Toast.LENGTH_SHORT).show();
-            Log.d(TAG, "SMS sent successfully to " + phoneNumber);
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to send SMS to " + phoneNumber, e);
-            Toast.makeText(context, "Failed to send SMS.", Toast.LENGTH_SHORT).show();
-        }
+        SmsOutbox.get(context).enqueue(phoneNumber, message);
+        Toast.makeText(context, "Event reminder queued for SMS.", Toast.LENGTH_SHORT).show();
+        Log.d(TAG, "SMS queued for " + phoneNumber);
     }
 }
\ No newline at end of file
@@ -10,9 +10,7 @@ package com.example.trackit_enhanced_artifact;
  * Date: 2025-03-27
  */
 
-import android.annotation.SuppressLint;
 import android.content.Context;
-import android.telephony.SmsManager;
 import android.util.Log;
 import android.widget.Toast;
 import androidx.core.content.ContextCompat;
@@ -23,6 +21,10 @@ import android.content.pm.PackageManager;
 public class SMSNotifier {
 
     private static final String TAG = "SMSNotifier"; // For logging
+
+    // Settings shared with EventListActivity's menu
+    public static final String PREFS_NAME = "trackit_settings";
+    private static final String KEY_SMS_DIGEST = "sms_digest";
     private final Context context;
 
     public SMSNotifier(Context context) {
@@ -41,8 +43,8 @@ public class SMSNotifier {
     }
 
     /**
-     * Sends an SMS notification with the given message to the specified phone number.
-     * Logs success or failure and provides user feedback by Toast.
+     * Queues an SMS notification with the given message for the specified phone number.
+     * Identical messages still waiting to be sent are only sent once.
      *
      * @param phoneNumber The recipient's phone number.
      * @param message     The message content to send.
@@ -55,31 +57,58 @@ public class SMSNotifier {
         }
 
         if (isSMSPermissionGranted()) {
-            try {
-                SmsManager smsManager = SmsManager.getDefault();
-                smsManager.sendTextMessage(phoneNumber, null, message, null, null);
-                Toast.makeText(context, "SMS notification sent!", Toast.LENGTH_SHORT).show();
-                Log.d(TAG, "SMS successfully sent to " + phoneNumber);
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to send SMS to " + phoneNumber, e);
-                Toast.makeText(context, "Failed to send SMS notification.", Toast.LENGTH_SHORT).show();
-            }
+            // Sent in the background; failures are retried and tracked in the outbox
+            SmsOutbox.get(context).enqueue(phoneNumber, message);
+            Log.d(TAG, "SMS queued for " + phoneNumber);
+        } else {
+            Log.w(TAG, "SMS permission not granted. Unable to send SMS.");
+            Toast.makeText(context, "SMS permission not granted.", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /**
+     * Sends a notification about a change to an event. In digest mode the notification is held
+     * briefly and combined with others, and repeated changes to the same event collapse to the latest.
+     *
+     * @param phoneNumber The recipient's phone number.
+     * @param event       The event the notification is about.
+     * @param message     The message content to send.
+     */
+    public void sendEventNotification(String phoneNumber, Event event, String message) {
+        if (!isDigestEnabled()) {
+            sendSMSNotification(phoneNumber, message);
+            return;
+        }
+
+        if (isSMSPermissionGranted()) {
+            SmsOutbox.get(context).enqueueDigest(phoneNumber, event.getId(), message);
+            Log.d(TAG, "Notification for event " + event.getId() + " added to digest");
         } else {
             Log.w(TAG, "SMS permission not granted. Unable to send SMS.");
             Toast.makeText(context, "SMS permission not granted.", Toast.LENGTH_SHORT).show();
         }
     }
 
+    /**
+     * Whether event notifications are combined into digests.
+     */
+    public boolean isDigestEnabled() {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).getBoolean(KEY_SMS_DIGEST, false);
+    }
+
+    public void setDigestEnabled(boolean enabled) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit().putBoolean(KEY_SMS_DIGEST, enabled).apply();
+    }
+
     /**
      * Creates a formatted SMS message string for the given event.
      *
      * @param event The event for which to create the message.
      * @return A formatted string containing event name, date, and time.
      */
-    @SuppressLint("DefaultLocale")
     public String createEventNotificationMessage(Event event) {
         return "Event: " + event.getName() +
-                " on " + event.getYear() + "-" + event.getMonth() + "-" + event.getDay() +
-                " at " + String.format("%02d:%02d", event.getHour(), event.getMinute());
+                " on " + event.getFormattedDate() +
+                " at " + event.getFormattedTime();
     }
 }
\ No newline at end of file
@@ -11,29 +11,67 @@ package com.example.trackit_enhanced_artifact;
  * Date: 2025-03-27
  */
 
-import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 public class SQLDatabase extends SQLiteOpenHelper {
 
     private static final String TAG = "SQLDatabase";
 
     // Database configuration
     private static final String DATABASE_NAME = "eventsApp.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 9;
 
     // Event table and columns
     public static final String TABLE_EVENTS = "events";
     public static final String COLUMN_EVENT_ID = "id";
     public static final String COLUMN_EVENT_NAME = "name";
     public static final String COLUMN_EVENT_DESCRIPTION = "description";
-    public static final String COLUMN_EVENT_DATE = "date";
-    public static final String COLUMN_EVENT_TIME = "time";
+    public static final String COLUMN_EVENT_DESCRIPTION_PREVIEW = "description_preview"; // See Event.previewOf
+    public static final String COLUMN_EVENT_TIMESTAMP = "ts"; // Epoch minutes, see EventTime
     public static final String COLUMN_EVENT_USER_ID = "user_id";
+    public static final String COLUMN_EVENT_UUID = "uuid"; // Names the event on every device; the row ID is local
+    public static final String COLUMN_EVENT_UPDATED_AT = "updated_at"; // Epoch ms of the last edit, on any device
+    public static final String COLUMN_EVENT_SYNCED_AT = "synced_at"; // updated_at of the last version pulled from the server
+
+    // Full-text index over event names and descriptions, keyed by event ID (docid)
+    public static final String TABLE_EVENTS_FTS = "events_fts";
+
+    // Append-only log of event changes, written by triggers in the same transaction as the change.
+    // The sequence never goes backwards or repeats, even after compaction deletes entries
+    public static final String TABLE_EVENT_JOURNAL = "event_journal";
+    public static final String COLUMN_JOURNAL_SEQUENCE = "seq";
+    public static final String COLUMN_JOURNAL_OPERATION = "op"; // See EventChange
+    public static final String COLUMN_JOURNAL_EVENT_ID = "event_id";
+
+    // Per-user sync progress: the last journal sequence pushed and the server's cursor for the last pull
+    public static final String TABLE_SYNC_STATE = "sync_state";
+    public static final String COLUMN_SYNC_PUSH_SEQUENCE = "push_sequence";
+    public static final String COLUMN_SYNC_PULL_CURSOR = "pull_cursor";
+
+    // Where each named journal reader, such as a backup, has read up to; compaction stays behind the slowest
+    public static final String TABLE_JOURNAL_READERS = "journal_readers";
+    public static final String COLUMN_JOURNAL_READER = "reader";
+
+    // Version 1 stored the event date and time as TEXT
+    private static final String LEGACY_TABLE_EVENTS = "events_v1";
+    private static final String LEGACY_COLUMN_EVENT_DATE = "date";
+    private static final String LEGACY_COLUMN_EVENT_TIME = "time";
 
     // User table and columns
     public static final String USER_TABLE = "users";
@@ -41,17 +79,337 @@ public class SQLDatabase extends SQLiteOpenHelper {
     public static final String COLUMN_USERNAME = "username";
     public static final String COLUMN_PASSWORD = "password";
 
+    // SMS outbox table and columns; times are epoch milliseconds
+    public static final String TABLE_SMS_OUTBOX = "sms_outbox";
+    public static final String COLUMN_SMS_ID = "id";
+    public static final String COLUMN_SMS_PHONE_NUMBER = "phone_number";
+    public static final String COLUMN_SMS_MESSAGE = "message";
+    public static final String COLUMN_SMS_STATUS = "status";
+    public static final String COLUMN_SMS_ATTEMPTS = "attempts";
+    public static final String COLUMN_SMS_NEXT_ATTEMPT_AT = "next_attempt_at";
+    public static final String COLUMN_SMS_CREATED_AT = "created_at";
+    public static final String COLUMN_SMS_LAST_ERROR = "last_error";
+
+    // Outbox message states
+    public static final int SMS_STATUS_PENDING = 0;
+    public static final int SMS_STATUS_SENDING = 1; // Handed to the radio, waiting for the sent report
+    public static final int SMS_STATUS_SENT = 2;
+    public static final int SMS_STATUS_DELIVERED = 3;
+    public static final int SMS_STATUS_FAILED = 4;
+
     // SQL for creating the events table
     private static final String CREATE_EVENTS_TABLE =
             "CREATE TABLE " + TABLE_EVENTS + " (" +
                     COLUMN_EVENT_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
                     COLUMN_EVENT_NAME + " TEXT NOT NULL, " +
                     COLUMN_EVENT_DESCRIPTION + " TEXT, " +
-                    COLUMN_EVENT_DATE + " TEXT NOT NULL, " +
-                    COLUMN_EVENT_TIME + " TEXT NOT NULL, " +
+                    COLUMN_EVENT_TIMESTAMP + " INTEGER NOT NULL, " +
+                    COLUMN_EVENT_USER_ID + " INTEGER, " +
+                    COLUMN_EVENT_DESCRIPTION_PREVIEW + " TEXT, " +
+                    COLUMN_EVENT_UUID + " TEXT, " +
+                    COLUMN_EVENT_UPDATED_AT + " INTEGER NOT NULL DEFAULT 0, " +
+                    COLUMN_EVENT_SYNCED_AT + " INTEGER, " +
+                    "FOREIGN KEY(" + COLUMN_EVENT_USER_ID + ") REFERENCES " + USER_TABLE + "(" + COLUMN_USER_ID + "));";
+
+    // The events table as version 2 created it; later versions add columns with ALTER TABLE
+    private static final String CREATE_EVENTS_TABLE_V2 =
+            "CREATE TABLE " + TABLE_EVENTS + " (" +
+                    COLUMN_EVENT_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    COLUMN_EVENT_NAME + " TEXT NOT NULL, " +
+                    COLUMN_EVENT_DESCRIPTION + " TEXT, " +
+                    COLUMN_EVENT_TIMESTAMP + " INTEGER NOT NULL, " +
                     COLUMN_EVENT_USER_ID + " INTEGER, " +
                     "FOREIGN KEY(" + COLUMN_EVENT_USER_ID + ") REFERENCES " + USER_TABLE + "(" + COLUMN_USER_ID + "));";
 
+    // Composite index so per-user queries are ordered and range-filtered by time inside SQLite
+    private static final String CREATE_EVENTS_USER_TIME_INDEX =
+            "CREATE INDEX idx_events_user_ts ON " + TABLE_EVENTS +
+                    " (" + COLUMN_EVENT_USER_ID + ", " + COLUMN_EVENT_TIMESTAMP + ");";
+
+    // Lets a pulled change find the local copy of its event with one seek
+    private static final String CREATE_EVENTS_UUID_INDEX =
+            "CREATE UNIQUE INDEX idx_events_uuid ON " + TABLE_EVENTS + " (" + COLUMN_EVENT_UUID + ");";
+
+    // Time-only index for queries across all users, such as loading every pending reminder
+    private static final String CREATE_EVENTS_TIME_INDEX =
+            "CREATE INDEX idx_events_ts ON " + TABLE_EVENTS + " (" + COLUMN_EVENT_TIMESTAMP + ");";
+
+    // External-content FTS4 table: the text lives only in events, the index stores just the terms
+    private static final String CREATE_EVENTS_FTS_TABLE =
+            "CREATE VIRTUAL TABLE " + TABLE_EVENTS_FTS + " USING fts4(content=\"" + TABLE_EVENTS + "\", " +
+                    COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION + ");";
+
+    // Triggers that keep the FTS index in step with every insert, update and delete on events.
+    // Old terms must be removed before the row changes, new terms added after.
+    private static final String[] CREATE_EVENTS_FTS_TRIGGERS = {
+            "CREATE TRIGGER events_fts_before_update BEFORE UPDATE ON " + TABLE_EVENTS + " BEGIN " +
+                    "DELETE FROM " + TABLE_EVENTS_FTS + " WHERE docid = old." + COLUMN_EVENT_ID + "; END;",
+            "CREATE TRIGGER events_fts_before_delete BEFORE DELETE ON " + TABLE_EVENTS + " BEGIN " +
+                    "DELETE FROM " + TABLE_EVENTS_FTS + " WHERE docid = old." + COLUMN_EVENT_ID + "; END;",
+            "CREATE TRIGGER events_fts_after_update AFTER UPDATE ON " + TABLE_EVENTS + " BEGIN " +
+                    "INSERT INTO " + TABLE_EVENTS_FTS + " (docid, " + COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION +
+                    ") VALUES (new." + COLUMN_EVENT_ID + ", new." + COLUMN_EVENT_NAME + ", new." +
+                    COLUMN_EVENT_DESCRIPTION + "); END;",
+            "CREATE TRIGGER events_fts_after_insert AFTER INSERT ON " + TABLE_EVENTS + " BEGIN " +
+                    "INSERT INTO " + TABLE_EVENTS_FTS + " (docid, " + COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION +
+                    ") VALUES (new." + COLUMN_EVENT_ID + ", new." + COLUMN_EVENT_NAME + ", new." +
+                    COLUMN_EVENT_DESCRIPTION + "); END;"
+    };
+
+    // Name, description and ts are null in a DELETE entry; the event and user IDs are all a reader needs.
+    // uuid, updated_at and synced_at are copied from the event so sync can push an entry on its own
+    private static final String CREATE_EVENT_JOURNAL_TABLE =
+            "CREATE TABLE " + TABLE_EVENT_JOURNAL + " (" +
+                    COLUMN_JOURNAL_SEQUENCE + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    COLUMN_JOURNAL_OPERATION + " INTEGER NOT NULL, " +
+                    COLUMN_JOURNAL_EVENT_ID + " INTEGER NOT NULL, " +
+                    COLUMN_EVENT_USER_ID + " INTEGER, " +
+                    COLUMN_EVENT_NAME + " TEXT, " +
+                    COLUMN_EVENT_DESCRIPTION + " TEXT, " +
+                    COLUMN_EVENT_TIMESTAMP + " INTEGER, " +
+                    COLUMN_EVENT_UUID + " TEXT, " +
+                    COLUMN_EVENT_UPDATED_AT + " INTEGER, " +
+                    COLUMN_EVENT_SYNCED_AT + " INTEGER);";
+
+    // The journal as version 7 created it; version 8 adds the sync columns with ALTER TABLE
+    private static final String CREATE_EVENT_JOURNAL_TABLE_V7 =
+            "CREATE TABLE " + TABLE_EVENT_JOURNAL + " (" +
+                    COLUMN_JOURNAL_SEQUENCE + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    COLUMN_JOURNAL_OPERATION + " INTEGER NOT NULL, " +
+                    COLUMN_JOURNAL_EVENT_ID + " INTEGER NOT NULL, " +
+                    COLUMN_EVENT_USER_ID + " INTEGER, " +
+                    COLUMN_EVENT_NAME + " TEXT, " +
+                    COLUMN_EVENT_DESCRIPTION + " TEXT, " +
+                    COLUMN_EVENT_TIMESTAMP + " INTEGER);";
+
+    // Lets compaction find the later entries of the same event with one seek
+    private static final String CREATE_EVENT_JOURNAL_EVENT_INDEX =
+            "CREATE INDEX idx_event_journal_event ON " + TABLE_EVENT_JOURNAL +
+                    " (" + COLUMN_JOURNAL_EVENT_ID + ", " + COLUMN_JOURNAL_SEQUENCE + ");";
+
+    // Serves sync's "this user's entries after the last push" reads
+    private static final String CREATE_EVENT_JOURNAL_USER_INDEX =
+            "CREATE INDEX idx_event_journal_user ON " + TABLE_EVENT_JOURNAL +
+                    " (" + COLUMN_EVENT_USER_ID + ", " + COLUMN_JOURNAL_SEQUENCE + ");";
+
+    private static final String JOURNAL_SNAPSHOT_COLUMNS =
+            COLUMN_JOURNAL_OPERATION + ", " + COLUMN_JOURNAL_EVENT_ID + ", " + COLUMN_EVENT_USER_ID + ", " +
+                    COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION + ", " + COLUMN_EVENT_TIMESTAMP;
+
+    private static final String JOURNAL_SYNC_COLUMNS =
+            COLUMN_EVENT_UUID + ", " + COLUMN_EVENT_UPDATED_AT + ", " + COLUMN_EVENT_SYNCED_AT;
+
+    private static final String[] JOURNAL_TRIGGER_NAMES = {
+            "events_journal_after_insert", "events_journal_after_update", "events_journal_after_delete"
+    };
+
+    // Triggers that journal every change to events. An update that leaves the stored fields as
+    // they were (such as a preview backfill, or only moving updated_at) is not a change
+    private static final String[] CREATE_EVENT_JOURNAL_TRIGGERS = {
+            "CREATE TRIGGER events_journal_after_insert AFTER INSERT ON " + TABLE_EVENTS + " BEGIN " +
+                    "INSERT INTO " + TABLE_EVENT_JOURNAL + " (" + JOURNAL_SNAPSHOT_COLUMNS + ", " +
+                    JOURNAL_SYNC_COLUMNS + ") VALUES (" + EventChange.INSERT + ", new." + COLUMN_EVENT_ID +
+                    ", new." + COLUMN_EVENT_USER_ID + ", new." + COLUMN_EVENT_NAME + ", new." +
+                    COLUMN_EVENT_DESCRIPTION + ", new." + COLUMN_EVENT_TIMESTAMP + ", new." + COLUMN_EVENT_UUID +
+                    ", new." + COLUMN_EVENT_UPDATED_AT + ", new." + COLUMN_EVENT_SYNCED_AT + "); END;",
+            "CREATE TRIGGER events_journal_after_update AFTER UPDATE ON " + TABLE_EVENTS + " WHEN " +
+                    "old." + COLUMN_EVENT_NAME + " IS NOT new." + COLUMN_EVENT_NAME + " OR " +
+                    "old." + COLUMN_EVENT_DESCRIPTION + " IS NOT new." + COLUMN_EVENT_DESCRIPTION + " OR " +
+                    "old." + COLUMN_EVENT_TIMESTAMP + " IS NOT new." + COLUMN_EVENT_TIMESTAMP + " OR " +
+                    "old." + COLUMN_EVENT_USER_ID + " IS NOT new." + COLUMN_EVENT_USER_ID + " BEGIN " +
+                    "INSERT INTO " + TABLE_EVENT_JOURNAL + " (" + JOURNAL_SNAPSHOT_COLUMNS + ", " +
+                    JOURNAL_SYNC_COLUMNS + ") VALUES (" + EventChange.UPDATE + ", new." + COLUMN_EVENT_ID +
+                    ", new." + COLUMN_EVENT_USER_ID + ", new." + COLUMN_EVENT_NAME + ", new." +
+                    COLUMN_EVENT_DESCRIPTION + ", new." + COLUMN_EVENT_TIMESTAMP + ", new." + COLUMN_EVENT_UUID +
+                    ", new." + COLUMN_EVENT_UPDATED_AT + ", new." + COLUMN_EVENT_SYNCED_AT + "); END;",
+            // deleteEvent stamps updated_at just before the delete, so the entry carries the deletion time
+            "CREATE TRIGGER events_journal_after_delete AFTER DELETE ON " + TABLE_EVENTS + " BEGIN " +
+                    "INSERT INTO " + TABLE_EVENT_JOURNAL + " (" + COLUMN_JOURNAL_OPERATION + ", " +
+                    COLUMN_JOURNAL_EVENT_ID + ", " + COLUMN_EVENT_USER_ID + ", " + JOURNAL_SYNC_COLUMNS +
+                    ") VALUES (" + EventChange.DELETE + ", old." + COLUMN_EVENT_ID + ", old." + COLUMN_EVENT_USER_ID +
+                    ", old." + COLUMN_EVENT_UUID + ", old." + COLUMN_EVENT_UPDATED_AT + ", old." +
+                    COLUMN_EVENT_SYNCED_AT + "); END;"
+    };
+
+    // The journal triggers as version 7 created them; version 8 replaces them
+    private static final String[] CREATE_EVENT_JOURNAL_TRIGGERS_V7 = {
+            "CREATE TRIGGER events_journal_after_insert AFTER INSERT ON " + TABLE_EVENTS + " BEGIN " +
+                    "INSERT INTO " + TABLE_EVENT_JOURNAL + " (" + JOURNAL_SNAPSHOT_COLUMNS + ") VALUES (" +
+                    EventChange.INSERT + ", new." + COLUMN_EVENT_ID + ", new." + COLUMN_EVENT_USER_ID + ", new." +
+                    COLUMN_EVENT_NAME + ", new." + COLUMN_EVENT_DESCRIPTION + ", new." + COLUMN_EVENT_TIMESTAMP +
+                    "); END;",
+            "CREATE TRIGGER events_journal_after_update AFTER UPDATE ON " + TABLE_EVENTS + " WHEN " +
+                    "old." + COLUMN_EVENT_NAME + " IS NOT new." + COLUMN_EVENT_NAME + " OR " +
+                    "old." + COLUMN_EVENT_DESCRIPTION + " IS NOT new." + COLUMN_EVENT_DESCRIPTION + " OR " +
+                    "old." + COLUMN_EVENT_TIMESTAMP + " IS NOT new." + COLUMN_EVENT_TIMESTAMP + " OR " +
+                    "old." + COLUMN_EVENT_USER_ID + " IS NOT new." + COLUMN_EVENT_USER_ID + " BEGIN " +
+                    "INSERT INTO " + TABLE_EVENT_JOURNAL + " (" + JOURNAL_SNAPSHOT_COLUMNS + ") VALUES (" +
+                    EventChange.UPDATE + ", new." + COLUMN_EVENT_ID + ", new." + COLUMN_EVENT_USER_ID + ", new." +
+                    COLUMN_EVENT_NAME + ", new." + COLUMN_EVENT_DESCRIPTION + ", new." + COLUMN_EVENT_TIMESTAMP +
+                    "); END;",
+            "CREATE TRIGGER events_journal_after_delete AFTER DELETE ON " + TABLE_EVENTS + " BEGIN " +
+                    "INSERT INTO " + TABLE_EVENT_JOURNAL + " (" + COLUMN_JOURNAL_OPERATION + ", " +
+                    COLUMN_JOURNAL_EVENT_ID + ", " + COLUMN_EVENT_USER_ID + ") VALUES (" + EventChange.DELETE +
+                    ", old." + COLUMN_EVENT_ID + ", old." + COLUMN_EVENT_USER_ID + "); END;"
+    };
+
+    private static final String SELECT_CHANGES_SQL =
+            "SELECT " + COLUMN_JOURNAL_SEQUENCE + ", " + JOURNAL_SNAPSHOT_COLUMNS + " FROM " + TABLE_EVENT_JOURNAL +
+                    " WHERE " + COLUMN_JOURNAL_SEQUENCE + " > ? ORDER BY " + COLUMN_JOURNAL_SEQUENCE + " LIMIT ?";
+
+    // An entry is superseded once a later entry for the same event exists. Entries a user's sync
+    // has not pushed yet are kept as well; a user who never synced has no sync_state row
+    private static final String COMPACT_JOURNAL_SQL =
+            "DELETE FROM " + TABLE_EVENT_JOURNAL + " WHERE " + COLUMN_JOURNAL_SEQUENCE + " <= ? AND " +
+                    COLUMN_JOURNAL_SEQUENCE + " <= IFNULL((SELECT s." + COLUMN_SYNC_PUSH_SEQUENCE + " FROM " +
+                    TABLE_SYNC_STATE + " s WHERE s." + COLUMN_EVENT_USER_ID + " = " + TABLE_EVENT_JOURNAL + "." +
+                    COLUMN_EVENT_USER_ID + "), " + COLUMN_JOURNAL_SEQUENCE + ") AND EXISTS (" +
+                    "SELECT 1 FROM " + TABLE_EVENT_JOURNAL + " later WHERE later." + COLUMN_JOURNAL_EVENT_ID + " = " +
+                    TABLE_EVENT_JOURNAL + "." + COLUMN_JOURNAL_EVENT_ID + " AND later." + COLUMN_JOURNAL_SEQUENCE +
+                    " > " + TABLE_EVENT_JOURNAL + "." + COLUMN_JOURNAL_SEQUENCE + ")";
+
+    private static final String LATEST_SEQUENCE_SQL =
+            "SELECT IFNULL(MAX(" + COLUMN_JOURNAL_SEQUENCE + "), 0) FROM " + TABLE_EVENT_JOURNAL;
+
+    private static final String CREATE_JOURNAL_READERS_TABLE =
+            "CREATE TABLE " + TABLE_JOURNAL_READERS + " (" +
+                    COLUMN_JOURNAL_READER + " TEXT PRIMARY KEY, " +
+                    COLUMN_JOURNAL_SEQUENCE + " INTEGER NOT NULL);";
+
+    private static final String SELECT_READER_SEQUENCE_SQL =
+            "SELECT " + COLUMN_JOURNAL_SEQUENCE + " FROM " + TABLE_JOURNAL_READERS + " WHERE " +
+                    COLUMN_JOURNAL_READER + " = ?";
+
+    private static final String SAVE_READER_SEQUENCE_SQL =
+            "INSERT OR REPLACE INTO " + TABLE_JOURNAL_READERS + " (" + COLUMN_JOURNAL_READER + ", " +
+                    COLUMN_JOURNAL_SEQUENCE + ") VALUES (?, ?)";
+
+    // The slowest named reader's position, or the whole journal when no reader is registered
+    private static final String ACKNOWLEDGED_SEQUENCE_SQL =
+            "SELECT IFNULL((SELECT MIN(" + COLUMN_JOURNAL_SEQUENCE + ") FROM " + TABLE_JOURNAL_READERS + "), (" +
+                    LATEST_SEQUENCE_SQL + "))";
+
+    private static final String CREATE_SYNC_STATE_TABLE =
+            "CREATE TABLE " + TABLE_SYNC_STATE + " (" +
+                    COLUMN_EVENT_USER_ID + " INTEGER PRIMARY KEY, " +
+                    COLUMN_SYNC_PUSH_SEQUENCE + " INTEGER NOT NULL DEFAULT 0, " +
+                    COLUMN_SYNC_PULL_CURSOR + " INTEGER NOT NULL DEFAULT 0);";
+
+    // One user's journal entries after the last pushed sequence, through the (user_id, seq) index
+    private static final String SELECT_UNPUSHED_CHANGES_SQL =
+            "SELECT " + COLUMN_JOURNAL_SEQUENCE + ", " + JOURNAL_SNAPSHOT_COLUMNS + ", " + JOURNAL_SYNC_COLUMNS +
+                    " FROM " + TABLE_EVENT_JOURNAL + " WHERE " + COLUMN_EVENT_USER_ID + " = ? AND " +
+                    COLUMN_JOURNAL_SEQUENCE + " > ? ORDER BY " + COLUMN_JOURNAL_SEQUENCE + " LIMIT ?";
+
+    private static final String SELECT_PUSH_SEQUENCE_SQL =
+            "SELECT " + COLUMN_SYNC_PUSH_SEQUENCE + " FROM " + TABLE_SYNC_STATE + " WHERE " + COLUMN_EVENT_USER_ID + " = ?";
+
+    private static final String SELECT_PULL_CURSOR_SQL =
+            "SELECT " + COLUMN_SYNC_PULL_CURSOR + " FROM " + TABLE_SYNC_STATE + " WHERE " + COLUMN_EVENT_USER_ID + " = ?";
+
+    // The platform SQLite on older devices predates upsert, so the row is made first and then updated
+    private static final String INSERT_SYNC_STATE_SQL =
+            "INSERT OR IGNORE INTO " + TABLE_SYNC_STATE + " (" + COLUMN_EVENT_USER_ID + ") VALUES (?)";
+
+    private static final String UPDATE_PUSH_SEQUENCE_SQL =
+            "UPDATE " + TABLE_SYNC_STATE + " SET " + COLUMN_SYNC_PUSH_SEQUENCE + " = ? WHERE " + COLUMN_EVENT_USER_ID + " = ?";
+
+    private static final String UPDATE_PULL_CURSOR_SQL =
+            "UPDATE " + TABLE_SYNC_STATE + " SET " + COLUMN_SYNC_PULL_CURSOR + " = ? WHERE " + COLUMN_EVENT_USER_ID + " = ?";
+
+    // A pulled change is stored with synced_at equal to its updated_at, which marks the journal
+    // entries it causes as already on the server
+    private static final String INSERT_SYNCED_EVENT_SQL =
+            "INSERT INTO " + TABLE_EVENTS + " (" + COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION + ", " +
+                    COLUMN_EVENT_DESCRIPTION_PREVIEW + ", " + COLUMN_EVENT_TIMESTAMP + ", " + COLUMN_EVENT_UPDATED_AT +
+                    ", " + COLUMN_EVENT_SYNCED_AT + ", " + COLUMN_EVENT_UUID + ", " + COLUMN_EVENT_USER_ID +
+                    ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SYNCED_EVENT_SQL =
+            "UPDATE " + TABLE_EVENTS + " SET " + COLUMN_EVENT_NAME + " = ?, " + COLUMN_EVENT_DESCRIPTION + " = ?, " +
+                    COLUMN_EVENT_DESCRIPTION_PREVIEW + " = ?, " + COLUMN_EVENT_TIMESTAMP + " = ?, " +
+                    COLUMN_EVENT_UPDATED_AT + " = ?, " + COLUMN_EVENT_SYNCED_AT + " = ? WHERE " + COLUMN_EVENT_ID + " = ?";
+
+    private static final String STAMP_SYNCED_EVENT_SQL =
+            "UPDATE " + TABLE_EVENTS + " SET " + COLUMN_EVENT_UPDATED_AT + " = ?, " + COLUMN_EVENT_SYNCED_AT +
+                    " = ? WHERE " + COLUMN_EVENT_ID + " = ?";
+
+    private static final String SELECT_EVENT_BY_UUID_SQL =
+            "SELECT " + COLUMN_EVENT_ID + ", " + COLUMN_EVENT_UPDATED_AT + ", " + COLUMN_EVENT_NAME + ", " +
+                    COLUMN_EVENT_DESCRIPTION + ", " + COLUMN_EVENT_TIMESTAMP + " FROM " + TABLE_EVENTS + " WHERE " +
+                    COLUMN_EVENT_UUID + " = ? AND " + COLUMN_EVENT_USER_ID + " = ?";
+
+    // What a list row shows: the preview stands in for the description, which can be long.
+    // EventRowMapper finds columns by name, so the order is free
+    private static final String EVENT_LIST_COLUMNS =
+            COLUMN_EVENT_ID + ", " + COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION_PREVIEW + ", " +
+                    COLUMN_EVENT_TIMESTAMP;
+
+    // Without the description, for lookups that only show or send an event's name and time
+    private static final String EVENT_SUMMARY_COLUMNS =
+            COLUMN_EVENT_ID + ", " + COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_TIMESTAMP;
+
+    // Everything a backup needs to recreate an event; IDs are assigned again on import
+    private static final String EVENT_EXPORT_COLUMNS =
+            COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION + ", " + COLUMN_EVENT_TIMESTAMP;
+
+    // Every match joined back to the user's events, with only what ranking needs; matchinfo 'pcx'
+    // supplies the per-column hit counts. The rows actually shown are loaded afterwards by ID.
+    private static final String SEARCH_EVENTS_SQL =
+            "SELECT e." + COLUMN_EVENT_ID + ", e." + COLUMN_EVENT_TIMESTAMP + ", matchinfo(" + TABLE_EVENTS_FTS + ", 'pcx')" +
+                    " FROM " + TABLE_EVENTS_FTS + " JOIN " + TABLE_EVENTS + " e ON e." + COLUMN_EVENT_ID + " = " +
+                    TABLE_EVENTS_FTS + ".docid" +
+                    " WHERE " + TABLE_EVENTS_FTS + " MATCH ? AND e." + COLUMN_EVENT_USER_ID + " = ?";
+
+    // SQLite's default limit on bound parameters, which caps an ID list in one query
+    static final int MAX_IDS_PER_QUERY = 999;
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO " + TABLE_EVENTS + " (" + COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION + ", " +
+                    COLUMN_EVENT_DESCRIPTION_PREVIEW + ", " + COLUMN_EVENT_TIMESTAMP + ", " + COLUMN_EVENT_UPDATED_AT +
+                    ", " + COLUMN_EVENT_UUID + ", " + COLUMN_EVENT_USER_ID + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CREATE_SMS_OUTBOX_TABLE =
+            "CREATE TABLE " + TABLE_SMS_OUTBOX + " (" +
+                    COLUMN_SMS_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    COLUMN_SMS_PHONE_NUMBER + " TEXT NOT NULL, " +
+                    COLUMN_SMS_MESSAGE + " TEXT NOT NULL, " +
+                    COLUMN_SMS_STATUS + " INTEGER NOT NULL, " +
+                    COLUMN_SMS_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0, " +
+                    COLUMN_SMS_NEXT_ATTEMPT_AT + " INTEGER NOT NULL, " +
+                    COLUMN_SMS_CREATED_AT + " INTEGER NOT NULL, " +
+                    COLUMN_SMS_LAST_ERROR + " TEXT);";
+
+    // At most one unsent copy of any message, so INSERT OR IGNORE drops duplicates
+    private static final String CREATE_SMS_OUTBOX_DEDUPE_INDEX =
+            "CREATE UNIQUE INDEX idx_sms_outbox_unsent ON " + TABLE_SMS_OUTBOX +
+                    " (" + COLUMN_SMS_PHONE_NUMBER + ", " + COLUMN_SMS_MESSAGE + ")" +
+                    " WHERE " + COLUMN_SMS_STATUS + " IN (" + SMS_STATUS_PENDING + ", " + SMS_STATUS_SENDING + ");";
+
+    // Serves the dispatcher's "what is due next" queries
+    private static final String CREATE_SMS_OUTBOX_DUE_INDEX =
+            "CREATE INDEX idx_sms_outbox_due ON " + TABLE_SMS_OUTBOX +
+                    " (" + COLUMN_SMS_STATUS + ", " + COLUMN_SMS_NEXT_ATTEMPT_AT + ");";
+
+    private static final String INSERT_SMS_SQL =
+            "INSERT OR IGNORE INTO " + TABLE_SMS_OUTBOX + " (" + COLUMN_SMS_PHONE_NUMBER + ", " + COLUMN_SMS_MESSAGE + ", " +
+                    COLUMN_SMS_STATUS + ", " + COLUMN_SMS_NEXT_ATTEMPT_AT + ", " + COLUMN_SMS_CREATED_AT +
+                    ") VALUES (?, ?, " + SMS_STATUS_PENDING + ", ?, ?)";
+
+    private static final String UPDATE_SMS_SQL =
+            "UPDATE " + TABLE_SMS_OUTBOX + " SET " + COLUMN_SMS_STATUS + " = ?, " + COLUMN_SMS_ATTEMPTS + " = ?, " +
+                    COLUMN_SMS_NEXT_ATTEMPT_AT + " = ?, " + COLUMN_SMS_LAST_ERROR + " = ? WHERE " + COLUMN_SMS_ID + " = ?";
+
+    // Only moves a message forward from SENDING, so a late sent report cannot undo a delivery report
+    // and a successful part of a multipart message cannot hide a retry queued by a failed one
+    private static final String ADVANCE_SMS_STATUS_SQL =
+            "UPDATE " + TABLE_SMS_OUTBOX + " SET " + COLUMN_SMS_STATUS + " = ? WHERE " + COLUMN_SMS_ID + " = ? AND " +
+                    COLUMN_SMS_STATUS + " >= " + SMS_STATUS_SENDING + " AND " + COLUMN_SMS_STATUS + " < ?";
+
+    private static final String NEXT_SMS_ATTEMPT_SQL =
+            "SELECT MIN(" + COLUMN_SMS_NEXT_ATTEMPT_AT + ") FROM " + TABLE_SMS_OUTBOX + " WHERE " + COLUMN_SMS_STATUS +
+                    " IN (" + SMS_STATUS_PENDING + ", " + SMS_STATUS_SENDING + ")";
+
     // SQL for creating the users table
     private static final String CREATE_USERS_TABLE =
             "CREATE TABLE " + USER_TABLE + " (" +
@@ -59,8 +417,87 @@ public class SQLDatabase extends SQLiteOpenHelper {
                     COLUMN_USERNAME + " TEXT NOT NULL UNIQUE, " +
                     COLUMN_PASSWORD + " TEXT NOT NULL);";
 
-    public SQLDatabase(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO " + USER_TABLE + " (" + COLUMN_USERNAME + ", " + COLUMN_PASSWORD + ") VALUES (?, ?)";
+
+    private static final String SELECT_USER_ID_SQL =
+            "SELECT " + COLUMN_USER_ID + " FROM " + USER_TABLE + " WHERE " + COLUMN_USERNAME + " = ?";
+
+    private static final String SELECT_USERNAME_SQL =
+            "SELECT " + COLUMN_USERNAME + " FROM " + USER_TABLE + " WHERE " + COLUMN_USER_ID + " = ?";
+
+    private static final String CHECK_CREDENTIALS_SQL =
+            "SELECT COUNT(*) FROM " + USER_TABLE + " WHERE " +
+                    COLUMN_USERNAME + " = ? AND " + COLUMN_PASSWORD + " = ?";
+
+    // An edit always moves updated_at past the version it replaces, even if this device's clock is
+    // behind the one that wrote that version, so last-writer-wins never drops a newer local edit
+    private static final String UPDATE_EVENT_SQL =
+            "UPDATE " + TABLE_EVENTS + " SET " + COLUMN_EVENT_NAME + " = ?, " + COLUMN_EVENT_DESCRIPTION + " = ?, " +
+                    COLUMN_EVENT_DESCRIPTION_PREVIEW + " = ?, " + COLUMN_EVENT_TIMESTAMP + " = ?, " +
+                    COLUMN_EVENT_UPDATED_AT + " = MAX(?, " + COLUMN_EVENT_UPDATED_AT + " + 1) WHERE " +
+                    COLUMN_EVENT_ID + " = ?";
+
+    // Run just before a delete, so the journal entry of the delete carries when it happened
+    private static final String STAMP_EVENT_SQL =
+            "UPDATE " + TABLE_EVENTS + " SET " + COLUMN_EVENT_UPDATED_AT + " = MAX(?, " + COLUMN_EVENT_UPDATED_AT +
+                    " + 1) WHERE " + COLUMN_EVENT_ID + " = ?";
+
+    // Served by the (user_id, ts) index, so each check is one seek whatever the table size
+    private static final String COUNT_EVENTS_AT_SQL =
+            "SELECT COUNT(*) FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_USER_ID + " = ? AND " +
+                    COLUMN_EVENT_TIMESTAMP + " = ? AND " + COLUMN_EVENT_NAME + " = ?";
+
+    private static final String SELECT_EVENT_DESCRIPTION_SQL =
+            "SELECT IFNULL(" + COLUMN_EVENT_DESCRIPTION + ", '') FROM " + TABLE_EVENTS + " WHERE " +
+                    COLUMN_EVENT_ID + " = ?";
+
+    private static final String DELETE_EVENT_SQL =
+            "DELETE FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_ID + " = ?";
+
+    // Process-wide instance so the connection stays open between operations
+    private static SQLDatabase instance;
+
+    // Compiled statements reused across calls, keyed by SQL
+    private final Map<String, SQLiteStatement> statementCache = new HashMap<>();
+
+    private final LatencyStats latencyStats = new LatencyStats();
+
+    /**
+     * Returns the shared database helper, creating it on first use.
+     *
+     * @param context any context; only its application context is retained
+     */
+    public static synchronized SQLDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new SQLDatabase(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Closes and forgets the shared instance so each test starts from a fresh database.
+     */
+    @VisibleForTesting
+    static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    SQLDatabase(Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    /**
+     * Opens a database under another file name, so a test can stand in for a second device.
+     */
+    @VisibleForTesting
+    SQLDatabase(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+        // Write-ahead logging lets readers proceed while a write is in progress
+        setWriteAheadLoggingEnabled(true);
     }
 
     /**
@@ -70,31 +507,226 @@ public class SQLDatabase extends SQLiteOpenHelper {
     public void onCreate(SQLiteDatabase db) {
         Log.d(TAG, "Creating events table");
         db.execSQL(CREATE_EVENTS_TABLE);
+        db.execSQL(CREATE_EVENTS_USER_TIME_INDEX);
+        db.execSQL(CREATE_EVENTS_TIME_INDEX);
+        db.execSQL(CREATE_EVENTS_UUID_INDEX);
+        createEventsSearchIndex(db);
         Log.d(TAG, "Creating users table");
         db.execSQL(CREATE_USERS_TABLE);
+        createSmsOutbox(db);
+        db.execSQL(CREATE_EVENT_JOURNAL_TABLE);
+        db.execSQL(CREATE_EVENT_JOURNAL_EVENT_INDEX);
+        db.execSQL(CREATE_EVENT_JOURNAL_USER_INDEX);
+        for (String trigger : CREATE_EVENT_JOURNAL_TRIGGERS) {
+            db.execSQL(trigger);
+        }
+        db.execSQL(CREATE_SYNC_STATE_TABLE);
+        db.execSQL(CREATE_JOURNAL_READERS_TABLE);
     }
 
     /**
-     * Handles database upgrades by dropping and recreating tables.
+     * Handles database upgrades by migrating existing data one version step at a time.
+     * SQLiteOpenHelper runs this inside a transaction, so a failed step leaves the old schema intact.
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         Log.w(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_EVENTS);
-        db.execSQL("DROP TABLE IF EXISTS " + USER_TABLE);
-        onCreate(db);
+        if (oldVersion < 2) {
+            migrateEventsToTimestamp(db);
+        }
+        if (oldVersion < 3) {
+            createEventsSearchIndex(db);
+            // Index the rows that existed before the triggers did
+            db.execSQL("INSERT INTO " + TABLE_EVENTS_FTS + " (" + TABLE_EVENTS_FTS + ") VALUES ('rebuild')");
+            Log.d(TAG, "Built full-text index over existing events");
+        }
+        if (oldVersion < 4) {
+            db.execSQL(CREATE_EVENTS_TIME_INDEX);
+        }
+        if (oldVersion < 5) {
+            createSmsOutbox(db);
+        }
+        if (oldVersion < 6) {
+            addDescriptionPreview(db);
+        }
+        if (oldVersion < 7) {
+            createEventJournal(db);
+            // Start the journal with every existing event, so replaying it from 0 rebuilds the table
+            db.execSQL("INSERT INTO " + TABLE_EVENT_JOURNAL + " (" + JOURNAL_SNAPSHOT_COLUMNS + ") SELECT " +
+                    EventChange.INSERT + ", " + COLUMN_EVENT_ID + ", " + COLUMN_EVENT_USER_ID + ", " +
+                    COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION + ", " + COLUMN_EVENT_TIMESTAMP +
+                    " FROM " + TABLE_EVENTS + " ORDER BY " + COLUMN_EVENT_ID);
+            Log.d(TAG, "Started event journal from existing events");
+        }
+        if (oldVersion < 8) {
+            addSyncColumns(db);
+        }
+        if (oldVersion < 9) {
+            db.execSQL(CREATE_JOURNAL_READERS_TABLE);
+        }
+    }
+
+    /**
+     * Version 8: gives every event a uuid and an updated_at time for sync, carries both into the
+     * journal, and creates the per-user sync state. Existing events count as edited now, so a
+     * first sync treats them as newer than anything the server does not already have.
+     */
+    private static void addSyncColumns(SQLiteDatabase db) {
+        long now = System.currentTimeMillis();
+        db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COLUMN_EVENT_UUID + " TEXT");
+        db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COLUMN_EVENT_UPDATED_AT +
+                " INTEGER NOT NULL DEFAULT 0");
+        db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COLUMN_EVENT_SYNCED_AT + " INTEGER");
+        // Same shape as newUuid(): 32 lowercase hex digits of randomness
+        db.execSQL("UPDATE " + TABLE_EVENTS + " SET " + COLUMN_EVENT_UUID + " = lower(hex(randomblob(16))), " +
+                COLUMN_EVENT_UPDATED_AT + " = " + now);
+        db.execSQL(CREATE_EVENTS_UUID_INDEX);
+
+        for (String column : new String[]{COLUMN_EVENT_UUID + " TEXT", COLUMN_EVENT_UPDATED_AT + " INTEGER",
+                COLUMN_EVENT_SYNCED_AT + " INTEGER"}) {
+            db.execSQL("ALTER TABLE " + TABLE_EVENT_JOURNAL + " ADD COLUMN " + column);
+        }
+        // Only each event's newest entry gets the uuid, so a first push sends the current version.
+        // Older snapshots would carry the same updated_at and could win the tie on the server.
+        // Entries of events deleted before now keep a null uuid as well; the server never had them
+        db.execSQL("UPDATE " + TABLE_EVENT_JOURNAL + " SET " + COLUMN_EVENT_UUID + " = CASE WHEN EXISTS (" +
+                "SELECT 1 FROM " + TABLE_EVENT_JOURNAL + " later WHERE later." + COLUMN_JOURNAL_EVENT_ID + " = " +
+                TABLE_EVENT_JOURNAL + "." + COLUMN_JOURNAL_EVENT_ID + " AND later." + COLUMN_JOURNAL_SEQUENCE +
+                " > " + TABLE_EVENT_JOURNAL + "." + COLUMN_JOURNAL_SEQUENCE + ") THEN NULL ELSE (SELECT e." +
+                COLUMN_EVENT_UUID + " FROM " + TABLE_EVENTS + " e WHERE e." + COLUMN_EVENT_ID + " = " +
+                TABLE_EVENT_JOURNAL + "." + COLUMN_JOURNAL_EVENT_ID + ") END, " + COLUMN_EVENT_UPDATED_AT +
+                " = " + now);
+        db.execSQL(CREATE_EVENT_JOURNAL_USER_INDEX);
+        for (String trigger : JOURNAL_TRIGGER_NAMES) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + trigger);
+        }
+        for (String trigger : CREATE_EVENT_JOURNAL_TRIGGERS) {
+            db.execSQL(trigger);
+        }
+
+        db.execSQL(CREATE_SYNC_STATE_TABLE);
+        Log.d(TAG, "Added sync columns to events and journal");
+    }
+
+    /**
+     * Version 7: creates the event change journal and the triggers that append to it.
+     */
+    private static void createEventJournal(SQLiteDatabase db) {
+        db.execSQL(CREATE_EVENT_JOURNAL_TABLE_V7);
+        db.execSQL(CREATE_EVENT_JOURNAL_EVENT_INDEX);
+        for (String trigger : CREATE_EVENT_JOURNAL_TRIGGERS_V7) {
+            db.execSQL(trigger);
+        }
+    }
+
+    /**
+     * Version 6: adds the description preview shown in list rows and fills it for existing events.
+     */
+    private static void addDescriptionPreview(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE " + TABLE_EVENTS + " ADD COLUMN " + COLUMN_EVENT_DESCRIPTION_PREVIEW + " TEXT");
+
+        int filled = 0;
+        try (SQLiteStatement update = db.compileStatement(
+                "UPDATE " + TABLE_EVENTS + " SET " + COLUMN_EVENT_DESCRIPTION_PREVIEW + " = ? WHERE " +
+                        COLUMN_EVENT_ID + " = ?");
+             Cursor cursor = db.rawQuery(
+                     "SELECT " + COLUMN_EVENT_ID + ", " + COLUMN_EVENT_DESCRIPTION + " FROM " + TABLE_EVENTS +
+                             " WHERE " + COLUMN_EVENT_DESCRIPTION + " IS NOT NULL", null)) {
+            while (cursor.moveToNext()) {
+                update.bindString(1, Event.previewOf(cursor.getString(1)));
+                update.bindLong(2, cursor.getLong(0));
+                update.executeUpdateDelete();
+                filled++;
+            }
+        }
+        Log.d(TAG, "Filled description previews for " + filled + " event(s)");
+    }
+
+    /**
+     * Version 5: creates the SMS outbox and its indexes.
+     */
+    private static void createSmsOutbox(SQLiteDatabase db) {
+        db.execSQL(CREATE_SMS_OUTBOX_TABLE);
+        db.execSQL(CREATE_SMS_OUTBOX_DEDUPE_INDEX);
+        db.execSQL(CREATE_SMS_OUTBOX_DUE_INDEX);
+    }
+
+    /**
+     * Version 3: creates the full-text index over event names and descriptions and its sync triggers.
+     */
+    private static void createEventsSearchIndex(SQLiteDatabase db) {
+        db.execSQL(CREATE_EVENTS_FTS_TABLE);
+        for (String trigger : CREATE_EVENTS_FTS_TRIGGERS) {
+            db.execSQL(trigger);
+        }
+    }
+
+    /**
+     * Version 2: replaces the TEXT date/time columns with an epoch-minute column and backfills it.
+     * Rows whose date or time cannot be parsed were never loadable, so they are logged and dropped.
+     */
+    private void migrateEventsToTimestamp(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE " + TABLE_EVENTS + " RENAME TO " + LEGACY_TABLE_EVENTS);
+        db.execSQL(CREATE_EVENTS_TABLE_V2);
+
+        int migrated = 0;
+        int skipped = 0;
+        try (SQLiteStatement insert = db.compileStatement(
+                "INSERT INTO " + TABLE_EVENTS + " (" + COLUMN_EVENT_ID + ", " + COLUMN_EVENT_NAME + ", " +
+                        COLUMN_EVENT_DESCRIPTION + ", " + COLUMN_EVENT_TIMESTAMP + ", " + COLUMN_EVENT_USER_ID +
+                        ") VALUES (?, ?, ?, ?, ?)");
+             Cursor cursor = db.rawQuery(
+                     "SELECT " + COLUMN_EVENT_ID + ", " + COLUMN_EVENT_NAME + ", " + COLUMN_EVENT_DESCRIPTION + ", " +
+                             LEGACY_COLUMN_EVENT_DATE + ", " + LEGACY_COLUMN_EVENT_TIME + ", " + COLUMN_EVENT_USER_ID +
+                             " FROM " + LEGACY_TABLE_EVENTS, null)) {
+            while (cursor.moveToNext()) {
+                long timestamp;
+                try {
+                    timestamp = DateTimeCodec.parse(cursor.getString(3), cursor.getString(4));
+                } catch (IllegalArgumentException e) {
+                    Log.w(TAG, "Dropping event " + cursor.getLong(0) + " with unreadable date/time", e);
+                    skipped++;
+                    continue;
+                }
+
+                insert.clearBindings();
+                insert.bindLong(1, cursor.getLong(0));
+                insert.bindString(2, cursor.getString(1));
+                if (cursor.isNull(2)) {
+                    insert.bindNull(3);
+                } else {
+                    insert.bindString(3, cursor.getString(2));
+                }
+                insert.bindLong(4, timestamp);
+                if (cursor.isNull(5)) {
+                    insert.bindNull(5);
+                } else {
+                    insert.bindLong(5, cursor.getLong(5));
+                }
+                insert.executeInsert();
+                migrated++;
+            }
+        }
+
+        db.execSQL("DROP TABLE " + LEGACY_TABLE_EVENTS);
+        db.execSQL(CREATE_EVENTS_USER_TIME_INDEX);
+        Log.d(TAG, "Migrated " + migrated + " event(s) to timestamps, skipped " + skipped);
     }
 
     /**
      * Inserts a new user into the database.
      */
     public boolean insertUser(String username, String password) {
-        try (SQLiteDatabase db = getWritableDatabase()) {
-            ContentValues values = new ContentValues();
-            values.put(COLUMN_USERNAME, username);
-            values.put(COLUMN_PASSWORD, password);
-            long result = db.insert(USER_TABLE, null, values);
-            Log.d(TAG, "User insert result: " + result);
+        long start = System.nanoTime();
+        try {
+            SQLiteStatement insert = statement(INSERT_USER_SQL);
+            long result;
+            synchronized (insert) {
+                insert.bindString(1, username);
+                insert.bindString(2, password);
+                result = insert.executeInsert();
+            }
+            Log.d(TAG, "User insert result: " + result + " in " + latencyStats.record("insertUser", start) / 1000 + "us");
             return result != -1;
         } catch (Exception e) {
             Log.e(TAG, "Error inserting user", e);
@@ -102,38 +734,200 @@ public class SQLDatabase extends SQLiteOpenHelper {
         }
     }
 
+    /**
+     * Checks whether a user with the given username and password exists.
+     */
+    public boolean checkUserCredentials(String username, String password) {
+        long start = System.nanoTime();
+        try {
+            SQLiteStatement check = statement(CHECK_CREDENTIALS_SQL);
+            long matches;
+            synchronized (check) {
+                check.bindString(1, username);
+                check.bindString(2, password);
+                matches = check.simpleQueryForLong();
+            }
+            Log.d(TAG, "User exists: " + (matches > 0) + " in " + latencyStats.record("checkUserCredentials", start) / 1000 + "us");
+            return matches > 0;
+        } catch (Exception e) {
+            Log.e(TAG, "Error checking user credentials", e);
+            return false;
+        }
+    }
+
+    /**
+     * Retrieves the user ID for a username.
+     *
+     * @return the user ID, or -1 if the user does not exist
+     */
+    public int getUserId(String username) {
+        long start = System.nanoTime();
+        try {
+            SQLiteStatement lookup = statement(SELECT_USER_ID_SQL);
+            int userId;
+            synchronized (lookup) {
+                lookup.bindString(1, username);
+                userId = (int) lookup.simpleQueryForLong();
+            }
+            Log.d(TAG, "User ID obtained " + userId + " in " + latencyStats.record("getUserId", start) / 1000 + "us");
+            return userId;
+        } catch (SQLiteDoneException e) {
+            Log.d(TAG, "No user named " + username);
+            return -1;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting user ID", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Retrieves the username for a user ID.
+     *
+     * @return the username, or null if the user does not exist
+     */
+    public String getUsername(int userId) {
+        try {
+            SQLiteStatement lookup = statement(SELECT_USERNAME_SQL);
+            synchronized (lookup) {
+                lookup.bindLong(1, userId);
+                return lookup.simpleQueryForString();
+            }
+        } catch (SQLiteDoneException e) {
+            Log.d(TAG, "No user with ID " + userId);
+            return null;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting username", e);
+            return null;
+        }
+    }
+
     /**
      * Inserts a new event associated with a specific user.
+     *
+     * @return the generated event ID, or -1 if the insert failed
      */
-    public boolean insertEvent(String name, String description, String date, String time, int userId) {
-        try (SQLiteDatabase db = getWritableDatabase()) {
-            ContentValues values = new ContentValues();
-            values.put(COLUMN_EVENT_NAME, name);
-            values.put(COLUMN_EVENT_DESCRIPTION, description);
-            values.put(COLUMN_EVENT_DATE, date);
-            values.put(COLUMN_EVENT_TIME, time);
-            values.put(COLUMN_EVENT_USER_ID, userId);
-            long result = db.insert(TABLE_EVENTS, null, values);
-            Log.d(TAG, "Event insert result: " + result);
-            return result != -1;
+    public long insertEvent(String name, String description, long timestamp, int userId) {
+        long start = System.nanoTime();
+        try {
+            SQLiteStatement insert = statement(INSERT_EVENT_SQL);
+            long result;
+            synchronized (insert) {
+                bindEvent(insert, name, description, timestamp, System.currentTimeMillis());
+                insert.bindString(6, newUuid());
+                insert.bindLong(7, userId);
+                result = insert.executeInsert();
+            }
+            Log.d(TAG, "Event insert result: " + result + " in " + latencyStats.record("insertEvent", start) / 1000 + "us");
+            return result;
         } catch (Exception e) {
             Log.e(TAG, "Error inserting event", e);
-            return false;
+            return -1;
+        }
+    }
+
+    /**
+     * Inserts many events for one user inside a single transaction, reusing one compiled statement.
+     * A row that fails is recorded in the result and the rest of the batch still commits.
+     *
+     * @param events the events to insert, in order
+     * @param userId the ID of the user who owns the events
+     * @return the generated row IDs (-1 for failed rows) and the failures
+     */
+    public BatchInsertResult insertEvents(List<Event> events, int userId) {
+        return insertEvents(events, userId, false, "insertEvents");
+    }
+
+    /**
+     * Like {@link #insertEvents(List, int)}, but skips any event whose name and time match one the
+     * user already has, including one inserted earlier in the same batch. Used by imports, so a
+     * file can be imported twice without doubling its events.
+     *
+     * @return the generated row IDs ({@link BatchInsertResult#SKIPPED} for duplicates, -1 for
+     * failed rows) and the failures
+     */
+    public BatchInsertResult insertEventsIfAbsent(List<Event> events, int userId) {
+        return insertEvents(events, userId, true, "insertEventsIfAbsent");
+    }
+
+    private BatchInsertResult insertEvents(List<Event> events, int userId, boolean skipDuplicates, String operation) {
+        long start = System.nanoTime();
+        long[] ids = new long[events.size()];
+        int skipped = 0;
+        List<BatchInsertResult.RowFailure> failures = new ArrayList<>();
+
+        try {
+            SQLiteDatabase db = getWritableDatabase();
+            SQLiteStatement insert = statement(INSERT_EVENT_SQL);
+            SQLiteStatement count = skipDuplicates ? statement(COUNT_EVENTS_AT_SQL) : null;
+            long now = System.currentTimeMillis();
+            synchronized (insert) {
+                db.beginTransaction();
+                try {
+                    for (int i = 0; i < ids.length; i++) {
+                        Event event = events.get(i);
+                        try {
+                            if (count != null && countEventsAt(count, userId, event) > 0) {
+                                ids[i] = BatchInsertResult.SKIPPED;
+                                skipped++;
+                                continue;
+                            }
+                            bindEvent(insert, event.getName(), event.getDescription(), event.getEpochMinute(), now);
+                            insert.bindString(6, newUuid());
+                            insert.bindLong(7, userId);
+                            ids[i] = insert.executeInsert();
+                        } catch (SQLException | IllegalArgumentException e) {
+                            // SQLite rolls back only the failing statement, so the transaction stays usable
+                            ids[i] = -1;
+                            failures.add(new BatchInsertResult.RowFailure(i, e));
+                        }
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error inserting event batch", e);
+            skipped = 0;
+            failures.clear();
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = -1;
+                failures.add(new BatchInsertResult.RowFailure(i, e));
+            }
+        }
+
+        BatchInsertResult result = new BatchInsertResult(ids, failures, skipped);
+        Log.d(TAG, "Event batch insert: " + result.getInsertedCount() + " of " + ids.length + " inserted, "
+                + skipped + " duplicate(s) skipped in " + latencyStats.record(operation, start) / 1000 + "us");
+        return result;
+    }
+
+    /**
+     * Counts the user's events with the same name and time as the given one.
+     */
+    private static long countEventsAt(SQLiteStatement count, int userId, Event event) {
+        synchronized (count) {
+            count.bindLong(1, userId);
+            count.bindLong(2, event.getEpochMinute());
+            count.bindString(3, event.getName());
+            return count.simpleQueryForLong();
         }
     }
 
     /**
      * Updates an existing event by ID.
      */
-    public boolean updateEvent(int id, String name, String description, String date, String time) {
-        try (SQLiteDatabase db = getWritableDatabase()) {
-            ContentValues values = new ContentValues();
-            values.put(COLUMN_EVENT_NAME, name);
-            values.put(COLUMN_EVENT_DESCRIPTION, description);
-            values.put(COLUMN_EVENT_DATE, date);
-            values.put(COLUMN_EVENT_TIME, time);
-            int result = db.update(TABLE_EVENTS, values, COLUMN_EVENT_ID + " = ?", new String[]{String.valueOf(id)});
-            Log.d(TAG, "Event update result: " + result);
+    public boolean updateEvent(int id, String name, String description, long timestamp) {
+        long start = System.nanoTime();
+        try {
+            SQLiteStatement update = statement(UPDATE_EVENT_SQL);
+            int result;
+            synchronized (update) {
+                bindEvent(update, name, description, timestamp, System.currentTimeMillis());
+                update.bindLong(6, id);
+                result = update.executeUpdateDelete();
+            }
+            Log.d(TAG, "Event update result: " + result + " in " + latencyStats.record("updateEvent", start) / 1000 + "us");
             return result > 0;
         } catch (Exception e) {
             Log.e(TAG, "Error updating event", e);
@@ -142,12 +936,32 @@ public class SQLDatabase extends SQLiteOpenHelper {
     }
 
     /**
-     * Deletes an event from the database by ID.
+     * Deletes an event from the database by ID. The deletion time is stamped on the row first,
+     * in the same transaction, so sync can weigh the delete against edits from other devices.
      */
     public boolean deleteEvent(int id) {
-        try (SQLiteDatabase db = getWritableDatabase()) {
-            int result = db.delete(TABLE_EVENTS, COLUMN_EVENT_ID + " = ?", new String[]{String.valueOf(id)});
-            Log.d(TAG, "Event delete result: " + result);
+        long start = System.nanoTime();
+        try {
+            SQLiteDatabase db = getWritableDatabase();
+            SQLiteStatement stamp = statement(STAMP_EVENT_SQL);
+            SQLiteStatement delete = statement(DELETE_EVENT_SQL);
+            int result;
+            synchronized (stamp) {
+                db.beginTransaction();
+                try {
+                    stamp.bindLong(1, System.currentTimeMillis());
+                    stamp.bindLong(2, id);
+                    stamp.executeUpdateDelete();
+                    synchronized (delete) {
+                        delete.bindLong(1, id);
+                        result = delete.executeUpdateDelete();
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+            Log.d(TAG, "Event delete result: " + result + " in " + latencyStats.record("deleteEvent", start) / 1000 + "us");
             return result > 0;
         } catch (Exception e) {
             Log.e(TAG, "Error deleting event", e);
@@ -156,14 +970,42 @@ public class SQLDatabase extends SQLiteOpenHelper {
     }
 
     /**
-     * Retrieves all events associated with a given user.
+     * Retrieves one event's full description, for editing. List queries only read the preview.
+     *
+     * @return the description ("" if it was never set), or null if there is no such event
+     */
+    public String getEventDescription(int id) {
+        long start = System.nanoTime();
+        try {
+            SQLiteStatement select = statement(SELECT_EVENT_DESCRIPTION_SQL);
+            String description;
+            synchronized (select) {
+                select.bindLong(1, id);
+                description = select.simpleQueryForString();
+            }
+            Log.d(TAG, "Loaded description of event " + id + " in "
+                    + latencyStats.record("getEventDescription", start) / 1000 + "us");
+            return description;
+        } catch (SQLiteDoneException e) {
+            Log.d(TAG, "No event with ID " + id);
+            return null;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting event description", e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves all events associated with a given user in chronological order.
+     * The (user_id, ts) index serves both the filter and the ordering.
      */
     public Cursor getUserEvents(int userId) {
         SQLiteDatabase db = getReadableDatabase();
         Cursor cursor;
         try {
             cursor = db.rawQuery(
-                    "SELECT * FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_USER_ID + " = ?",
+                    "SELECT " + EVENT_LIST_COLUMNS + " FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_USER_ID + " = ?" +
+                            " ORDER BY " + COLUMN_EVENT_TIMESTAMP + ", " + COLUMN_EVENT_ID,
                     new String[]{String.valueOf(userId)}
             );
             Log.d(TAG, "Retrieved events for user ID: " + userId);
@@ -173,4 +1015,786 @@ public class SQLDatabase extends SQLiteOpenHelper {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves every one of a user's events with its full description, in chronological order,
+     * for export. Rows have name, description and ts columns. The cursor fills one window of
+     * rows at a time, so reading it through holds only that window however many events there are.
+     */
+    public Cursor getUserEventsForExport(int userId) {
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + EVENT_EXPORT_COLUMNS + " FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_USER_ID + " = ?" +
+                            " ORDER BY " + COLUMN_EVENT_TIMESTAMP + ", " + COLUMN_EVENT_ID,
+                    new String[]{String.valueOf(userId)}
+            );
+            Log.d(TAG, "Opened export of events for user ID: " + userId);
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error opening event export", e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves one page of a user's events that sort strictly after the given (ts, id) key.
+     * Seeking on the key instead of using OFFSET keeps every page an index range scan,
+     * however deep into the list the user has scrolled.
+     *
+     * @param userId         the user ID
+     * @param afterTimestamp timestamp of the last event on the previous page
+     * @param afterId        ID of the last event on the previous page
+     * @param limit          maximum number of rows to return
+     */
+    public Cursor getUserEventsPage(int userId, long afterTimestamp, int afterId, int limit) {
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + EVENT_LIST_COLUMNS + " FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_USER_ID + " = ?" +
+                            " AND (" + COLUMN_EVENT_TIMESTAMP + " > ? OR (" + COLUMN_EVENT_TIMESTAMP + " = ? AND " +
+                            COLUMN_EVENT_ID + " > ?))" +
+                            " ORDER BY " + COLUMN_EVENT_TIMESTAMP + ", " + COLUMN_EVENT_ID + " LIMIT ?",
+                    new String[]{
+                            String.valueOf(userId),
+                            String.valueOf(afterTimestamp),
+                            String.valueOf(afterTimestamp),
+                            String.valueOf(afterId),
+                            String.valueOf(limit)
+                    }
+            );
+            Log.d(TAG, "Retrieved event page for user ID: " + userId);
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting user event page", e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves a user's events in the half-open window [fromTimestamp, toTimestamp), in chronological order.
+     * The window is a single range seek on the (user_id, ts) index, so the cost depends on how
+     * many events fall inside it rather than on the user's whole history.
+     *
+     * @param userId        the user ID
+     * @param fromTimestamp first epoch minute included
+     * @param toTimestamp   first epoch minute excluded
+     */
+    public Cursor getEventsBetween(int userId, long fromTimestamp, long toTimestamp) {
+        long start = System.nanoTime();
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + EVENT_LIST_COLUMNS + " FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_USER_ID + " = ?" +
+                            " AND " + COLUMN_EVENT_TIMESTAMP + " >= ? AND " + COLUMN_EVENT_TIMESTAMP + " < ?" +
+                            " ORDER BY " + COLUMN_EVENT_TIMESTAMP + ", " + COLUMN_EVENT_ID,
+                    new String[]{String.valueOf(userId), String.valueOf(fromTimestamp), String.valueOf(toTimestamp)}
+            );
+            int count = cursor.getCount();
+            Log.d(TAG, "Retrieved " + count + " event(s) in range for user ID: " + userId + " in "
+                    + latencyStats.record("getEventsBetween", start) / 1000 + "us");
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting events in range", e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the first of a user's events at or after the given time, as a one-row cursor
+     * (empty if there is none). Served by a single seek on the (user_id, ts) index.
+     * The row has no description column, since the banner only shows the name and time.
+     *
+     * @param userId        the user ID
+     * @param fromTimestamp the epoch minute to search from, usually now
+     */
+    public Cursor getNextEvent(int userId, long fromTimestamp) {
+        long start = System.nanoTime();
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + EVENT_SUMMARY_COLUMNS + " FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_USER_ID + " = ?" +
+                            " AND " + COLUMN_EVENT_TIMESTAMP + " >= ?" +
+                            " ORDER BY " + COLUMN_EVENT_TIMESTAMP + ", " + COLUMN_EVENT_ID + " LIMIT 1",
+                    new String[]{String.valueOf(userId), String.valueOf(fromTimestamp)}
+            );
+            cursor.getCount();
+            Log.d(TAG, "Retrieved next event for user ID: " + userId + " in "
+                    + latencyStats.record("getNextEvent", start) / 1000 + "us");
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting next event", e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves every user's events at or after the given time, for scheduling reminders.
+     * Served by a range scan on the ts index. Rows have no description column, since a
+     * reminder only sends the name and time.
+     *
+     * @param fromTimestamp first epoch minute included
+     */
+    public Cursor getEventsFrom(long fromTimestamp) {
+        long start = System.nanoTime();
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(
+                    "SELECT " + EVENT_SUMMARY_COLUMNS + " FROM " + TABLE_EVENTS + " WHERE " + COLUMN_EVENT_TIMESTAMP + " >= ?",
+                    new String[]{String.valueOf(fromTimestamp)}
+            );
+            int count = cursor.getCount();
+            Log.d(TAG, "Retrieved " + count + " upcoming event(s) in "
+                    + latencyStats.record("getEventsFrom", start) / 1000 + "us");
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting upcoming events", e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves journal entries after the given sequence number, oldest first. Columns are seq,
+     * op, event_id, user_id, name, description and ts; see {@link EventChange} for how to apply them.
+     * Read in pages by passing the last sequence of one page as afterSequence for the next.
+     *
+     * @param afterSequence the last sequence already processed, or 0 for the whole journal
+     * @param limit         maximum number of entries to return
+     */
+    public Cursor getChangesSince(long afterSequence, int limit) {
+        long start = System.nanoTime();
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(SELECT_CHANGES_SQL,
+                    new String[]{String.valueOf(afterSequence), String.valueOf(limit)});
+            int count = cursor.getCount();
+            Log.d(TAG, "Retrieved " + count + " change(s) after sequence " + afterSequence + " in "
+                    + latencyStats.record("getChangesSince", start) / 1000 + "us");
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting journal changes", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the sequence number of the newest journal entry, or 0 if nothing was ever journaled.
+     */
+    public long getLatestSequence() {
+        try {
+            SQLiteStatement select = statement(LATEST_SEQUENCE_SQL);
+            synchronized (select) {
+                return select.simpleQueryForLong();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting latest journal sequence", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the last sequence a named journal reader recorded with
+     * {@link #setReaderSequence(String, long)}, or 0 if it never did.
+     */
+    public long getReaderSequence(String reader) {
+        try {
+            SQLiteStatement select = statement(SELECT_READER_SEQUENCE_SQL);
+            synchronized (select) {
+                select.bindString(1, reader);
+                return select.simpleQueryForLong();
+            }
+        } catch (SQLiteDoneException e) {
+            return 0;
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading journal position of " + reader, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Records that a named journal reader has processed every entry up to the given sequence.
+     * Until it moves on, {@link #getAcknowledgedSequence()} keeps compaction from folding
+     * anything after that point.
+     */
+    public boolean setReaderSequence(String reader, long sequence) {
+        try {
+            SQLiteStatement save = statement(SAVE_READER_SEQUENCE_SQL);
+            synchronized (save) {
+                save.bindString(1, reader);
+                save.bindLong(2, sequence);
+                save.executeInsert();
+            }
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Error saving journal position of " + reader, e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the newest sequence every named journal reader has processed, or the latest
+     * sequence when none is registered. Sync's per-user push positions are applied by
+     * {@link #compactJournal(long)} itself.
+     */
+    public long getAcknowledgedSequence() {
+        try {
+            SQLiteStatement select = statement(ACKNOWLEDGED_SEQUENCE_SQL);
+            synchronized (select) {
+                return select.simpleQueryForLong();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting acknowledged journal sequence", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Folds the journal up to and including the given sequence: each entry that a later entry
+     * for the same event supersedes is removed, leaving at most the newest entry per event.
+     * Entries are full snapshots, so a reader at any sequence still reaches the same state,
+     * but it may see an UPDATE for an event whose INSERT was folded away. DELETE entries are
+     * kept so readers behind the compaction point still learn about deletions, and a user's
+     * entries after their last push are never folded.
+     *
+     * @param throughSequence the newest sequence that may be folded, usually
+     *                        {@link #getAcknowledgedSequence()}
+     * @return the number of entries removed
+     */
+    public int compactJournal(long throughSequence) {
+        long start = System.nanoTime();
+        try {
+            SQLiteStatement compact = statement(COMPACT_JOURNAL_SQL);
+            int removed;
+            synchronized (compact) {
+                compact.bindLong(1, throughSequence);
+                removed = compact.executeUpdateDelete();
+            }
+            Log.d(TAG, "Compacted journal through sequence " + throughSequence + ": " + removed + " entry(ies) removed in "
+                    + latencyStats.record("compactJournal", start) / 1000 + "us");
+            return removed;
+        } catch (Exception e) {
+            Log.e(TAG, "Error compacting journal", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Retrieves one user's journal entries after the given sequence, oldest first, for pushing.
+     * Columns are those of {@link #getChangesSince(long, int)} plus uuid, updated_at and synced_at.
+     *
+     * @param afterSequence the last sequence already pushed
+     * @param limit         maximum number of entries to return
+     */
+    public Cursor getUnpushedChanges(int userId, long afterSequence, int limit) {
+        long start = System.nanoTime();
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(SELECT_UNPUSHED_CHANGES_SQL,
+                    new String[]{String.valueOf(userId), String.valueOf(afterSequence), String.valueOf(limit)});
+            int count = cursor.getCount();
+            Log.d(TAG, "Retrieved " + count + " unpushed change(s) for user ID: " + userId + " in "
+                    + latencyStats.record("getUnpushedChanges", start) / 1000 + "us");
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting unpushed changes", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the last journal sequence pushed for a user, or 0 if nothing was pushed yet.
+     */
+    public long getPushSequence(int userId) {
+        return readSyncState(SELECT_PUSH_SEQUENCE_SQL, userId);
+    }
+
+    /**
+     * Returns the server cursor saved by a user's last pull, or 0 if nothing was pulled yet.
+     */
+    public long getPullCursor(int userId) {
+        return readSyncState(SELECT_PULL_CURSOR_SQL, userId);
+    }
+
+    /**
+     * Records that a user's journal entries up to the given sequence are on the server.
+     */
+    public boolean setPushSequence(int userId, long sequence) {
+        try {
+            writeSyncState(UPDATE_PUSH_SEQUENCE_SQL, userId, sequence);
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Error saving push sequence for user " + userId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Applies changes pulled from the server to a user's events in one transaction, and saves
+     * the server cursor with them so a crash cannot apply a page twice or skip one. Conflicts go
+     * to the last writer: a change only replaces the local copy if it supersedes it under
+     * {@link SyncRecord#supersedes(SyncRecord)}, the same rule the server applies to pushes.
+     * Journal entries written here carry synced_at equal to updated_at, so they are not pushed back.
+     *
+     * @param records    the pulled changes, in server order
+     * @param pullCursor the server cursor after these changes
+     * @return what changed locally, for reminders; null if the transaction failed and nothing was applied
+     */
+    public RemoteApplyResult applyRemoteChanges(int userId, List<SyncRecord> records, long pullCursor) {
+        long start = System.nanoTime();
+        RemoteApplyResult result = new RemoteApplyResult();
+        try {
+            SQLiteDatabase db = getWritableDatabase();
+            SQLiteStatement insert = statement(INSERT_SYNCED_EVENT_SQL);
+            SQLiteStatement update = statement(UPDATE_SYNCED_EVENT_SQL);
+            SQLiteStatement stamp = statement(STAMP_SYNCED_EVENT_SQL);
+            SQLiteStatement delete = statement(DELETE_EVENT_SQL);
+            synchronized (insert) {
+                db.beginTransaction();
+                try {
+                    for (SyncRecord record : records) {
+                        try {
+                            long id = -1;
+                            SyncRecord local = null;
+                            try (Cursor cursor = db.rawQuery(SELECT_EVENT_BY_UUID_SQL,
+                                    new String[]{record.getUuid(), String.valueOf(userId)})) {
+                                if (cursor.moveToFirst()) {
+                                    id = cursor.getLong(0);
+                                    local = new SyncRecord(record.getUuid(), cursor.getString(2),
+                                            cursor.getString(3), cursor.getLong(4), cursor.getLong(1));
+                                }
+                            }
+
+                            if (local != null && !record.supersedes(local)) {
+                                // The local copy is as new or newer; its own push settles the server
+                                result.ignored++;
+                            } else if (record.isDeleted()) {
+                                if (id == -1) {
+                                    result.ignored++;
+                                    continue;
+                                }
+                                synchronized (stamp) {
+                                    stamp.bindLong(1, record.getUpdatedAt());
+                                    stamp.bindLong(2, record.getUpdatedAt());
+                                    stamp.bindLong(3, id);
+                                    stamp.executeUpdateDelete();
+                                }
+                                synchronized (delete) {
+                                    delete.bindLong(1, id);
+                                    delete.executeUpdateDelete();
+                                }
+                                result.deletedIds.add((int) id);
+                            } else if (id != -1) {
+                                synchronized (update) {
+                                    bindEvent(update, record.getName(), record.getDescription(),
+                                            record.getEpochMinute(), record.getUpdatedAt());
+                                    update.bindLong(6, record.getUpdatedAt());
+                                    update.bindLong(7, id);
+                                    update.executeUpdateDelete();
+                                }
+                                result.saved.add(new Event((int) id, record.getName(), null, record.getEpochMinute()));
+                            } else {
+                                bindEvent(insert, record.getName(), record.getDescription(),
+                                        record.getEpochMinute(), record.getUpdatedAt());
+                                insert.bindLong(6, record.getUpdatedAt());
+                                insert.bindString(7, record.getUuid());
+                                insert.bindLong(8, userId);
+                                id = insert.executeInsert();
+                                result.saved.add(new Event((int) id, record.getName(), null, record.getEpochMinute()));
+                            }
+                        } catch (SQLException | IllegalArgumentException e) {
+                            // SQLite rolls back only the failing statement, so the rest still applies
+                            Log.w(TAG, "Skipped pulled change to " + record.getUuid(), e);
+                            result.ignored++;
+                        }
+                    }
+                    writeSyncState(UPDATE_PULL_CURSOR_SQL, userId, pullCursor);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error applying pulled changes for user " + userId, e);
+            return null;
+        }
+        Log.d(TAG, "Applied " + (records.size() - result.ignored) + " of " + records.size() + " pulled change(s) in "
+                + latencyStats.record("applyRemoteChanges", start) / 1000 + "us");
+        return result;
+    }
+
+    private long readSyncState(String sql, int userId) {
+        try {
+            SQLiteStatement select = statement(sql);
+            synchronized (select) {
+                select.bindLong(1, userId);
+                return select.simpleQueryForLong();
+            }
+        } catch (SQLiteDoneException e) {
+            return 0;
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading sync state for user " + userId, e);
+            return 0;
+        }
+    }
+
+    private void writeSyncState(String sql, int userId, long value) {
+        SQLiteStatement insert = statement(INSERT_SYNC_STATE_SQL);
+        synchronized (insert) {
+            insert.bindLong(1, userId);
+            insert.executeInsert();
+        }
+        SQLiteStatement update = statement(sql);
+        synchronized (update) {
+            update.bindLong(1, value);
+            update.bindLong(2, userId);
+            update.executeUpdateDelete();
+        }
+    }
+
+    /**
+     * Runs a full-text query against one user's event names and descriptions, returning every
+     * match so none is dropped before ranking. Columns are id, ts, then the raw matchinfo('pcx')
+     * blob used for ranking; load the rows to show with {@link #getEventsById(int[])}.
+     *
+     * @param userId     the user ID
+     * @param matchQuery an FTS4 MATCH expression, see {@link EventSearch#toMatchQuery(String)}
+     */
+    public Cursor searchEvents(int userId, String matchQuery) {
+        long start = System.nanoTime();
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            Cursor cursor = db.rawQuery(SEARCH_EVENTS_SQL, new String[]{matchQuery, String.valueOf(userId)});
+            // rawQuery is lazy; counting runs the query so the latency covers the search itself
+            int count = cursor.getCount();
+            Log.d(TAG, "Search for '" + matchQuery + "' matched " + count + " event(s) in "
+                    + latencyStats.record("searchEvents", start) / 1000 + "us");
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error searching events", e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves list rows (id, name, description_preview, ts) for the given events, in no
+     * particular order. IDs that no longer exist are left out.
+     *
+     * @param ids at most {@link #MAX_IDS_PER_QUERY} event IDs
+     */
+    public Cursor getEventsById(int[] ids) {
+        long start = System.nanoTime();
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            StringBuilder sql = new StringBuilder("SELECT " + EVENT_LIST_COLUMNS + " FROM " + TABLE_EVENTS +
+                    " WHERE " + COLUMN_EVENT_ID + " IN (");
+            String[] args = new String[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                args[i] = String.valueOf(ids[i]);
+            }
+            Cursor cursor = db.rawQuery(sql.append(')').toString(), args);
+            int count = cursor.getCount();
+            Log.d(TAG, "Retrieved " + count + " of " + ids.length + " event(s) by ID in "
+                    + latencyStats.record("getEventsById", start) / 1000 + "us");
+            return cursor;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting events by ID", e);
+            return null;
+        }
+    }
+
+    /**
+     * Queues a text message in the outbox unless an identical one is already waiting to be sent.
+     *
+     * @param nowMillis the current time, used as both the creation time and the first attempt time
+     * @return the outbox row ID, or -1 if the message was a duplicate or could not be stored
+     */
+    public long enqueueSms(String phoneNumber, String message, long nowMillis) {
+        long start = System.nanoTime();
+        try {
+            SQLiteStatement insert = statement(INSERT_SMS_SQL);
+            long result;
+            synchronized (insert) {
+                insert.clearBindings();
+                insert.bindString(1, phoneNumber);
+                insert.bindString(2, message);
+                insert.bindLong(3, nowMillis);
+                insert.bindLong(4, nowMillis);
+                result = insert.executeInsert();
+            }
+            Log.d(TAG, "SMS enqueue result: " + result + " in " + latencyStats.record("enqueueSms", start) / 1000 + "us");
+            return result;
+        } catch (Exception e) {
+            Log.e(TAG, "Error queueing SMS", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Retrieves outbox messages that are due for an attempt, oldest due first.
+     * Columns are id, phone_number, message, attempts.
+     *
+     * @param nowMillis the current time
+     * @param limit     maximum number of messages to return
+     */
+    public Cursor getDueSms(long nowMillis, int limit) {
+        SQLiteDatabase db = getReadableDatabase();
+        try {
+            return db.rawQuery(
+                    "SELECT " + COLUMN_SMS_ID + ", " + COLUMN_SMS_PHONE_NUMBER + ", " + COLUMN_SMS_MESSAGE + ", " +
+                            COLUMN_SMS_ATTEMPTS + " FROM " + TABLE_SMS_OUTBOX +
+                            " WHERE " + COLUMN_SMS_STATUS + " IN (" + SMS_STATUS_PENDING + ", " + SMS_STATUS_SENDING + ")" +
+                            " AND " + COLUMN_SMS_NEXT_ATTEMPT_AT + " <= ?" +
+                            " ORDER BY " + COLUMN_SMS_NEXT_ATTEMPT_AT + ", " + COLUMN_SMS_ID + " LIMIT ?",
+                    new String[]{String.valueOf(nowMillis), String.valueOf(limit)}
+            );
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting due SMS", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the time of the soonest attempt still scheduled in the outbox, or -1 if it is empty.
+     */
+    public long getNextSmsAttemptTime() {
+        try {
+            SQLiteStatement query = statement(NEXT_SMS_ATTEMPT_SQL);
+            synchronized (query) {
+                // MIN over no rows is NULL, which simpleQueryForLong would misread as 0
+                String next = query.simpleQueryForString();
+                return next == null ? -1 : Long.parseLong(next);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting next SMS attempt", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Records the outcome of an attempt: the new state, the attempt count, when the message is
+     * next due (for retries, or as a timeout while waiting for the sent report) and any error.
+     */
+    public boolean updateSms(long id, int status, int attempts, long nextAttemptAtMillis, String error) {
+        try {
+            SQLiteStatement update = statement(UPDATE_SMS_SQL);
+            synchronized (update) {
+                update.clearBindings();
+                update.bindLong(1, status);
+                update.bindLong(2, attempts);
+                update.bindLong(3, nextAttemptAtMillis);
+                if (error == null) {
+                    update.bindNull(4);
+                } else {
+                    update.bindString(4, error);
+                }
+                update.bindLong(5, id);
+                return update.executeUpdateDelete() > 0;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error updating SMS " + id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Moves a message that has been handed over to SENT or DELIVERED, never backwards.
+     */
+    public boolean advanceSmsStatus(long id, int status) {
+        try {
+            SQLiteStatement update = statement(ADVANCE_SMS_STATUS_SQL);
+            synchronized (update) {
+                update.bindLong(1, status);
+                update.bindLong(2, id);
+                update.bindLong(3, status);
+                return update.executeUpdateDelete() > 0;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error updating SMS status " + id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the outbox state of a message, or -1 if there is no such message.
+     */
+    public int getSmsStatus(long id) {
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT " + COLUMN_SMS_STATUS + " FROM " + TABLE_SMS_OUTBOX + " WHERE " + COLUMN_SMS_ID + " = ?",
+                new String[]{String.valueOf(id)})) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : -1;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting SMS status " + id, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Returns how many send attempts a message has had, or 0 if there is no such message.
+     */
+    public int getSmsAttempts(long id) {
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT " + COLUMN_SMS_ATTEMPTS + " FROM " + TABLE_SMS_OUTBOX + " WHERE " + COLUMN_SMS_ID + " = ?",
+                new String[]{String.valueOf(id)})) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting SMS attempts " + id, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Per-operation latency of every statement run through this helper.
+     */
+    public LatencyStats getLatencyStats() {
+        return latencyStats;
+    }
+
+    /**
+     * Closes the cached statements along with the connection.
+     */
+    @Override
+    public synchronized void close() {
+        synchronized (statementCache) {
+            for (SQLiteStatement statement : statementCache.values()) {
+                statement.close();
+            }
+            statementCache.clear();
+        }
+        super.close();
+    }
+
+    /**
+     * Returns the compiled statement for the given SQL, compiling it on first use.
+     * SQLiteStatement is not thread-safe, so callers synchronize on it while binding and executing.
+     */
+    private SQLiteStatement statement(String sql) {
+        synchronized (statementCache) {
+            SQLiteStatement statement = statementCache.get(sql);
+            if (statement == null) {
+                statement = getWritableDatabase().compileStatement(sql);
+                statementCache.put(sql, statement);
+            }
+            return statement;
+        }
+    }
+
+    /**
+     * Binds the name, description, its preview, timestamp and edit time shared by the insert and
+     * update statements, so the preview is rewritten by every write that changes the description.
+     */
+    private static void bindEvent(SQLiteStatement statement, String name, String description, long timestamp,
+                                  long updatedAtMillis) {
+        statement.clearBindings();
+        statement.bindString(1, name);
+        if (description == null) {
+            statement.bindNull(2);
+            statement.bindNull(3);
+        } else {
+            statement.bindString(2, description);
+            statement.bindString(3, Event.previewOf(description));
+        }
+        statement.bindLong(4, timestamp);
+        statement.bindLong(5, updatedAtMillis);
+    }
+
+    /**
+     * A new event uuid: 128 random bits as 32 lowercase hex digits, the same shape the version 8
+     * migration gives existing events.
+     */
+    static String newUuid() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    /**
+     * Outcome of {@link #insertEvents(List, int)} and {@link #insertEventsIfAbsent(List, int)}.
+     */
+    public static final class BatchInsertResult {
+        /**
+         * ID reported for a row skipped as a duplicate. Row IDs start at 1, so it is never a real one.
+         */
+        public static final long SKIPPED = 0;
+
+        private final long[] ids;
+        private final List<RowFailure> failures;
+        private final int skippedCount;
+
+        BatchInsertResult(long[] ids, List<RowFailure> failures, int skippedCount) {
+            this.ids = ids;
+            this.failures = Collections.unmodifiableList(failures);
+            this.skippedCount = skippedCount;
+        }
+
+        /**
+         * Generated row IDs in input order, -1 where the row failed and {@link #SKIPPED} where it
+         * was a duplicate.
+         */
+        public long[] getIds() {
+            return ids;
+        }
+
+        public List<RowFailure> getFailures() {
+            return failures;
+        }
+
+        public int getInsertedCount() {
+            return ids.length - failures.size() - skippedCount;
+        }
+
+        public int getSkippedCount() {
+            return skippedCount;
+        }
+
+        /**
+         * A row that could not be inserted, identified by its index in the input list.
+         */
+        public static final class RowFailure {
+            private final int index;
+            private final Exception error;
+
+            RowFailure(int index, Exception error) {
+                this.index = index;
+                this.error = error;
+            }
+
+            public int getIndex() {
+                return index;
+            }
+
+            public Exception getError() {
+                return error;
+            }
+        }
+    }
+
+    /**
+     * Outcome of {@link #applyRemoteChanges(int, List, long)}.
+     */
+    public static final class RemoteApplyResult {
+        private final List<Event> saved = new ArrayList<>();
+        private final List<Integer> deletedIds = new ArrayList<>();
+        private int ignored;
+
+        /**
+         * Events inserted or updated, with name and time only.
+         */
+        public List<Event> getSaved() {
+            return saved;
+        }
+
+        public List<Integer> getDeletedIds() {
+            return deletedIds;
+        }
+
+        /**
+         * Changes older than the local copy, or deletes of events this device never had.
+         */
+        public int getIgnoredCount() {
+            return ignored;
+        }
+
+        public boolean hasChanges() {
+            return !saved.isEmpty() || !deletedIds.isEmpty();
+        }
+    }
+}
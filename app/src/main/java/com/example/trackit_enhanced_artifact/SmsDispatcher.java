@@ -0,0 +1,200 @@
+package com.example.trackit_enhanced_artifact;
+
+/* SmsDispatcher.java
+ *
+ * Drains the SMS outbox in SQLDatabase through an SmsGateway. Sends are rate limited to a
+ * configurable number per time window, failed sends are retried with exponential backoff, and
+ * the sent and delivered reports move each message through its outbox states. Because the
+ * outbox is a table, queued messages survive the process being killed.
+ *
+ * Not thread-safe: SmsOutbox runs every call on one background thread.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.database.Cursor;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SmsDispatcher {
+
+    private static final String TAG = "SmsDispatcher";
+
+    // Retries wait 30s, 1m, 2m, ... capped at an hour, and give up after this many attempts
+    private static final long BASE_BACKOFF_MS = 30_000;
+    private static final long MAX_BACKOFF_MS = 60 * 60_000;
+    private static final int MAX_ATTEMPTS = 5;
+
+    // A message handed to the radio with no sent report after this long is tried again
+    private static final long SENT_REPORT_TIMEOUT_MS = 10 * 60_000;
+
+    /**
+     * Source of the current time in milliseconds, replaceable by a fake clock in tests.
+     */
+    public interface Clock {
+        long currentTimeMillis();
+    }
+
+    private final SQLDatabase database;
+    private final SmsGateway gateway;
+    private final Clock clock;
+    private final int maxSendsPerWindow;
+    private final long windowMillis;
+
+    // Times of the sends inside the current rate-limit window, oldest first
+    private final ArrayDeque<Long> recentSends = new ArrayDeque<>();
+
+    // Parts of in-flight multipart messages that have reported sent, by message ID. Lost with
+    // the process, in which case the sent report timeout sends the message again.
+    private final Map<Long, BitSet> sentParts = new HashMap<>();
+
+    /**
+     * @param maxSendsPerWindow how many messages may be sent within any windowMillis span
+     * @param windowMillis      length of the rate-limit window
+     */
+    public SmsDispatcher(SQLDatabase database, SmsGateway gateway, Clock clock, int maxSendsPerWindow, long windowMillis) {
+        if (maxSendsPerWindow < 1) throw new IllegalArgumentException("At least one send per window is required.");
+        this.database = database;
+        this.gateway = gateway;
+        this.clock = clock;
+        this.maxSendsPerWindow = maxSendsPerWindow;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Adds a message to the outbox. An identical message that has not been sent yet absorbs it.
+     *
+     * @return true if the message was queued, false if it was a duplicate or could not be stored
+     */
+    public boolean enqueue(String phoneNumber, String message) {
+        long id = database.enqueueSms(phoneNumber, message, clock.currentTimeMillis());
+        if (id == -1) {
+            Log.d(TAG, "Skipped duplicate or unstorable SMS to " + phoneNumber);
+        }
+        return id != -1;
+    }
+
+    /**
+     * Sends as many due messages as the rate limit allows.
+     *
+     * @return how many milliseconds to wait before draining again, or -1 if the outbox has nothing left to send
+     */
+    public long drain() {
+        long now = clock.currentTimeMillis();
+        while (!recentSends.isEmpty() && recentSends.peekFirst() <= now - windowMillis) {
+            recentSends.pollFirst();
+        }
+
+        int budget = maxSendsPerWindow - recentSends.size();
+        if (budget > 0) {
+            Cursor cursor = database.getDueSms(now, budget);
+            if (cursor != null) {
+                try {
+                    while (cursor.moveToNext()) {
+                        attempt(cursor.getLong(0), cursor.getString(1), cursor.getString(2), cursor.getInt(3), now);
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+        }
+
+        long nextAttempt = database.getNextSmsAttemptTime();
+        if (nextAttempt == -1) return -1;
+        if (recentSends.size() >= maxSendsPerWindow) {
+            // Nothing more can go out until the oldest send leaves the window
+            nextAttempt = Math.max(nextAttempt, recentSends.peekFirst() + windowMillis);
+        }
+        return Math.max(0, nextAttempt - now);
+    }
+
+    /**
+     * Handles the sent report for a single-part message.
+     *
+     * @param success whether the radio accepted the message
+     * @param error   a description of the failure, or null on success
+     */
+    public void onSent(long messageId, boolean success, String error) {
+        onSent(messageId, 0, 1, success, error);
+    }
+
+    /**
+     * Handles the sent report for one part of a message. The message counts as sent once every
+     * part has reported success; the first part that fails sends the whole message back for a retry.
+     *
+     * @param part      the index of the part
+     * @param partCount how many parts the message was split into
+     * @param success   whether the radio accepted the part
+     * @param error     a description of the failure, or null on success
+     */
+    public void onSent(long messageId, int part, int partCount, boolean success, String error) {
+        if (!success) {
+            sentParts.remove(messageId);
+            // Other parts of an attempt that already failed report too; only the first one counts
+            if (database.getSmsStatus(messageId) != SQLDatabase.SMS_STATUS_SENDING) return;
+            Log.w(TAG, "SMS " + messageId + " failed to send: " + error);
+            // The attempt was counted when the message was handed over, so only the retry time changes
+            retryOrFail(messageId, database.getSmsAttempts(messageId), error);
+            return;
+        }
+
+        if (partCount > 1) {
+            BitSet sent = sentParts.computeIfAbsent(messageId, id -> new BitSet(partCount));
+            sent.set(part);
+            if (sent.cardinality() < partCount) return;
+            sentParts.remove(messageId);
+        }
+        database.advanceSmsStatus(messageId, SQLDatabase.SMS_STATUS_SENT);
+    }
+
+    /**
+     * Handles the delivery report for a message.
+     */
+    public void onDelivered(long messageId) {
+        database.advanceSmsStatus(messageId, SQLDatabase.SMS_STATUS_DELIVERED);
+    }
+
+    private void attempt(long id, String phoneNumber, String message, int previousAttempts, long now) {
+        int attempts = previousAttempts + 1;
+        if (previousAttempts >= MAX_ATTEMPTS) {
+            // Only reachable when sent reports never arrived for the earlier attempts
+            database.updateSms(id, SQLDatabase.SMS_STATUS_FAILED, previousAttempts, now, "No sent report");
+            return;
+        }
+
+        database.updateSms(id, SQLDatabase.SMS_STATUS_SENDING, attempts, now + SENT_REPORT_TIMEOUT_MS, null);
+        // A new attempt sends every part again
+        sentParts.remove(id);
+        recentSends.addLast(now);
+        try {
+            gateway.send(id, phoneNumber, message);
+            Log.d(TAG, "Handed SMS " + id + " to the gateway, attempt " + attempts);
+        } catch (Exception e) {
+            Log.w(TAG, "SMS " + id + " could not be handed to the gateway", e);
+            retryOrFail(id, attempts, e.toString());
+        }
+    }
+
+    private void retryOrFail(long id, int attempts, String error) {
+        if (attempts >= MAX_ATTEMPTS) {
+            database.updateSms(id, SQLDatabase.SMS_STATUS_FAILED, attempts, clock.currentTimeMillis(), error);
+            Log.w(TAG, "Giving up on SMS " + id + " after " + attempts + " attempt(s)");
+            return;
+        }
+        database.updateSms(id, SQLDatabase.SMS_STATUS_PENDING, attempts,
+                clock.currentTimeMillis() + backoffMillis(attempts), error);
+    }
+
+    /**
+     * Delay before the retry that follows the given number of attempts.
+     */
+    static long backoffMillis(int attempts) {
+        int doublings = Math.min(attempts - 1, 20);
+        return Math.min(BASE_BACKOFF_MS << doublings, MAX_BACKOFF_MS);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.trackit_enhanced_artifact;
+
+/* SmsGateway.java
+ *
+ * Hands a single text message to the phone's SMS stack. The outbox dispatcher only talks to
+ * this interface, so tests can drive it with a local fake instead of SmsManager.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+public interface SmsGateway {
+
+    /**
+     * Starts sending a message. The outcome arrives later through
+     * {@link SmsDispatcher#onSent(long, int, int, boolean, String)}, once per part when the
+     * message is split, and {@link SmsDispatcher#onDelivered(long)}.
+     *
+     * @param messageId   the outbox row ID, to be echoed back in the reports
+     * @param phoneNumber the destination phone number
+     * @param message     the message content
+     * @throws Exception if the message could not be handed over at all
+     */
+    void send(long messageId, String phoneNumber, String message) throws Exception;
+}
@@ -0,0 +1,155 @@
+package com.example.trackit_enhanced_artifact;
+
+/* SmsOutbox.java
+ *
+ * Process-wide entry point for sending text messages. Messages are written to the outbox table
+ * and sent by an SmsDispatcher on a dedicated background thread, which re-runs itself whenever
+ * the rate limit or a retry delay says more can go out. Callers never block on SmsManager.
+ * In digest mode, event notifications are first held for a short window and combined per number.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.app.Activity;
+import android.content.Context;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public final class SmsOutbox {
+
+    private static final String TAG = "SmsOutbox";
+
+    // Stays well inside the platform's own SMS limits even during a burst of edits
+    private static final int MAX_SENDS_PER_WINDOW = 10;
+    private static final long WINDOW_MILLIS = 60_000;
+
+    // How long digest mode holds the first notification of a burst before sending the digest
+    private static final long DIGEST_WINDOW_MS = 30_000;
+
+    private static SmsOutbox instance;
+
+    private final SmsDispatcher dispatcher;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sms-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The next drain the dispatcher asked for, replaced by every drain
+    private ScheduledFuture<?> scheduledDrain;
+
+    // Open digests by phone number; only touched on the outbox thread
+    private final Map<String, SmsDigest> digests = new HashMap<>();
+
+    private SmsOutbox(Context context) {
+        dispatcher = new SmsDispatcher(SQLDatabase.getInstance(context), new AndroidSmsGateway(context),
+                System::currentTimeMillis, MAX_SENDS_PER_WINDOW, WINDOW_MILLIS);
+    }
+
+    /**
+     * Returns the shared outbox, creating it on first use.
+     */
+    public static synchronized SmsOutbox get(Context context) {
+        if (instance == null) {
+            instance = new SmsOutbox(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a message for sending. Safe to call from any thread.
+     */
+    public void enqueue(String phoneNumber, String message) {
+        executor.execute(() -> {
+            if (dispatcher.enqueue(phoneNumber, message)) {
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Holds an event notification in the number's digest. The digest is sent as one message
+     * once the window opened by its first notification closes. Safe to call from any thread.
+     *
+     * @param eventId the event the notification is about; a later one for the same event replaces it
+     */
+    public void enqueueDigest(String phoneNumber, int eventId, String message) {
+        executor.execute(() -> {
+            SmsDigest digest = digests.get(phoneNumber);
+            if (digest == null) {
+                digest = new SmsDigest();
+                digests.put(phoneNumber, digest);
+                executor.schedule(() -> flushDigest(phoneNumber), DIGEST_WINDOW_MS, TimeUnit.MILLISECONDS);
+            }
+            digest.add(eventId, message);
+        });
+    }
+
+    /**
+     * Runs on the outbox thread: moves a closed digest into the outbox.
+     */
+    private void flushDigest(String phoneNumber) {
+        SmsDigest digest = digests.remove(phoneNumber);
+        if (digest == null) return;
+
+        int events = digest.size();
+        if (dispatcher.enqueue(phoneNumber, digest.drain())) {
+            Log.d(TAG, "Queued digest of " + events + " event change(s) for " + phoneNumber);
+            drain();
+        }
+    }
+
+    /**
+     * Sends whatever is due, for example at startup after messages were left queued.
+     */
+    public void kick() {
+        executor.execute(this::drain);
+    }
+
+    /**
+     * Passes on the sent report for one part of a message.
+     *
+     * @param part       the index of the part, 0 for a single-part message
+     * @param partCount  how many parts the message was split into
+     * @param resultCode the broadcast result code; {@link Activity#RESULT_OK} means the radio took it
+     */
+    public void onSent(long messageId, int part, int partCount, int resultCode) {
+        executor.execute(() -> {
+            dispatcher.onSent(messageId, part, partCount, resultCode == Activity.RESULT_OK,
+                    resultCode == Activity.RESULT_OK ? null : "Part " + (part + 1) + " of " + partCount
+                            + ": result code " + resultCode);
+            drain();
+        });
+    }
+
+    /**
+     * Passes on the delivery report for a message.
+     */
+    public void onDelivered(long messageId) {
+        executor.execute(() -> dispatcher.onDelivered(messageId));
+    }
+
+    /**
+     * Runs on the outbox thread: drains the outbox and schedules the next drain it asks for.
+     */
+    private void drain() {
+        long delayMs;
+        try {
+            delayMs = dispatcher.drain();
+        } catch (Exception e) {
+            Log.e(TAG, "Error draining SMS outbox", e);
+            return;
+        }
+
+        if (scheduledDrain != null) scheduledDrain.cancel(false);
+        scheduledDrain = delayMs < 0 ? null : executor.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+    }
+}
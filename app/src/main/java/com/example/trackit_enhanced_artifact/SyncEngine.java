@@ -0,0 +1,184 @@
+package com.example.trackit_enhanced_artifact;
+
+/* SyncEngine.java
+ *
+ * Keeps a user's events in step with a server through a SyncTransport. A sync pushes the
+ * user's journal entries written since the last push, folded to the newest version of each
+ * event, then pulls what other devices changed since the last pull cursor. Both directions move
+ * in fixed-size batches and only carry changes, so traffic grows with the edit rate rather than
+ * with the number of events. Conflicts are settled by last-writer-wins on updated_at, with a
+ * content tiebreak for equal times (see SyncRecord), on the server for pushes and in
+ * SQLDatabase for pulls. Once a push moves the user's position forward, the journal is
+ * compacted behind it and behind every other registered journal reader.
+ *
+ * Not thread-safe: EventSync runs every call on one background thread.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import android.database.Cursor;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SyncEngine {
+
+    private static final String TAG = "SyncEngine";
+
+    // Records per push and per pull, so each payload stays small however large the backlog
+    static final int BATCH_SIZE = 200;
+
+    /**
+     * Counts and local effects of one sync.
+     */
+    public static final class Result {
+        private int pushed;
+        private int pulled;
+        private final List<Event> saved = new ArrayList<>();
+        private final List<Integer> deletedIds = new ArrayList<>();
+
+        /**
+         * Records sent to the server.
+         */
+        public int getPushedCount() {
+            return pushed;
+        }
+
+        /**
+         * Records received from the server, including any that lost to a newer local version.
+         */
+        public int getPulledCount() {
+            return pulled;
+        }
+
+        /**
+         * Events inserted or updated by the pull, with name and time only.
+         */
+        public List<Event> getSaved() {
+            return saved;
+        }
+
+        /**
+         * IDs of events the pull deleted.
+         */
+        public List<Integer> getDeletedIds() {
+            return deletedIds;
+        }
+
+        public boolean hasLocalChanges() {
+            return !saved.isEmpty() || !deletedIds.isEmpty();
+        }
+    }
+
+    private final SQLDatabase database;
+    private final SyncTransport transport;
+    private final String deviceId;
+
+    /**
+     * @param deviceId stable identifier of this installation, so the server can leave this
+     *                 device's own changes out of its pulls
+     */
+    public SyncEngine(SQLDatabase database, SyncTransport transport, String deviceId) {
+        this.database = database;
+        this.transport = transport;
+        this.deviceId = deviceId;
+    }
+
+    /**
+     * Pushes local changes, then pulls remote ones. Progress is saved after every batch, so a
+     * sync that fails part way resumes where it stopped.
+     *
+     * @param account the server account of the user
+     * @throws IOException if the transport fails or the database cannot be read or written;
+     *                     the caller retries later
+     */
+    public Result sync(int userId, String account) throws IOException {
+        long start = System.nanoTime();
+        Result result = new Result();
+        if (push(userId, account, result)) {
+            database.compactJournal(database.getAcknowledgedSequence());
+        }
+        pull(userId, account, result);
+        Log.d(TAG, "Synced user " + userId + ": pushed " + result.pushed + ", pulled " + result.pulled + " in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return result;
+    }
+
+    /**
+     * @return whether the user's push position moved, so older journal entries may now be folded
+     */
+    private boolean push(int userId, String account, Result result) throws IOException {
+        boolean advanced = false;
+        long sequence = database.getPushSequence(userId);
+        while (true) {
+            Cursor cursor = database.getUnpushedChanges(userId, sequence, BATCH_SIZE);
+            if (cursor == null) throw new IOException("Could not read the journal for user " + userId);
+
+            // Newest entry per event in this batch; an event edited ten times is sent once
+            Map<String, SyncRecord> latest = new LinkedHashMap<>();
+            int entries = 0;
+            long last = sequence;
+            try {
+                int sequenceIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_JOURNAL_SEQUENCE);
+                int operationIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_JOURNAL_OPERATION);
+                int uuidIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_UUID);
+                int nameIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_NAME);
+                int descriptionIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_DESCRIPTION);
+                int timestampIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_TIMESTAMP);
+                int updatedAtIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_UPDATED_AT);
+                int syncedAtIndex = cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_SYNCED_AT);
+                while (cursor.moveToNext()) {
+                    entries++;
+                    last = cursor.getLong(sequenceIndex);
+                    // History from before sync existed: deleted events and superseded snapshots
+                    if (cursor.isNull(uuidIndex)) continue;
+
+                    String uuid = cursor.getString(uuidIndex);
+                    long updatedAt = cursor.getLong(updatedAtIndex);
+                    latest.remove(uuid);
+                    // An entry written by a pull is the server's own version; pushing it back is wasted traffic
+                    if (!cursor.isNull(syncedAtIndex) && cursor.getLong(syncedAtIndex) == updatedAt) continue;
+
+                    latest.put(uuid, cursor.getInt(operationIndex) == EventChange.DELETE
+                            ? SyncRecord.tombstone(uuid, updatedAt)
+                            : new SyncRecord(uuid, cursor.getString(nameIndex), cursor.getString(descriptionIndex),
+                            cursor.getLong(timestampIndex), updatedAt));
+                }
+            } finally {
+                cursor.close();
+            }
+            if (entries == 0) return advanced;
+
+            if (!latest.isEmpty()) {
+                transport.push(account, deviceId, new ArrayList<>(latest.values()));
+                result.pushed += latest.size();
+            }
+            database.setPushSequence(userId, last);
+            advanced = true;
+            sequence = last;
+            if (entries < BATCH_SIZE) return true;
+        }
+    }
+
+    private void pull(int userId, String account, Result result) throws IOException {
+        long cursor = database.getPullCursor(userId);
+        boolean more = true;
+        while (more) {
+            SyncTransport.PullResult page = transport.pull(account, deviceId, cursor, BATCH_SIZE);
+            if (page.getRecords().isEmpty() && page.getCursor() == cursor) return;
+
+            SQLDatabase.RemoteApplyResult applied = database.applyRemoteChanges(userId, page.getRecords(), page.getCursor());
+            if (applied == null) throw new IOException("Could not apply pulled changes for user " + userId);
+            result.pulled += page.getRecords().size();
+            result.saved.addAll(applied.getSaved());
+            result.deletedIds.addAll(applied.getDeletedIds());
+            cursor = page.getCursor();
+            more = page.hasMore();
+        }
+    }
+}
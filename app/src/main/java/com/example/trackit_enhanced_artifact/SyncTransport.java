@@ -0,0 +1,73 @@
+package com.example.trackit_enhanced_artifact;
+
+/* SyncTransport.java
+ *
+ * Carries sync traffic between this device and the server. The sync engine only talks to this
+ * interface, so the wire format and backend can change without touching it, and tests can drive
+ * it with an in-process fake server.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+public interface SyncTransport {
+
+    /**
+     * Sends local changes. For each uuid the server keeps whichever version wins under
+     * {@link SyncRecord#supersedes(SyncRecord)}, so pushing a version it already has, or an
+     * older one, changes nothing.
+     *
+     * @param account  the account the events belong to
+     * @param deviceId identifies this device, so its own changes are not pulled back
+     * @param records  at most one record per uuid
+     * @throws IOException if the server could not be reached or refused the batch; nothing is
+     *                     assumed stored and the same batch is sent again later
+     */
+    void push(String account, String deviceId, List<SyncRecord> records) throws IOException;
+
+    /**
+     * Fetches changes other devices made after the given cursor, oldest first.
+     *
+     * @param cursor the cursor returned by the previous pull, or 0 the first time
+     * @param limit  maximum number of records to return
+     * @throws IOException if the server could not be reached
+     */
+    PullResult pull(String account, String deviceId, long cursor, int limit) throws IOException;
+
+    /**
+     * One page of pulled changes and where the next page starts.
+     */
+    final class PullResult {
+        private final List<SyncRecord> records;
+        private final long cursor;
+        private final boolean hasMore;
+
+        public PullResult(List<SyncRecord> records, long cursor, boolean hasMore) {
+            this.records = Collections.unmodifiableList(records);
+            this.cursor = cursor;
+            this.hasMore = hasMore;
+        }
+
+        public List<SyncRecord> getRecords() {
+            return records;
+        }
+
+        /**
+         * The cursor to pass to the next pull. Opaque to the client.
+         */
+        public long getCursor() {
+            return cursor;
+        }
+
+        /**
+         * Whether more changes are waiting after this page.
+         */
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local tests for delivering background results and failures to the main thread.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseExecutorTest {
+
+    @Test
+    public void failedWork_isDeliveredToOnError() throws InterruptedException {
+        DatabaseExecutor executor = new DatabaseExecutor();
+        AtomicReference<String> result = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+
+        executor.read(() -> {
+            throw new IllegalStateException("disk I/O error");
+        }, DatabaseExecutor.Callback.<String>of(result::set, error::set));
+        awaitMainThread(error);
+
+        assertNull(result.get());
+        assertEquals("disk I/O error", error.get().getMessage());
+    }
+
+    @Test
+    public void cancelledRequest_getsNoError() throws InterruptedException {
+        DatabaseExecutor executor = new DatabaseExecutor();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        AtomicReference<Boolean> written = new AtomicReference<>();
+
+        DatabaseExecutor.Request request = executor.write(() -> {
+            throw new IllegalStateException("constraint failed");
+        }, DatabaseExecutor.Callback.<Boolean>of(written::set, error::set));
+        request.cancel();
+        // A later write on the same thread delivers after the failed one would have
+        executor.write(() -> true, written::set);
+        awaitMainThread(written);
+
+        assertNull(error.get());
+    }
+
+    /**
+     * Runs main-thread messages until the background work has delivered into the given slot.
+     */
+    private static void awaitMainThread(AtomicReference<?> delivered) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (delivered.get() == null && System.currentTimeMillis() < deadline) {
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local tests for EventAdapter binding, run through Robolectric.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class EventAdapterTest {
+
+    private static final int ROW_COUNT = 10_000;
+    private static final int RECYCLED_HOLDERS = 12;
+
+    // Opt-in measurement only; one allocation per bind would be ~100x this
+    private static final long ALLOCATION_BUDGET_BYTES = 4 * 1024;
+
+    private Context context;
+    private EventAdapter adapter;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        adapter = new EventAdapter(context, (position, event) -> { }, (position, event) -> { });
+
+        List<Event> events = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            events.add(new Event(i + 1, "Event " + i, "Description " + i,
+                    2030, 1 + i % 12, 1 + i % 28, i % 24, i % 60));
+        }
+        adapter.submitList(events);
+    }
+
+    @Test
+    public void onBindViewHolder_formatsPaddedDateAndTime() {
+        EventAdapter.EventViewHolder holder = newHolder();
+
+        adapter.onBindViewHolder(holder, 3);
+
+        assertEquals("2030-04-04", holder.eventDate.getText().toString());
+        assertEquals("03:03", holder.eventTime.getText().toString());
+    }
+
+    @Test
+    public void onBindViewHolder_rebindsCachedTextWithoutReformatting() {
+        EventAdapter.EventViewHolder[] holders = newHolders();
+
+        // First fling builds each event's cached display text
+        fling(holders);
+        List<Event> events = adapter.getCurrentList();
+        String[] dates = new String[ROW_COUNT];
+        String[] times = new String[ROW_COUNT];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            dates[i] = events.get(i).getFormattedDate();
+            times[i] = events.get(i).getFormattedTime();
+        }
+
+        // Every later bind hands the views those same strings rather than formatting new ones
+        for (int position = 0; position < ROW_COUNT; position++) {
+            EventAdapter.EventViewHolder holder = holders[position % holders.length];
+            adapter.onBindViewHolder(holder, position);
+            assertSame(dates[position], holder.eventDate.getText());
+            assertSame(times[position], holder.eventTime.getText());
+            assertSame(events.get(position).getDescriptionPreview(), holder.eventDescription.getText());
+        }
+    }
+
+    @Test
+    public void onBindViewHolder_allocatesNothingInSteadyState() {
+        assumeTrue("Allocation measurement; run with -Pperf=true", Boolean.getBoolean("perf"));
+        EventAdapter.EventViewHolder[] holders = newHolders();
+        fling(holders);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        fling(holders);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("Bind path allocated " + allocated + " bytes", allocated < ALLOCATION_BUDGET_BYTES);
+    }
+
+    private EventAdapter.EventViewHolder[] newHolders() {
+        EventAdapter.EventViewHolder[] holders = new EventAdapter.EventViewHolder[RECYCLED_HOLDERS];
+        for (int i = 0; i < holders.length; i++) {
+            holders[i] = newHolder();
+        }
+        return holders;
+    }
+
+    /**
+     * Binds every row in order, recycling a screenful of holders the way RecyclerView does.
+     */
+    private void fling(EventAdapter.EventViewHolder[] holders) {
+        for (int position = 0; position < ROW_COUNT; position++) {
+            adapter.onBindViewHolder(holders[position % holders.length], position);
+        }
+    }
+
+    /**
+     * Builds a holder whose text views only record what they are given, so the measurement
+     * covers the adapter's own work rather than TextView layout.
+     */
+    private EventAdapter.EventViewHolder newHolder() {
+        LinearLayout row = new LinearLayout(context);
+        row.addView(recordingTextView(R.id.eventName));
+        row.addView(recordingTextView(R.id.eventDescription));
+        row.addView(recordingTextView(R.id.eventDate));
+        row.addView(recordingTextView(R.id.eventTime));
+        row.addView(button(R.id.editButton));
+        row.addView(button(R.id.deleteButton));
+        return new EventAdapter.EventViewHolder(row);
+    }
+
+    private TextView recordingTextView(int id) {
+        TextView view = new RecordingTextView(context);
+        view.setId(id);
+        return view;
+    }
+
+    private Button button(int id) {
+        Button button = new Button(context);
+        button.setId(id);
+        return button;
+    }
+
+    private static class RecordingTextView extends TextView {
+        // Assigned from TextView's constructor, before field initializers run
+        private CharSequence text;
+
+        RecordingTextView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void setText(CharSequence text, BufferType type) {
+            this.text = text;
+        }
+
+        @Override
+        public CharSequence getText() {
+            return text != null ? text : "";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import android.content.ComponentCallbacks2;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local unit tests for the per-user event cache.
+ */
+public class EventCacheTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Test
+    public void repeatFirstPage_isServedFromMemory() {
+        EventCache cache = new EventCache(2);
+        assertNull(cache.getPage(1, null, PAGE_SIZE));
+        cache.putPage(1, null, events(1, 3), PAGE_SIZE, cache.generation());
+
+        List<Event> page = cache.getPage(1, null, PAGE_SIZE);
+
+        assertNotNull(page);
+        assertEquals(3, page.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void nextPage_missesUntilLoadedThenAppends() {
+        EventCache cache = new EventCache(2);
+        List<Event> first = events(1, 3);
+        cache.putPage(1, null, first, PAGE_SIZE, cache.generation());
+        Event last = first.get(2);
+
+        assertNull(cache.getPage(1, last, PAGE_SIZE));
+        cache.putPage(1, last, events(4, 2), PAGE_SIZE, cache.generation());
+
+        assertEquals(2, cache.getPage(1, last, PAGE_SIZE).size());
+        assertEquals(5, cache.getAll(1).size());
+    }
+
+    @Test
+    public void writes_areAppliedThroughInOrder() {
+        EventCache cache = new EventCache(2);
+        cache.putAll(1, events(1, 3), cache.generation());
+
+        cache.onEventAdded(1, new Event(10, "early", "", 2030, 1, 1, 0, 0));
+        cache.onEventUpdated(1, new Event(2, "moved", "", 2031, 1, 1, 0, 0));
+        cache.onEventDeleted(3);
+
+        List<Event> all = cache.getAll(1);
+        assertEquals(3, all.size());
+        assertEquals(10, all.get(0).getId());
+        assertEquals(1, all.get(1).getId());
+        assertEquals(2, all.get(2).getId());
+    }
+
+    @Test
+    public void editMovingAnUncachedEventIntoThePrefix_isWrittenThrough() {
+        EventCache cache = new EventCache(2);
+        cache.putPage(1, null, events(1, 3), PAGE_SIZE, cache.generation());
+
+        // Event 50 is past the loaded prefix, as one opened from search results would be
+        cache.onEventUpdated(1, new Event(50, "later", "", 2031, 1, 1, 0, 0));
+        cache.onEventUpdated(1, new Event(50, "sooner", "", 2030, 6, 2, 0, 0));
+
+        List<Event> page = cache.getPage(1, null, PAGE_SIZE);
+        assertEquals(1, page.get(0).getId());
+        assertEquals(50, page.get(1).getId());
+        assertEquals(2, page.get(2).getId());
+    }
+
+    @Test
+    public void readRacingAWrite_isNotCached() {
+        EventCache cache = new EventCache(2);
+        long generation = cache.generation();
+        cache.onEventDeleted(42);
+
+        cache.putPage(1, null, events(1, 2), PAGE_SIZE, generation);
+
+        assertNull(cache.getPage(1, null, PAGE_SIZE));
+    }
+
+    @Test
+    public void leastRecentlyUsedUsers_areEvictedFirst() {
+        EventCache cache = new EventCache(2);
+        cache.putAll(1, events(1, 1), cache.generation());
+        cache.putAll(2, events(2, 1), cache.generation());
+        cache.getAll(1);
+        cache.putAll(3, events(3, 1), cache.generation());
+
+        assertNotNull(cache.getAll(1));
+        assertNull(cache.getAll(2));
+
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+        assertEquals(1, cache.getCachedUserCount());
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        assertEquals(0, cache.getCachedUserCount());
+    }
+
+    /**
+     * Builds count events with consecutive IDs, one day apart, in chronological order.
+     */
+    private static List<Event> events(int firstId, int count) {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int id = firstId + i;
+            events.add(new Event(id, "Event " + id, "", 2030, 6, id, 12, 0));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local tests for the event change journal, run against a real SQLite database through Robolectric.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class EventJournalTest {
+
+    private static final int USER_ID = 1;
+
+    private SQLDatabase database;
+    private EventManager eventManager;
+
+    @Before
+    public void setUp() {
+        database = SQLDatabase.getInstance(ApplicationProvider.getApplicationContext());
+        eventManager = new EventManager(ApplicationProvider.getApplicationContext());
+    }
+
+    @After
+    public void tearDown() {
+        SQLDatabase.resetInstance();
+        EventManager.getCache().clear();
+        ReminderAlarms.resetInstance();
+    }
+
+    @Test
+    public void everyMutation_appendsOneSnapshotInOrder() {
+        Event event = new Event("Dentist", "Checkup", 2030, 1, 3, 9, 0);
+        eventManager.addEvent(event, USER_ID);
+        eventManager.updateEvent(new Event(event.getId(), "Dentist", "Cleaning", 2030, 1, 3, 10, 0), USER_ID);
+        // Saving an unchanged event is not a change
+        eventManager.updateEvent(new Event(event.getId(), "Dentist", "Cleaning", 2030, 1, 3, 10, 0), USER_ID);
+        eventManager.deleteEvent(event.getId());
+
+        List<EventChange> changes = eventManager.getChangesSince(0, 10);
+
+        assertEquals(3, changes.size());
+        assertEquals(EventChange.INSERT, changes.get(0).getOperation());
+        assertEquals(EventChange.UPDATE, changes.get(1).getOperation());
+        assertEquals("Cleaning", changes.get(1).getEvent().getDescription());
+        assertEquals(EventTime.toEpochMinute(2030, 1, 3, 10, 0), changes.get(1).getEvent().getEpochMinute());
+        assertTrue(changes.get(2).isDelete());
+        assertNull(changes.get(2).getEvent());
+        for (EventChange change : changes) {
+            assertEquals(event.getId(), change.getEventId());
+            assertEquals(USER_ID, change.getUserId());
+        }
+        assertTrue(changes.get(0).getSequence() < changes.get(1).getSequence());
+        assertTrue(changes.get(1).getSequence() < changes.get(2).getSequence());
+        assertEquals(changes.get(2).getSequence(), eventManager.getLatestSequence());
+    }
+
+    @Test
+    public void getChangesSince_pagesThroughOnlyNewerChanges() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            events.add(new Event("Event " + i, "", 2030, 1, 1 + i, 9, 0));
+        }
+        // The failed row leaves nothing behind in the journal
+        events.set(7, new Event(null, "missing name", 2030, 1, 8, 9, 0));
+        database.insertEvents(events, USER_ID);
+
+        List<EventChange> all = new ArrayList<>();
+        long sequence = 0;
+        for (List<EventChange> page = eventManager.getChangesSince(sequence, 10); !page.isEmpty();
+             page = eventManager.getChangesSince(sequence, 10)) {
+            all.addAll(page);
+            sequence = page.get(page.size() - 1).getSequence();
+        }
+
+        assertEquals(24, all.size());
+        assertEquals(sequence, eventManager.getLatestSequence());
+        assertTrue(eventManager.getChangesSince(sequence, 10).isEmpty());
+    }
+
+    @Test
+    public void compactJournal_foldsSupersededEntriesAndReplaysToSameState() {
+        Event kept = new Event("Gym", "", 2030, 1, 2, 7, 0);
+        Event moved = new Event("Review", "Q3", 2030, 1, 3, 9, 0);
+        Event removed = new Event("Lunch", "", 2030, 1, 4, 12, 0);
+        for (Event event : Arrays.asList(kept, moved, removed)) {
+            eventManager.addEvent(event, USER_ID);
+        }
+        for (int hour = 10; hour < 15; hour++) {
+            eventManager.updateEvent(new Event(moved.getId(), "Review", "Q3", 2030, 1, 3, hour, 0), USER_ID);
+        }
+        eventManager.deleteEvent(removed.getId());
+        long latest = eventManager.getLatestSequence();
+        Map<Integer, Event> before = replay(eventManager.getChangesSince(0, 100));
+
+        int folded = eventManager.compactJournal(latest);
+
+        List<EventChange> compacted = eventManager.getChangesSince(0, 100);
+        assertEquals(6, folded);
+        assertEquals(3, compacted.size());
+        assertTrue(compacted.get(2).isDelete());
+        assertEquals(before.keySet(), replay(compacted).keySet());
+        assertEquals(EventTime.toEpochMinute(2030, 1, 3, 14, 0), replay(compacted).get(moved.getId()).getEpochMinute());
+
+        // Sequences keep rising after entries were removed
+        eventManager.deleteEvent(kept.getId());
+        assertEquals(latest + 1, eventManager.getLatestSequence());
+    }
+
+    @Test
+    public void compaction_staysBehindTheSlowestReader() {
+        Event event = new Event("Review", "Q3", 2030, 1, 3, 9, 0);
+        eventManager.addEvent(event, USER_ID);
+        eventManager.updateEvent(new Event(event.getId(), "Review", "Q3", 2030, 1, 3, 10, 0), USER_ID);
+        long backupRead = eventManager.getLatestSequence();
+        eventManager.updateEvent(new Event(event.getId(), "Review", "Q3", 2030, 1, 3, 11, 0), USER_ID);
+        eventManager.updateEvent(new Event(event.getId(), "Review", "Q3", 2030, 1, 3, 12, 0), USER_ID);
+        eventManager.acknowledgeChanges("backup", backupRead);
+        eventManager.acknowledgeChanges("export", eventManager.getLatestSequence());
+
+        assertEquals(backupRead, database.getAcknowledgedSequence());
+        // Only what the backup has already read is folded, so it still finds both later edits
+        assertEquals(2, eventManager.compactJournal(database.getAcknowledgedSequence()));
+        assertEquals(2, eventManager.getChangesSince(backupRead, 100).size());
+
+        eventManager.acknowledgeChanges("backup", eventManager.getLatestSequence());
+        assertEquals(eventManager.getLatestSequence(), eventManager.getReaderSequence("backup"));
+        assertEquals(1, eventManager.compactJournal(database.getAcknowledgedSequence()));
+        assertEquals(1, eventManager.getChangesSince(0, 100).size());
+    }
+
+    /**
+     * Applies changes the way a backup would: inserts and updates store the snapshot, deletes drop it.
+     */
+    private static Map<Integer, Event> replay(List<EventChange> changes) {
+        Map<Integer, Event> state = new HashMap<>();
+        for (EventChange change : changes) {
+            if (change.isDelete()) {
+                state.remove(change.getEventId());
+            } else {
+                state.put(change.getEventId(), change.getEvent());
+            }
+        }
+        return state;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local tests for EventRowMapper, run through Robolectric.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class EventRowMapperTest {
+
+    private static final int CHECKED_ROWS = 1_000;
+    private static final int THROUGHPUT_ROWS = 100_000;
+    private static final int RUNS = 5;
+
+    // The columns SELECT * used to return, in table order
+    private static final String[] ALL_COLUMNS = {
+            SQLDatabase.COLUMN_EVENT_ID, SQLDatabase.COLUMN_EVENT_NAME, SQLDatabase.COLUMN_EVENT_DESCRIPTION,
+            SQLDatabase.COLUMN_EVENT_TIMESTAMP, SQLDatabase.COLUMN_EVENT_USER_ID
+    };
+
+    @Test
+    public void readAll_closesCursorWithNoRows() {
+        MatrixCursor cursor = new MatrixCursor(ALL_COLUMNS);
+
+        assertTrue(EventRowMapper.readAll(cursor).isEmpty());
+        assertTrue(cursor.isClosed());
+        assertTrue(EventRowMapper.readAll(null).isEmpty());
+    }
+
+    @Test
+    public void readAll_mapsProjectionsWithAndWithoutDescription() {
+        long minute = EventTime.toEpochMinute(2030, 6, 1, 9, 30);
+        MatrixCursor full = new MatrixCursor(new String[]{
+                SQLDatabase.COLUMN_EVENT_TIMESTAMP, SQLDatabase.COLUMN_EVENT_DESCRIPTION,
+                SQLDatabase.COLUMN_EVENT_NAME, SQLDatabase.COLUMN_EVENT_ID});
+        full.addRow(new Object[]{minute, "Checkup", "Dentist", 7});
+        MatrixCursor summary = new MatrixCursor(new String[]{
+                SQLDatabase.COLUMN_EVENT_ID, SQLDatabase.COLUMN_EVENT_NAME, SQLDatabase.COLUMN_EVENT_TIMESTAMP});
+        summary.addRow(new Object[]{7, "Dentist", minute});
+
+        Event event = EventRowMapper.readAll(full).get(0);
+        Event brief = EventRowMapper.readAll(summary).get(0);
+
+        assertEquals(7, event.getId());
+        assertEquals("Dentist", event.getName());
+        assertEquals("Checkup", event.getDescription());
+        assertEquals(minute, event.getEpochMinute());
+        assertEquals(event.getSortKey(), brief.getSortKey());
+        assertNull(brief.getDescription());
+        assertTrue(full.isClosed() && summary.isClosed());
+    }
+
+    @Test
+    public void readAll_matchesPerRowColumnLookups() {
+        MatrixCursor cursor = fullCursor(CHECKED_ROWS);
+        List<Event> legacy = readWithPerRowLookups(cursor);
+
+        cursor.moveToPosition(-1);
+        List<Event> mapped = EventRowMapper.readAll(cursor);
+
+        assertEquals(CHECKED_ROWS, mapped.size());
+        for (int i = 0; i < mapped.size(); i++) {
+            assertEquals(legacy.get(i).getId(), mapped.get(i).getId());
+            assertEquals(legacy.get(i).getName(), mapped.get(i).getName());
+            assertEquals(legacy.get(i).getDescription(), mapped.get(i).getDescription());
+            assertEquals(legacy.get(i).getSortKey(), mapped.get(i).getSortKey());
+        }
+        assertNull(mapped.get(0).getDescription());
+        assertTrue(cursor.isClosed());
+    }
+
+    @Test
+    public void readAll_materializesRowsFasterThanPerRowColumnLookups() {
+        assumeTrue("Timing comparison; run with -Pperf=true", Boolean.getBoolean("perf"));
+        MatrixCursor cursor = fullCursor(THROUGHPUT_ROWS);
+
+        long legacyBest = Long.MAX_VALUE;
+        long mapperBest = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            cursor.moveToPosition(-1);
+            long start = System.nanoTime();
+            readWithPerRowLookups(cursor);
+            legacyBest = Math.min(legacyBest, System.nanoTime() - start);
+
+            cursor.moveToPosition(-1);
+            start = System.nanoTime();
+            readWithMapper(cursor);
+            mapperBest = Math.min(mapperBest, System.nanoTime() - start);
+        }
+
+        assertTrue("Mapper took " + mapperBest + "ns, per-row lookups " + legacyBest + "ns",
+                mapperBest < legacyBest);
+    }
+
+    /**
+     * A cursor shaped like the old SELECT *; every tenth row has no description.
+     */
+    private static MatrixCursor fullCursor(int rows) {
+        MatrixCursor cursor = new MatrixCursor(ALL_COLUMNS, rows);
+        long firstMinute = EventTime.toEpochMinute(2030, 1, 1, 0, 0);
+        for (int i = 0; i < rows; i++) {
+            cursor.addRow(new Object[]{i + 1, "Event " + i, i % 10 == 0 ? null : "Description " + i, firstMinute + i, 1});
+        }
+        return cursor;
+    }
+
+    /**
+     * EventRowMapper.readAll without closing, so the same cursor can be read again.
+     */
+    private static List<Event> readWithMapper(Cursor cursor) {
+        List<Event> events = new ArrayList<>(cursor.getCount());
+        EventRowMapper mapper = new EventRowMapper(cursor);
+        while (cursor.moveToNext()) {
+            events.add(mapper.map(cursor));
+        }
+        return events;
+    }
+
+    /**
+     * The loop EventManager used before EventRowMapper: every column looked up by name on every
+     * row, inside a per-row catch.
+     */
+    private static List<Event> readWithPerRowLookups(Cursor cursor) {
+        List<Event> events = new ArrayList<>();
+        while (cursor.moveToNext()) {
+            try {
+                int id = cursor.getInt(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_ID));
+                String name = cursor.getString(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_NAME));
+                String description = cursor.getString(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_DESCRIPTION));
+                long timestamp = cursor.getLong(cursor.getColumnIndexOrThrow(SQLDatabase.COLUMN_EVENT_TIMESTAMP));
+                events.add(new Event(id, name, description, timestamp));
+            } catch (Exception e) {
+                Log.e("EventRowMapperTest", "Error reading event data", e);
+            }
+        }
+        return events;
+    }
+}
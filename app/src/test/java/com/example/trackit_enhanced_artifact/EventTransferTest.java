@@ -0,0 +1,268 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local tests for exporting and importing events, run against a real SQLite database through Robolectric.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class EventTransferTest {
+
+    private static final int SOURCE_USER = 1;
+    private static final int TARGET_USER = 2;
+
+    // Rows in the large round trip; a million with -Pperf=true, or any count with -Ptransfer.rows
+    private static final int LARGE_ROWS =
+            Integer.getInteger("transfer.rows", Boolean.getBoolean("perf") ? 1_000_000 : 10_000);
+
+    private SQLDatabase database;
+    private EventTransfer transfer;
+
+    @Before
+    public void setUp() {
+        database = SQLDatabase.getInstance(ApplicationProvider.getApplicationContext());
+        transfer = new EventTransfer(ApplicationProvider.getApplicationContext());
+    }
+
+    @After
+    public void tearDown() {
+        SQLDatabase.resetInstance();
+        EventManager.getCache().clear();
+        ReminderAlarms.resetInstance();
+    }
+
+    @Test
+    public void exportThenImport_copiesEventsInBothFormats() throws IOException {
+        List<Event> events = new ArrayList<>();
+        events.add(new Event("Dentist", "Bring \"forms\", card\nand referral", 2030, 5, 4, 9, 5));
+        events.add(new Event("Standup, daily", "", 2030, 5, 5, 8, 30));
+        events.add(new Event("Flight", "Gate 12 ✈", 2030, 6, 1, 23, 59));
+        database.insertEvents(events, SOURCE_USER);
+
+        int targetUser = TARGET_USER;
+        for (EventTransfer.Format format : EventTransfer.Format.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(3, transfer.exportEvents(SOURCE_USER, format, out, null));
+
+            EventTransfer.ImportResult result = transfer.importEvents(targetUser,
+                    new ByteArrayInputStream(out.toByteArray()), null);
+
+            assertEquals(format.name(), 3, result.getImportedCount());
+            assertEquals(export(SOURCE_USER, format), export(targetUser, format));
+            targetUser++;
+        }
+    }
+
+    @Test
+    public void import_skipsDuplicatesAndCountsInvalidRows() throws IOException {
+        String json = "{\"version\": 1, \"exportedBy\": \"test\", \"events\": ["
+                + "{\"name\": \"Gym\", \"description\": null, \"date\": \"2030-01-02\", \"time\": \"07:00\"},"
+                + "{\"name\": \"Gym\", \"description\": \"again\", \"date\": \"2030-01-02\", \"time\": \"07:00\"},"
+                + "{\"name\": \"Lunch\", \"date\": \"2030-02-30\", \"time\": \"12:00\"},"
+                + "{\"name\": \" \", \"date\": \"2030-01-03\", \"time\": \"12:00\"},"
+                + "{\"date\": \"2030-01-03\", \"time\": \"12:00\"},"
+                + "{\"name\": \"Review\", \"description\": \"Q3\", \"date\": \"2030-1-4\", \"time\": \"9:00\"}]}";
+
+        EventTransfer.ImportResult first = transfer.importEvents(TARGET_USER, stream(json), null);
+        EventTransfer.ImportResult second = transfer.importEvents(TARGET_USER, stream(json), null);
+
+        assertEquals(2, first.getImportedCount());
+        assertEquals(1, first.getDuplicateCount());
+        assertEquals(3, first.getRejectedCount());
+        assertEquals(0, second.getImportedCount());
+        assertEquals(3, second.getDuplicateCount());
+        assertEquals(2, EventRowMapper.readAll(database.getUserEvents(TARGET_USER)).size());
+    }
+
+    @Test
+    public void import_refusesFilesThatAreNotExports() {
+        String[] inputs = {"title,start\nGym,2030-01-01\n", "{\"name\": \"Gym\"}", "[{\"name\": \"Gym\", "};
+        for (String input : inputs) {
+            try {
+                transfer.importEvents(TARGET_USER, stream(input), null);
+                throw new AssertionError("Imported " + input);
+            } catch (IOException expected) {
+                // Nothing usable in the file
+            }
+        }
+        assertTrue(EventRowMapper.readAll(database.getUserEvents(TARGET_USER)).isEmpty());
+    }
+
+    @Test
+    public void import_letsEditsRunBetweenBatches() throws Exception {
+        StringBuilder csv = new StringBuilder(EventCsv.HEADER).append("\n");
+        for (int i = 0; i < 3000; i++) {
+            csv.append("Event ").append(i).append(",,2010-01-01,09:00\n");
+        }
+        boolean[] queued = {false};
+        int[] importedWhenEditRan = {-1};
+        CountDownLatch edited = new CountDownLatch(1);
+
+        // An edit queued during the import runs before the next batch, not after the whole file
+        EventTransfer.ImportResult result = transfer.importEvents(TARGET_USER, stream(csv.toString()), rows -> {
+            if (queued[0]) return;
+            queued[0] = true;
+            new DatabaseExecutor().write(() -> {
+                importedWhenEditRan[0] = EventRowMapper.readAll(database.getUserEvents(TARGET_USER)).size();
+                edited.countDown();
+                return database.insertEvent("Edit", "", EventTime.toEpochMinute(2030, 1, 1, 9, 0), SOURCE_USER);
+            }, null);
+        });
+
+        assertTrue(edited.await(5, TimeUnit.SECONDS));
+        assertEquals(3000, result.getImportedCount());
+        assertEquals(1000, importedWhenEditRan[0]);
+    }
+
+    @Test
+    public void roundTrip_ofLargeExportStreamsRowsAndBatches() throws IOException {
+        // Past events, so the reminder scheduler holds nothing for them
+        long firstMinute = EventTime.toEpochMinute(2010, 1, 1, 0, 0);
+        List<Event> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < LARGE_ROWS; i++) {
+            batch.add(new Event(0, "Event " + i, "Description, part " + i, firstMinute + i));
+            if (batch.size() == 10_000 || i == LARGE_ROWS - 1) {
+                database.insertEvents(batch, SOURCE_USER);
+                batch.clear();
+            }
+        }
+
+        File file = File.createTempFile("events", ".json");
+        file.deleteOnExit();
+
+        // Rows reach the stream while the cursor is still being read, and the stream is left open
+        CountingOutputStream out = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        long[] writtenAtFirstReport = {-1};
+        try {
+            assertEquals(LARGE_ROWS, transfer.exportEvents(SOURCE_USER, EventTransfer.Format.JSON, out, rows -> {
+                if (writtenAtFirstReport[0] == -1) writtenAtFirstReport[0] = out.count;
+            }));
+            assertFalse(out.closed);
+        } finally {
+            out.close();
+        }
+        assertTrue(writtenAtFirstReport[0] > 0);
+        assertTrue(writtenAtFirstReport[0] < file.length() / 2);
+
+        // The first batch is committed while most of the file is still unread
+        CountingInputStream in = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+        long[] readAtFirstReport = {-1};
+        int[] storedAtFirstReport = {-1};
+        EventTransfer.ImportResult result;
+        try {
+            result = transfer.importEvents(TARGET_USER, in, rows -> {
+                if (readAtFirstReport[0] != -1) return;
+                readAtFirstReport[0] = in.count;
+                storedAtFirstReport[0] = EventRowMapper.readAll(database.getUserEvents(TARGET_USER)).size();
+            });
+            assertFalse(in.closed);
+        } finally {
+            in.close();
+        }
+
+        assertEquals(LARGE_ROWS, result.getImportedCount());
+        assertTrue(readAtFirstReport[0] < file.length() / 2);
+        assertTrue(storedAtFirstReport[0] > 0 && storedAtFirstReport[0] < LARGE_ROWS);
+        assertEquals(export(SOURCE_USER, EventTransfer.Format.CSV), export(TARGET_USER, EventTransfer.Format.CSV));
+    }
+
+    private String export(int userId, EventTransfer.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transfer.exportEvents(userId, format, out, null);
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Counts the bytes passed to the wrapped stream and whether it was closed.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+        boolean closed;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    /**
+     * Counts the bytes taken from the wrapped stream and whether it was closed.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+        boolean closed;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
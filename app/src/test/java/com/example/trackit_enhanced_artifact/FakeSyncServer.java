@@ -0,0 +1,95 @@
+package com.example.trackit_enhanced_artifact;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process stand-in for the sync server. Keeps the newest version of each event per account,
+ * numbers every stored version, and counts the records that cross the "wire".
+ */
+class FakeSyncServer implements SyncTransport {
+
+    private static final class Stored {
+        final SyncRecord record;
+        final String deviceId;
+        final long sequence;
+
+        Stored(SyncRecord record, String deviceId, long sequence) {
+            this.record = record;
+            this.deviceId = deviceId;
+            this.sequence = sequence;
+        }
+    }
+
+    private final Map<String, Map<String, Stored>> accounts = new HashMap<>();
+    private long sequence;
+
+    int pushedRecords;
+    int pulledRecords;
+    int largestPayload;
+
+    // Calls that fail with an IOException before the server answers again
+    int failuresLeft;
+
+    @Override
+    public void push(String account, String deviceId, List<SyncRecord> records) throws IOException {
+        failIfDown();
+        pushedRecords += records.size();
+        largestPayload = Math.max(largestPayload, records.size());
+        Map<String, Stored> events = events(account);
+        for (SyncRecord record : records) {
+            Stored current = events.get(record.getUuid());
+            if (current == null || record.supersedes(current.record)) {
+                events.put(record.getUuid(), new Stored(record, deviceId, ++sequence));
+            }
+        }
+    }
+
+    @Override
+    public PullResult pull(String account, String deviceId, long cursor, int limit) throws IOException {
+        failIfDown();
+        List<Stored> newer = new ArrayList<>();
+        for (Stored stored : events(account).values()) {
+            if (stored.sequence > cursor && !stored.deviceId.equals(deviceId)) newer.add(stored);
+        }
+        newer.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+
+        List<SyncRecord> page = new ArrayList<>();
+        long next = cursor;
+        for (Stored stored : newer.subList(0, Math.min(limit, newer.size()))) {
+            page.add(stored.record);
+            next = stored.sequence;
+        }
+        pulledRecords += page.size();
+        largestPayload = Math.max(largestPayload, page.size());
+        return new PullResult(page, next, newer.size() > limit);
+    }
+
+    /**
+     * The server's current version of an event, or null if it never had one.
+     */
+    SyncRecord get(String account, String uuid) {
+        Stored stored = events(account).get(uuid);
+        return stored == null ? null : stored.record;
+    }
+
+    void resetCounters() {
+        pushedRecords = 0;
+        pulledRecords = 0;
+        largestPayload = 0;
+    }
+
+    private Map<String, Stored> events(String account) {
+        return accounts.computeIfAbsent(account, key -> new HashMap<>());
+    }
+
+    private void failIfDown() throws IOException {
+        if (failuresLeft > 0) {
+            failuresLeft--;
+            throw new IOException("Server unavailable");
+        }
+    }
+}
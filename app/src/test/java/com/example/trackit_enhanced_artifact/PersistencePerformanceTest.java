@@ -0,0 +1,222 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test for the persistence layer: fills SQLDatabase with synthetic users and events, then
+ * runs the operations the app runs most. By default it only checks their results on a small
+ * data set. With -Pperf=true it fills 1,000 users x 100 events (change with -Pperf.users and
+ * -Pperf.eventsPerUser), logs p50/p95 latency and allocation, and fails if the p95 latency or
+ * average allocation goes over fixed budgets.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PersistencePerformanceTest {
+
+    private static final String TAG = "PersistencePerformance";
+
+    // Timings and budgets are only meaningful on a quiet machine, so they are opt-in
+    private static final boolean PERF = Boolean.getBoolean("perf");
+
+    private static final int USERS = Integer.getInteger("perf.users", PERF ? 1000 : 20);
+    private static final int EVENTS_PER_USER = Integer.getInteger("perf.eventsPerUser", PERF ? 100 : 10);
+
+    private static final int WARMUP_RUNS = 20;
+    private static final int SAMPLES = 200;
+    private static final int BATCH_ROWS = 2000;
+    private static final int SEARCH_CORPUS_SIZE = 100_000;
+
+    private static final String[] SEARCH_WORDS = {
+            "meeting", "dentist", "standup", "lunch", "review", "birthday", "gym", "flight", "payroll", "concert"
+    };
+
+    // Budgets are loose enough for a shared CI machine; a scaling regression blows through them
+    private static final long WRITE_BUDGET_NANOS = 10_000_000;
+    private static final long LOGIN_BUDGET_NANOS = 5_000_000;
+    private static final long SEARCH_BUDGET_MS = 100;
+    private static final long READ_BUDGET_NANOS = 20_000_000 + 200_000L * EVENTS_PER_USER;
+    private static final long WRITE_ALLOCATION_BUDGET_BYTES = 64 * 1024;
+    private static final long READ_ALLOCATION_BUDGET_BYTES = 256 * 1024 + 2048L * EVENTS_PER_USER;
+
+    private SQLDatabase database;
+    private EventManager eventManager;
+    private SyntheticData data;
+
+    private final List<String> overBudget = new ArrayList<>();
+
+    /**
+     * One operation under test; sample is the run's index, counting warm-up runs.
+     */
+    private interface Operation {
+        void run(int sample);
+    }
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = SQLDatabase.getInstance(context);
+        eventManager = new EventManager(context);
+        data = new SyntheticData(42);
+
+        long start = System.nanoTime();
+        data.populate(database, USERS, EVENTS_PER_USER);
+        Log.d(TAG, "Populated " + USERS + " users x " + EVENTS_PER_USER + " events in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        database.getLatencyStats().reset();
+    }
+
+    @After
+    public void tearDown() {
+        SQLDatabase.resetInstance();
+        EventManager.getCache().clear();
+        ReminderAlarms.resetInstance();
+    }
+
+    @Test
+    public void persistenceOperations_stayWithinBudgetsAtScale() {
+        int[] userIds = new int[WARMUP_RUNS + SAMPLES];
+        long[] insertedIds = new long[WARMUP_RUNS + SAMPLES];
+
+        measure("login", LOGIN_BUDGET_NANOS, WRITE_ALLOCATION_BUDGET_BYTES, null, sample -> {
+            int user = userFor(sample);
+            assertTrue(database.checkUserCredentials(SyntheticData.username(user), SyntheticData.password(user)));
+            userIds[sample] = database.getUserId(SyntheticData.username(user));
+        });
+
+        // The cache is cleared before each read so every sample goes to the database
+        measure("getUserEvents", READ_BUDGET_NANOS, READ_ALLOCATION_BUDGET_BYTES,
+                sample -> EventManager.getCache().clear(),
+                sample -> assertEquals(EVENTS_PER_USER, eventManager.getUserEvents(userIds[sample]).size()));
+
+        measure("insertEvent", WRITE_BUDGET_NANOS, WRITE_ALLOCATION_BUDGET_BYTES, null, sample -> {
+            Event event = data.nextEvent();
+            insertedIds[sample] = database.insertEvent(event.getName(), event.getDescription(),
+                    event.getEpochMinute(), userIds[sample]);
+            assertTrue(insertedIds[sample] != -1);
+        });
+
+        // Updates and deletes work through the events inserted above, one each per sample, so
+        // there is always a live event to hit however small the data set is
+        measure("updateEvent", WRITE_BUDGET_NANOS, WRITE_ALLOCATION_BUDGET_BYTES, null,
+                sample -> assertTrue(database.updateEvent((int) insertedIds[sample], "Updated", "Moved",
+                        data.nextMinute())));
+
+        measure("deleteEvent", WRITE_BUDGET_NANOS, WRITE_ALLOCATION_BUDGET_BYTES, null,
+                sample -> assertTrue(database.deleteEvent((int) insertedIds[sample])));
+
+        Log.d(TAG, database.getLatencyStats().toString());
+        assertTrue("Over budget:\n" + String.join("\n", overBudget), overBudget.isEmpty());
+    }
+
+    @Test
+    public void insertEvents_batchBeatsPerRowInserts() {
+        assumeTrue("Timing comparison; run with -Pperf=true", PERF);
+        List<Event> events = data.nextEvents(BATCH_ROWS);
+        int userId = database.getUserId(SyntheticData.username(0));
+
+        long perRowStart = System.nanoTime();
+        for (Event event : events) {
+            database.insertEvent(event.getName(), event.getDescription(), event.getEpochMinute(), userId);
+        }
+        long perRowNanos = System.nanoTime() - perRowStart;
+
+        long batchStart = System.nanoTime();
+        assertEquals(BATCH_ROWS, database.insertEvents(events, userId).getInsertedCount());
+        long batchNanos = System.nanoTime() - batchStart;
+
+        Log.d(TAG, "Inserted " + BATCH_ROWS + " events: per-row " + perRowNanos / 1_000_000 + " ms, batch "
+                + batchNanos / 1_000_000 + " ms");
+        assertTrue("Batch took " + batchNanos + "ns, per-row " + perRowNanos + "ns", batchNanos < perRowNanos);
+    }
+
+    @Test
+    public void searchEvents_staysFastOnLargeDatabase() {
+        assumeTrue("Timing measurement; run with -Pperf=true", PERF);
+        List<Event> events = new ArrayList<>(SEARCH_CORPUS_SIZE);
+        for (int i = 0; i < SEARCH_CORPUS_SIZE; i++) {
+            String word = SEARCH_WORDS[i % SEARCH_WORDS.length];
+            events.add(new Event(word + " " + i, "Notes for " + SEARCH_WORDS[(i / 7) % SEARCH_WORDS.length] + " " + i,
+                    2030, 1 + i % 12, 1 + i % 28, i % 24, i % 60));
+        }
+        int userId = database.getUserId(SyntheticData.username(0));
+        assertEquals(SEARCH_CORPUS_SIZE, database.insertEvents(events, userId).getInsertedCount());
+
+        for (String query : new String[]{"dent", "payroll 4248", "concert", "fl"}) {
+            long start = System.nanoTime();
+            List<Event> results = eventManager.searchEvents(userId, query, 100);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            Log.d(TAG, "Search '" + query + "' over " + SEARCH_CORPUS_SIZE + " events: " + results.size()
+                    + " result(s) in " + elapsedMs + " ms");
+            assertFalse(results.isEmpty());
+            assertTrue("Search '" + query + "' took " + elapsedMs + " ms", elapsedMs < SEARCH_BUDGET_MS);
+        }
+    }
+
+    /**
+     * Maps a sample to a user so that consecutive samples hit different users and no user is
+     * used twice while there are more users than samples.
+     */
+    private static int userFor(int sample) {
+        return (int) ((sample * 7919L) % USERS);
+    }
+
+    /**
+     * Runs an operation for the warm-up runs and then SAMPLES more times, timing and counting the
+     * bytes allocated by each measured run. prepare, if given, runs untimed before each run.
+     * Budgets are only checked when -Pperf=true.
+     */
+    private void measure(String name, long latencyBudgetNanos, long allocationBudgetBytes,
+                         Operation prepare, Operation operation) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] latencies = new long[SAMPLES];
+        long allocated = 0;
+
+        for (int run = 0; run < WARMUP_RUNS + SAMPLES; run++) {
+            if (prepare != null) prepare.run(run);
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            operation.run(run);
+            long elapsed = System.nanoTime() - start;
+            long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            if (run >= WARMUP_RUNS) {
+                latencies[run - WARMUP_RUNS] = elapsed;
+                allocated += bytes;
+            }
+        }
+
+        Arrays.sort(latencies);
+        long p50 = latencies[SAMPLES / 2];
+        long p95 = latencies[SAMPLES * 95 / 100];
+        long bytesPerRun = allocated / SAMPLES;
+        Log.d(TAG, name + ": p50=" + p50 / 1000 + "us p95=" + p95 / 1000 + "us alloc=" + bytesPerRun + "B/op");
+
+        if (!PERF) return;
+        if (p95 > latencyBudgetNanos) {
+            overBudget.add(name + " p95 " + p95 / 1000 + "us > " + latencyBudgetNanos / 1000 + "us");
+        }
+        if (bytesPerRun > allocationBudgetBytes) {
+            overBudget.add(name + " allocated " + bytesPerRun + "B/op > " + allocationBudgetBytes + "B");
+        }
+    }
+}
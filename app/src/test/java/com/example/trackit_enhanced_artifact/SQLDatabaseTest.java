@@ -0,0 +1,238 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Local tests for SQLDatabase, run against a real SQLite database through Robolectric.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SQLDatabaseTest {
+
+    private static final int USER_ID = 1;
+    private static final int BATCH_SIZE = 2000;
+
+    // More matches than one ID query can load, so ranking and loading are both exercised
+    private static final int SEARCH_MATCHES = SQLDatabase.MAX_IDS_PER_QUERY + 1001;
+
+    private SQLDatabase database;
+
+    @Before
+    public void setUp() {
+        database = SQLDatabase.getInstance(ApplicationProvider.getApplicationContext());
+    }
+
+    @After
+    public void tearDown() {
+        SQLDatabase.resetInstance();
+        EventManager.getCache().clear();
+        ReminderAlarms.resetInstance();
+    }
+
+    @Test
+    public void userLookups_useSharedConnectionAndRecordLatency() {
+        assertTrue(database.insertUser("alice", "secret"));
+
+        assertTrue(database.checkUserCredentials("alice", "secret"));
+        assertFalse(database.checkUserCredentials("alice", "wrong"));
+        assertNotEquals(-1, database.getUserId("alice"));
+        assertEquals(-1, database.getUserId("bob"));
+        assertEquals(2, database.getLatencyStats().getCount("checkUserCredentials"));
+        assertEquals(1, database.getLatencyStats().getCount("getUserId"));
+    }
+
+    @Test
+    public void insertEvents_returnsGeneratedIdsInInputOrder() {
+        List<Event> events = syntheticEvents(3);
+
+        SQLDatabase.BatchInsertResult result = database.insertEvents(events, USER_ID);
+
+        long[] ids = result.getIds();
+        assertEquals(3, result.getInsertedCount());
+        assertTrue(result.getFailures().isEmpty());
+        assertTrue(ids[0] < ids[1] && ids[1] < ids[2]);
+    }
+
+    @Test
+    public void insertEvents_reportsFailedRowsWithoutAbortingBatch() {
+        List<Event> events = syntheticEvents(3);
+        events.set(1, new Event(null, "missing name", 2030, 1, 1, 9, 0));
+
+        SQLDatabase.BatchInsertResult result = database.insertEvents(events, USER_ID);
+
+        assertEquals(2, result.getInsertedCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(1, result.getFailures().get(0).getIndex());
+        assertEquals(-1, result.getIds()[1]);
+        assertNotEquals(-1, result.getIds()[2]);
+        assertEquals(2, new EventManager(ApplicationProvider.getApplicationContext()).getUserEvents(USER_ID).size());
+    }
+
+    @Test
+    public void insertEvents_writesWholeBatchInOneTransaction() {
+        List<Event> events = syntheticEvents(BATCH_SIZE);
+
+        SQLDatabase.BatchInsertResult result = database.insertEvents(events, USER_ID);
+
+        long[] ids = result.getIds();
+        assertEquals(BATCH_SIZE, result.getInsertedCount());
+        assertFalse(database.getWritableDatabase().inTransaction());
+        // One batch, not a loop over insertEvent
+        assertEquals(1, database.getLatencyStats().getCount("insertEvents"));
+        assertEquals(0, database.getLatencyStats().getCount("insertEvent"));
+
+        // Every row landed under the ID reported for it, stamped once for the whole transaction
+        try (Cursor cursor = database.getReadableDatabase().rawQuery(
+                "SELECT " + SQLDatabase.COLUMN_EVENT_ID + ", " + SQLDatabase.COLUMN_EVENT_NAME + ", " +
+                        SQLDatabase.COLUMN_EVENT_TIMESTAMP + ", " + SQLDatabase.COLUMN_EVENT_UPDATED_AT +
+                        " FROM " + SQLDatabase.TABLE_EVENTS + " WHERE " + SQLDatabase.COLUMN_EVENT_USER_ID +
+                        " = ? ORDER BY " + SQLDatabase.COLUMN_EVENT_ID, new String[]{String.valueOf(USER_ID)})) {
+            assertEquals(BATCH_SIZE, cursor.getCount());
+            long stamp = -1;
+            for (int i = 0; cursor.moveToNext(); i++) {
+                assertEquals(ids[i], cursor.getLong(0));
+                assertEquals(events.get(i).getName(), cursor.getString(1));
+                assertEquals(events.get(i).getEpochMinute(), cursor.getLong(2));
+                if (i == 0) stamp = cursor.getLong(3);
+                assertEquals(stamp, cursor.getLong(3));
+            }
+        }
+        assertEquals(ids[0] + BATCH_SIZE - 1, ids[BATCH_SIZE - 1]);
+    }
+
+    @Test
+    public void getEventsBetween_returnsOnlyTheHalfOpenWindow() {
+        EventManager eventManager = new EventManager(ApplicationProvider.getApplicationContext());
+        eventManager.addEvent(new Event("Before", "", 2030, 3, 3, 23, 59), USER_ID);
+        eventManager.addEvent(new Event("Midnight", "", 2030, 3, 4, 0, 0), USER_ID);
+        eventManager.addEvent(new Event("Evening", "", 2030, 3, 4, 23, 59), USER_ID);
+        eventManager.addEvent(new Event("Next day", "", 2030, 3, 5, 0, 0), USER_ID);
+        eventManager.addEvent(new Event("Other user", "", 2030, 3, 4, 12, 0), USER_ID + 1);
+        long day = EventTime.toEpochMinute(2030, 3, 4, 0, 0);
+
+        List<Event> events = eventManager.getEventsBetween(USER_ID, day, day + EventTime.MINUTES_PER_DAY);
+
+        assertEquals(2, events.size());
+        assertEquals("Midnight", events.get(0).getName());
+        assertEquals("Evening", events.get(1).getName());
+        // 2030-03-04 is a Monday, so its week runs through Sunday 2030-03-10
+        assertEquals(day, EventTime.startOfWeek(EventTime.toEpochMinute(2030, 3, 10, 18, 0)));
+        assertEquals(3, eventManager.getEventsBetween(USER_ID, day, day + EventTime.MINUTES_PER_WEEK).size());
+    }
+
+    @Test
+    public void getNextEvent_returnsEarliestEventAtOrAfterNow() {
+        EventManager eventManager = new EventManager(ApplicationProvider.getApplicationContext());
+        eventManager.addEvent(new Event("Past", "", 2030, 1, 1, 9, 0), USER_ID);
+        eventManager.addEvent(new Event("Later", "", 2030, 1, 3, 9, 0), USER_ID);
+        eventManager.addEvent(new Event("Soon", "", 2030, 1, 2, 9, 0), USER_ID);
+
+        Event next = eventManager.getNextEvent(USER_ID, EventTime.toEpochMinute(2030, 1, 1, 9, 1));
+
+        assertEquals("Soon", next.getName());
+        assertNull(eventManager.getNextEvent(USER_ID, EventTime.toEpochMinute(2030, 1, 3, 9, 1)));
+    }
+
+    @Test
+    public void listReads_carryPreviewAndDescriptionLoadsById() {
+        String notes = "Bring the insurance card\nand the referral from Dr. Lee";
+        long id = database.insertEvent("Dentist", notes, EventTime.toEpochMinute(2030, 1, 3, 9, 0), USER_ID);
+
+        Event row = EventRowMapper.readAll(database.getUserEvents(USER_ID)).get(0);
+        assertNull(row.getDescription());
+        assertEquals("Bring the insurance card\u2026", row.getDescriptionPreview());
+        assertEquals(notes, database.getEventDescription((int) id));
+
+        assertTrue(database.updateEvent((int) id, "Dentist", "Cleaning", row.getEpochMinute()));
+        row = EventRowMapper.readAll(database.getUserEventsPage(USER_ID, Long.MIN_VALUE, Integer.MIN_VALUE, 10)).get(0);
+        assertEquals("Cleaning", row.getDescriptionPreview());
+        assertEquals("Cleaning", database.getEventDescription((int) id));
+        assertNull(database.getEventDescription((int) id + 1));
+    }
+
+    @Test
+    public void searchEvents_matchesPrefixesAndRanksNameHitsFirst() {
+        EventManager eventManager = new EventManager(ApplicationProvider.getApplicationContext());
+        eventManager.addEvent(new Event("Lunch", "Planning meeting notes", 2030, 1, 1, 12, 0), USER_ID);
+        eventManager.addEvent(new Event("Team meeting", "Weekly sync", 2030, 1, 2, 9, 0), USER_ID);
+        eventManager.addEvent(new Event("Dentist", "Checkup", 2030, 1, 3, 9, 0), USER_ID);
+        eventManager.addEvent(new Event("Standup", "Meeting prep", 2030, 1, 4, 9, 0), USER_ID + 1);
+
+        List<Event> results = eventManager.searchEvents(USER_ID, "mee", 10);
+
+        assertEquals(2, results.size());
+        assertEquals("Team meeting", results.get(0).getName());
+        assertEquals("Lunch", results.get(1).getName());
+        assertEquals(1, eventManager.searchEvents(USER_ID, "team MEET", 10).size());
+        assertTrue(eventManager.searchEvents(USER_ID, "\"*", 10).isEmpty());
+    }
+
+    @Test
+    public void searchEvents_followsUpdatesAndDeletes() {
+        EventManager eventManager = new EventManager(ApplicationProvider.getApplicationContext());
+        Event event = new Event("Dentist", "Checkup", 2030, 1, 3, 9, 0);
+        eventManager.addEvent(event, USER_ID);
+
+        Event renamed = new Event(event.getId(), "Orthodontist", "Checkup", 2030, 1, 3, 9, 0);
+        eventManager.updateEvent(renamed, USER_ID);
+        assertTrue(eventManager.searchEvents(USER_ID, "dentist", 10).isEmpty());
+        assertEquals(1, eventManager.searchEvents(USER_ID, "ortho", 10).size());
+
+        eventManager.deleteEvent(event.getId());
+        assertTrue(eventManager.searchEvents(USER_ID, "ortho", 10).isEmpty());
+        assertTrue(eventManager.searchEvents(USER_ID, "checkup", 10).isEmpty());
+    }
+
+    @Test
+    public void searchEvents_ranksEveryMatchBeforeApplyingLimit() {
+        // Thousands of description hits come first in both row order and time, then one name hit
+        List<Event> events = new ArrayList<>(SEARCH_MATCHES + 1);
+        for (int i = 0; i < SEARCH_MATCHES; i++) {
+            events.add(new Event("Event " + i, "Weekly meeting " + i, 2030, 1, 1 + i % 28, i % 24, i % 60));
+        }
+        events.add(new Event("Board meeting", "Quarterly", 2031, 12, 31, 23, 59));
+        assertEquals(SEARCH_MATCHES + 1, database.insertEvents(events, USER_ID).getInsertedCount());
+        EventManager eventManager = new EventManager(ApplicationProvider.getApplicationContext());
+
+        List<Event> top = eventManager.searchEvents(USER_ID, "mee", 10);
+
+        assertEquals(10, top.size());
+        assertEquals("Board meeting", top.get(0).getName());
+        for (int i = 2; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getSortKey() < top.get(i).getSortKey());
+        }
+
+        // A limit above the per-query ID cap still loads every row, in rank order
+        List<Event> all = eventManager.searchEvents(USER_ID, "mee", SEARCH_MATCHES + 10);
+        assertEquals(SEARCH_MATCHES + 1, all.size());
+        assertEquals("Board meeting", all.get(0).getName());
+        assertEquals(top.get(1).getId(), all.get(1).getId());
+        assertEquals("Weekly meeting 0", database.getEventDescription(all.get(1).getId()));
+    }
+
+    private static List<Event> syntheticEvents(int count) {
+        Event[] events = new Event[count];
+        for (int i = 0; i < count; i++) {
+            events[i] = new Event("Event " + i, "Description " + i,
+                    2030, 1 + i % 12, 1 + i % 28, i % 24, i % 60);
+        }
+        return new ArrayList<>(Arrays.asList(events));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local tests for the SMS outbox, run against a real SQLite database with a fake gateway and clock.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SmsDispatcherTest {
+
+    private static final String PHONE = "5550100";
+    private static final int MAX_PER_WINDOW = 2;
+    private static final long WINDOW_MS = 60_000;
+
+    private SQLDatabase database;
+    private FakeGateway gateway;
+    private long now = 1_000_000;
+    private SmsDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        database = SQLDatabase.getInstance(ApplicationProvider.getApplicationContext());
+        gateway = new FakeGateway();
+        dispatcher = new SmsDispatcher(database, gateway, () -> now, MAX_PER_WINDOW, WINDOW_MS);
+    }
+
+    @After
+    public void tearDown() {
+        SQLDatabase.resetInstance();
+    }
+
+    @Test
+    public void enqueue_dropsIdenticalUnsentMessages() {
+        assertTrue(dispatcher.enqueue(PHONE, "Event: Dentist"));
+        assertFalse(dispatcher.enqueue(PHONE, "Event: Dentist"));
+        assertTrue(dispatcher.enqueue(PHONE, "Event: Gym"));
+
+        dispatcher.drain();
+        assertEquals(2, gateway.sent.size());
+
+        // Once sent, the same text may be queued again
+        dispatcher.onSent(gateway.ids.get(0), true, null);
+        assertTrue(dispatcher.enqueue(PHONE, "Event: Dentist"));
+    }
+
+    @Test
+    public void drain_respectsRateLimitWindow() {
+        for (int i = 0; i < 5; i++) {
+            dispatcher.enqueue(PHONE, "Message " + i);
+        }
+
+        long delay = dispatcher.drain();
+        assertEquals(MAX_PER_WINDOW, gateway.sent.size());
+        assertEquals(WINDOW_MS, delay);
+
+        now += WINDOW_MS / 2;
+        dispatcher.drain();
+        assertEquals(MAX_PER_WINDOW, gateway.sent.size());
+
+        now += WINDOW_MS / 2;
+        dispatcher.drain();
+        assertEquals(2 * MAX_PER_WINDOW, gateway.sent.size());
+        assertEquals("Message 0", gateway.sent.get(0));
+    }
+
+    @Test
+    public void failedSends_backOffExponentiallyThenFail() {
+        gateway.failing = true;
+        dispatcher.enqueue(PHONE, "Event: Flight");
+        long id = -1;
+
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            long delay = dispatcher.drain();
+            assertEquals(attempt, gateway.attempts);
+            id = gateway.ids.get(attempt - 1);
+            if (attempt < 5) {
+                assertEquals(SmsDispatcher.backoffMillis(attempt), delay);
+                assertEquals(SQLDatabase.SMS_STATUS_PENDING, database.getSmsStatus(id));
+
+                // Nothing is retried before the backoff has passed
+                now += delay - 1;
+                dispatcher.drain();
+                assertEquals(attempt, gateway.attempts);
+                now += 1;
+            } else {
+                assertEquals(-1, delay);
+            }
+        }
+
+        assertEquals(SQLDatabase.SMS_STATUS_FAILED, database.getSmsStatus(id));
+        assertEquals(30_000, SmsDispatcher.backoffMillis(1));
+        assertEquals(60_000, SmsDispatcher.backoffMillis(2));
+    }
+
+    @Test
+    public void reports_trackSentAndDelivered() {
+        dispatcher.enqueue(PHONE, "Event: Lunch");
+        dispatcher.drain();
+        long id = gateway.ids.get(0);
+        assertEquals(SQLDatabase.SMS_STATUS_SENDING, database.getSmsStatus(id));
+
+        dispatcher.onSent(id, true, null);
+        assertEquals(SQLDatabase.SMS_STATUS_SENT, database.getSmsStatus(id));
+        dispatcher.onDelivered(id);
+        assertEquals(SQLDatabase.SMS_STATUS_DELIVERED, database.getSmsStatus(id));
+        assertEquals(-1, dispatcher.drain());
+    }
+
+    @Test
+    public void failedSentReport_isRetried() {
+        dispatcher.enqueue(PHONE, "Event: Concert");
+        dispatcher.drain();
+        long id = gateway.ids.get(0);
+
+        dispatcher.onSent(id, false, "Radio off");
+        assertEquals(SQLDatabase.SMS_STATUS_PENDING, database.getSmsStatus(id));
+
+        now += SmsDispatcher.backoffMillis(1);
+        dispatcher.drain();
+        assertEquals(2, gateway.attempts);
+    }
+
+    @Test
+    public void multipartMessage_isSentOnlyWhenEveryPartReportsSent() {
+        dispatcher.enqueue(PHONE, "Digest");
+        dispatcher.drain();
+        long id = gateway.ids.get(0);
+
+        dispatcher.onSent(id, 0, 3, true, null);
+        dispatcher.onSent(id, 2, 3, true, null);
+        assertEquals(SQLDatabase.SMS_STATUS_SENDING, database.getSmsStatus(id));
+
+        dispatcher.onSent(id, 1, 3, true, null);
+        assertEquals(SQLDatabase.SMS_STATUS_SENT, database.getSmsStatus(id));
+    }
+
+    @Test
+    public void multipartMessage_isRetriedOnceWhenAnyPartFails() {
+        dispatcher.enqueue(PHONE, "Digest");
+        dispatcher.drain();
+        long id = gateway.ids.get(0);
+
+        dispatcher.onSent(id, 0, 3, true, null);
+        dispatcher.onSent(id, 1, 3, false, "Radio off");
+        dispatcher.onSent(id, 2, 3, false, "Radio off");
+        assertEquals(SQLDatabase.SMS_STATUS_PENDING, database.getSmsStatus(id));
+
+        // The second failure of the same attempt did not push the retry further out
+        now += SmsDispatcher.backoffMillis(1);
+        dispatcher.drain();
+        assertEquals(2, gateway.attempts);
+
+        // The retry sends every part again, so the part that got through before must report again
+        dispatcher.onSent(id, 1, 3, true, null);
+        dispatcher.onSent(id, 2, 3, true, null);
+        assertEquals(SQLDatabase.SMS_STATUS_SENDING, database.getSmsStatus(id));
+        dispatcher.onSent(id, 0, 3, true, null);
+        assertEquals(SQLDatabase.SMS_STATUS_SENT, database.getSmsStatus(id));
+    }
+
+    /**
+     * Records every message handed to it, optionally failing each one.
+     */
+    private static class FakeGateway implements SmsGateway {
+        final List<String> sent = new ArrayList<>();
+        final List<Long> ids = new ArrayList<>();
+        boolean failing;
+        int attempts;
+
+        @Override
+        public void send(long messageId, String phoneNumber, String message) throws Exception {
+            attempts++;
+            ids.add(messageId);
+            if (failing) throw new IllegalStateException("No service");
+            sent.add(message);
+        }
+    }
+}
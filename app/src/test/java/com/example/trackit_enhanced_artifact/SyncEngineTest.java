@@ -0,0 +1,268 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local tests for syncing events between two devices through an in-process fake server,
+ * each device with its own real SQLite database through Robolectric.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SyncEngineTest {
+
+    private static final String ACCOUNT = "alice";
+    private static final int USER_ID = 1;
+    private static final String SECOND_DEVICE_DB = "device-b.db";
+
+    private Context context;
+    private FakeSyncServer server;
+    private SQLDatabase phoneDb;
+    private SQLDatabase tabletDb;
+    private SyncEngine phone;
+    private SyncEngine tablet;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        server = new FakeSyncServer();
+        phoneDb = SQLDatabase.getInstance(context);
+        tabletDb = new SQLDatabase(context, SECOND_DEVICE_DB);
+        phone = new SyncEngine(phoneDb, server, "phone");
+        tablet = new SyncEngine(tabletDb, server, "tablet");
+    }
+
+    @After
+    public void tearDown() {
+        SQLDatabase.resetInstance();
+        tabletDb.close();
+        context.deleteDatabase(SECOND_DEVICE_DB);
+    }
+
+    @Test
+    public void sync_copiesInsertsEditsAndDeletesToAnotherDevice() throws IOException {
+        long dentist = phoneDb.insertEvent("Dentist", "Checkup", EventTime.toEpochMinute(2030, 1, 3, 9, 0), USER_ID);
+        long gym = phoneDb.insertEvent("Gym", "", EventTime.toEpochMinute(2030, 1, 4, 7, 0), USER_ID);
+        phoneDb.insertEvent("Lunch", "", EventTime.toEpochMinute(2030, 1, 5, 12, 0), USER_ID);
+
+        assertEquals(3, phone.sync(USER_ID, ACCOUNT).getPushedCount());
+        SyncEngine.Result first = tablet.sync(USER_ID, ACCOUNT);
+        assertEquals(3, first.getSaved().size());
+        assertEquals(rows(phoneDb), rows(tabletDb));
+
+        phoneDb.updateEvent((int) dentist, "Dentist", "Cleaning", EventTime.toEpochMinute(2030, 1, 3, 10, 0));
+        phoneDb.deleteEvent((int) gym);
+        phone.sync(USER_ID, ACCOUNT);
+        SyncEngine.Result second = tablet.sync(USER_ID, ACCOUNT);
+
+        assertEquals(1, second.getSaved().size());
+        assertEquals(1, second.getDeletedIds().size());
+        assertEquals(rows(phoneDb), rows(tabletDb));
+        assertEquals("Cleaning", tabletDb.getEventDescription(second.getSaved().get(0).getId()));
+
+        // What the tablet pulled is already on the server, so neither device sends it again
+        assertEquals(0, tablet.sync(USER_ID, ACCOUNT).getPushedCount());
+        assertEquals(0, phone.sync(USER_ID, ACCOUNT).getPulledCount());
+    }
+
+    @Test
+    public void conflict_lastWriterWinsOnBothDevices() throws Exception {
+        long phoneId = phoneDb.insertEvent("Review", "Q3", EventTime.toEpochMinute(2030, 2, 1, 9, 0), USER_ID);
+        phone.sync(USER_ID, ACCOUNT);
+        int tabletId = tablet.sync(USER_ID, ACCOUNT).getSaved().get(0).getId();
+
+        // Both devices edit offline; the tablet edits last
+        phoneDb.updateEvent((int) phoneId, "Review", "Moved to 10", EventTime.toEpochMinute(2030, 2, 1, 10, 0));
+        Thread.sleep(5);
+        tabletDb.updateEvent(tabletId, "Review", "Moved to 11", EventTime.toEpochMinute(2030, 2, 1, 11, 0));
+
+        // The tablet reaches the server first, then the phone's older edit arrives and loses
+        tablet.sync(USER_ID, ACCOUNT);
+        SyncEngine.Result phoneResult = phone.sync(USER_ID, ACCOUNT);
+        tablet.sync(USER_ID, ACCOUNT);
+
+        assertEquals(1, phoneResult.getSaved().size());
+        assertEquals(rows(tabletDb), rows(phoneDb));
+        assertEquals("Moved to 11", phoneDb.getEventDescription((int) phoneId));
+        assertEquals("Review|Moved to 11|" + EventTime.toEpochMinute(2030, 2, 1, 11, 0), rows(phoneDb).get(0));
+
+        // A delete loses to a later edit as well, so the edited event comes back
+        phoneDb.deleteEvent((int) phoneId);
+        Thread.sleep(5);
+        tabletDb.updateEvent(tabletId, "Review", "Kept", EventTime.toEpochMinute(2030, 2, 1, 11, 0));
+        phone.sync(USER_ID, ACCOUNT);
+        tablet.sync(USER_ID, ACCOUNT);
+        phone.sync(USER_ID, ACCOUNT);
+
+        assertEquals(rows(tabletDb), rows(phoneDb));
+        assertEquals(1, rows(phoneDb).size());
+    }
+
+    @Test
+    public void conflict_sameUpdatedAtConvergesWhicheverDeviceSyncsFirst() throws IOException {
+        for (boolean phoneFirst : new boolean[]{true, false}) {
+            long phoneId = phoneDb.insertEvent("Retro", "", EventTime.toEpochMinute(2030, 4, 1, 9, 0), USER_ID);
+            phone.sync(USER_ID, ACCOUNT);
+            int tabletId = tablet.sync(USER_ID, ACCOUNT).getSaved().get(0).getId();
+
+            // Both devices edit within the same millisecond
+            phoneDb.updateEvent((int) phoneId, "Retro", "From phone", EventTime.toEpochMinute(2030, 4, 1, 10, 0));
+            tabletDb.updateEvent(tabletId, "Retro", "From tablet", EventTime.toEpochMinute(2030, 4, 1, 10, 0));
+            long sameMillis = System.currentTimeMillis() + 60_000;
+            setUpdatedAt(phoneDb, phoneId, sameMillis);
+            setUpdatedAt(tabletDb, tabletId, sameMillis);
+
+            SyncEngine first = phoneFirst ? phone : tablet;
+            SyncEngine second = phoneFirst ? tablet : phone;
+            first.sync(USER_ID, ACCOUNT);
+            second.sync(USER_ID, ACCOUNT);
+            first.sync(USER_ID, ACCOUNT);
+
+            assertEquals("From tablet", phoneDb.getEventDescription((int) phoneId));
+            assertEquals("From tablet", tabletDb.getEventDescription(tabletId));
+            assertEquals("From tablet", server.get(ACCOUNT, uuidOf(phoneId)).getDescription());
+            assertEquals(rows(phoneDb), rows(tabletDb));
+
+            phoneDb.deleteEvent((int) phoneId);
+            phone.sync(USER_ID, ACCOUNT);
+            tablet.sync(USER_ID, ACCOUNT);
+        }
+    }
+
+    @Test
+    public void sync_trafficScalesWithEditsNotCalendarSize() throws IOException {
+        List<Event> calendar = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            calendar.add(new Event(0, "Event " + i, "", EventTime.toEpochMinute(2030, 1, 1, 0, 0) + i * 30L));
+        }
+        long[] ids = phoneDb.insertEvents(calendar, USER_ID).getIds();
+        phone.sync(USER_ID, ACCOUNT);
+        tablet.sync(USER_ID, ACCOUNT);
+        assertEquals(2000, server.pushedRecords);
+        assertEquals(2000, server.pulledRecords);
+        assertTrue(server.largestPayload <= SyncEngine.BATCH_SIZE);
+
+        // Five events edited, one of them three times
+        server.resetCounters();
+        for (int i = 0; i < 5; i++) {
+            phoneDb.updateEvent((int) ids[i * 100], "Edited " + i, "", calendar.get(i * 100).getEpochMinute());
+        }
+        phoneDb.updateEvent((int) ids[0], "Edited again", "", calendar.get(0).getEpochMinute());
+        phoneDb.updateEvent((int) ids[0], "Edited last", "", calendar.get(0).getEpochMinute());
+        phone.sync(USER_ID, ACCOUNT);
+        tablet.sync(USER_ID, ACCOUNT);
+
+        assertEquals(5, server.pushedRecords);
+        assertEquals(5, server.pulledRecords);
+        assertEquals(rows(phoneDb), rows(tabletDb));
+
+        // Nothing changed, nothing sent
+        server.resetCounters();
+        phone.sync(USER_ID, ACCOUNT);
+        tablet.sync(USER_ID, ACCOUNT);
+        assertEquals(0, server.pushedRecords + server.pulledRecords);
+    }
+
+    @Test
+    public void failedSync_resumesWithoutLosingChanges() throws IOException {
+        long id = phoneDb.insertEvent("Flight", "Gate 12", EventTime.toEpochMinute(2030, 6, 1, 23, 59), USER_ID);
+        server.failuresLeft = 1;
+        try {
+            phone.sync(USER_ID, ACCOUNT);
+            throw new AssertionError("The push should have failed");
+        } catch (IOException expected) {
+            // Nothing was marked as pushed
+        }
+        assertNull(server.get(ACCOUNT, uuidOf(id)));
+
+        assertEquals(1, phone.sync(USER_ID, ACCOUNT).getPushedCount());
+        assertEquals(1, tablet.sync(USER_ID, ACCOUNT).getPulledCount());
+        assertEquals(rows(phoneDb), rows(tabletDb));
+    }
+
+    @Test
+    public void sync_compactsTheJournalBehindThePush() throws IOException {
+        long id = phoneDb.insertEvent("Standup", "", EventTime.toEpochMinute(2030, 3, 2, 9, 0), USER_ID);
+        for (int minute = 5; minute <= 15; minute += 5) {
+            phoneDb.updateEvent((int) id, "Standup", "", EventTime.toEpochMinute(2030, 3, 2, 9, minute));
+        }
+        phone.sync(USER_ID, ACCOUNT);
+        assertEquals(1, journalSize(phoneDb));
+
+        // Edits made after the push stay in the journal until they are pushed as well; the
+        // pushed entry before them can go
+        phoneDb.updateEvent((int) id, "Standup", "Moved", EventTime.toEpochMinute(2030, 3, 2, 10, 0));
+        phoneDb.updateEvent((int) id, "Standup", "Moved", EventTime.toEpochMinute(2030, 3, 2, 10, 30));
+        phoneDb.compactJournal(phoneDb.getLatestSequence());
+        assertEquals(2, journalSize(phoneDb));
+
+        phone.sync(USER_ID, ACCOUNT);
+        assertEquals(1, journalSize(phoneDb));
+        assertEquals(EventTime.toEpochMinute(2030, 3, 2, 10, 30),
+                tablet.sync(USER_ID, ACCOUNT).getSaved().get(0).getEpochMinute());
+    }
+
+    @Test
+    public void backoff_doublesUpToAnHour() {
+        assertEquals(30_000, EventSync.backoffMillis(1));
+        assertEquals(60_000, EventSync.backoffMillis(2));
+        assertEquals(60 * 60_000, EventSync.backoffMillis(100));
+    }
+
+    /**
+     * Sets an event's updated_at, and that of its newest journal entry so the push carries it.
+     */
+    private static void setUpdatedAt(SQLDatabase database, long eventId, long updatedAt) {
+        String[] args = {String.valueOf(updatedAt), String.valueOf(eventId)};
+        database.getWritableDatabase().execSQL("UPDATE " + SQLDatabase.TABLE_EVENTS + " SET " +
+                SQLDatabase.COLUMN_EVENT_UPDATED_AT + " = ? WHERE " + SQLDatabase.COLUMN_EVENT_ID + " = ?", args);
+        database.getWritableDatabase().execSQL("UPDATE " + SQLDatabase.TABLE_EVENT_JOURNAL + " SET " +
+                SQLDatabase.COLUMN_EVENT_UPDATED_AT + " = ? WHERE " + SQLDatabase.COLUMN_JOURNAL_SEQUENCE +
+                " = (SELECT MAX(" + SQLDatabase.COLUMN_JOURNAL_SEQUENCE + ") FROM " + SQLDatabase.TABLE_EVENT_JOURNAL +
+                " WHERE " + SQLDatabase.COLUMN_JOURNAL_EVENT_ID + " = ?)", args);
+    }
+
+    private String uuidOf(long eventId) {
+        try (Cursor cursor = phoneDb.getReadableDatabase().rawQuery(
+                "SELECT " + SQLDatabase.COLUMN_EVENT_UUID + " FROM " + SQLDatabase.TABLE_EVENTS + " WHERE " +
+                        SQLDatabase.COLUMN_EVENT_ID + " = ?", new String[]{String.valueOf(eventId)})) {
+            cursor.moveToFirst();
+            return cursor.getString(0);
+        }
+    }
+
+    private static int journalSize(SQLDatabase database) {
+        try (Cursor cursor = database.getChangesSince(0, Integer.MAX_VALUE)) {
+            return cursor.getCount();
+        }
+    }
+
+    /**
+     * A device's events as comparable text; row IDs differ between devices, so they are left out.
+     */
+    private static List<String> rows(SQLDatabase database) {
+        List<String> rows = new ArrayList<>();
+        // The list projection only has the preview; the export one has the full description
+        try (Cursor cursor = database.getUserEventsForExport(USER_ID)) {
+            while (cursor.moveToNext()) {
+                rows.add(cursor.getString(0) + "|" + cursor.getString(1) + "|" + cursor.getLong(2));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.trackit_enhanced_artifact;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic users and events for load tests. The same seed always produces the same
+ * usernames, names, descriptions and times, so timings from different runs are comparable.
+ */
+public class SyntheticData {
+
+    private static final String[] WORDS = {
+            "meeting", "dentist", "standup", "lunch", "review", "birthday", "gym", "flight", "payroll", "concert"
+    };
+
+    // Events are spread over about two years starting here
+    private static final long FIRST_MINUTE = EventTime.toEpochMinute(2030, 1, 1, 0, 0);
+    private static final int SPAN_MINUTES = 2 * 365 * EventTime.MINUTES_PER_DAY;
+
+    private final Random random;
+
+    public SyntheticData(long seed) {
+        random = new Random(seed);
+    }
+
+    public static String username(int index) {
+        return "user" + index;
+    }
+
+    public static String password(int index) {
+        return "password" + index;
+    }
+
+    /**
+     * Returns one event at a random time with a short name and description drawn from a small
+     * vocabulary, so search terms repeat across users the way real calendars do.
+     */
+    public Event nextEvent() {
+        String name = word() + " " + word();
+        String description = word() + " with " + word() + " #" + random.nextInt(10_000);
+        return new Event(0, name, description, nextMinute());
+    }
+
+    public List<Event> nextEvents(int count) {
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(nextEvent());
+        }
+        return events;
+    }
+
+    public long nextMinute() {
+        return FIRST_MINUTE + random.nextInt(SPAN_MINUTES);
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Creates the users and gives each of them eventsPerUser events, inserted in batches.
+     *
+     * @return the generated event IDs, indexed by user index
+     */
+    public long[][] populate(SQLDatabase database, int users, int eventsPerUser) {
+        long[][] eventIds = new long[users][];
+        for (int user = 0; user < users; user++) {
+            if (!database.insertUser(username(user), password(user))) {
+                throw new IllegalStateException("Could not insert " + username(user));
+            }
+            int userId = database.getUserId(username(user));
+            eventIds[user] = database.insertEvents(nextEvents(eventsPerUser), userId).getIds();
+        }
+        return eventIds;
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
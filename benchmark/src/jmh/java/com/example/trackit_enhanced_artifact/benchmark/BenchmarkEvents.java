@@ -0,0 +1,40 @@
+package com.example.trackit_enhanced_artifact.benchmark;
+
+/* BenchmarkEvents.java
+ *
+ * Deterministic event data shared by the benchmarks, so every run and every commit
+ * measures the same inputs.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import com.example.trackit_enhanced_artifact.Event;
+import com.example.trackit_enhanced_artifact.EventTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkEvents {
+
+    // Events are spread over about two years starting here
+    static final long FIRST_MINUTE = EventTime.toEpochMinute(2030, 1, 1, 0, 0);
+    private static final int SPAN_MINUTES = 2 * 365 * EventTime.MINUTES_PER_DAY;
+
+    private BenchmarkEvents() {
+    }
+
+    /**
+     * Returns count events with IDs 1..count at random times, in ID order.
+     */
+    static List<Event> random(int count, long seed) {
+        Random random = new Random(seed);
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long epochMinute = FIRST_MINUTE + random.nextInt(SPAN_MINUTES);
+            events.add(new Event(i + 1, "Event " + i, "Description " + i, epochMinute));
+        }
+        return events;
+    }
+}
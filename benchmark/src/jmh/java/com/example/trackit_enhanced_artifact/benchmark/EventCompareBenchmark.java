@@ -0,0 +1,71 @@
+package com.example.trackit_enhanced_artifact.benchmark;
+
+/* EventCompareBenchmark.java
+ *
+ * Measures Event.compareTo, which now compares one packed sort key, against the
+ * field-by-field comparison it replaced.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import com.example.trackit_enhanced_artifact.Event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventCompareBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private Event[] events;
+
+    @Setup
+    public void setUp() {
+        List<Event> list = BenchmarkEvents.random(COUNT, 1);
+        events = list.toArray(new Event[0]);
+    }
+
+    /**
+     * Compares every event with its neighbour, so branch prediction sees a realistic mix of results.
+     */
+    @Benchmark
+    public int compareTo() {
+        int sum = 0;
+        for (int i = 1; i < events.length; i++) {
+            sum += events[i - 1].compareTo(events[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int legacyCompareTo() {
+        int sum = 0;
+        for (int i = 1; i < events.length; i++) {
+            sum += legacyCompare(events[i - 1], events[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * The comparison Event used before the sort key existed.
+     */
+    private static int legacyCompare(Event a, Event b) {
+        if (a.getYear() != b.getYear()) return a.getYear() - b.getYear();
+        if (a.getMonth() != b.getMonth()) return a.getMonth() - b.getMonth();
+        if (a.getDay() != b.getDay()) return a.getDay() - b.getDay();
+        if (a.getHour() != b.getHour()) return a.getHour() - b.getHour();
+        return a.getMinute() - b.getMinute();
+    }
+}
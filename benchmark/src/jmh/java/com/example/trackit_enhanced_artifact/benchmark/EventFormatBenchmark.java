@@ -0,0 +1,71 @@
+package com.example.trackit_enhanced_artifact.benchmark;
+
+/* EventFormatBenchmark.java
+ *
+ * Measures the date and time text EventAdapter binds for each row: String.format as the adapter
+ * used to call it, the first call to Event's formatters, and the cached text a rebind gets.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import com.example.trackit_enhanced_artifact.Event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventFormatBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private Event[] events;
+
+    @Setup
+    public void setUp() {
+        List<Event> list = BenchmarkEvents.random(COUNT, 5);
+        events = list.toArray(new Event[0]);
+    }
+
+    @Benchmark
+    public void stringFormat(Blackhole blackhole) {
+        for (Event event : events) {
+            blackhole.consume(String.format(Locale.US, "%04d-%02d-%02d",
+                    event.getYear(), event.getMonth(), event.getDay()));
+            blackhole.consume(String.format(Locale.US, "%02d:%02d", event.getHour(), event.getMinute()));
+        }
+    }
+
+    /**
+     * Setting a field to its current value clears the cached text, so each call formats again.
+     */
+    @Benchmark
+    public void firstFormat(Blackhole blackhole) {
+        for (Event event : events) {
+            event.setDay(event.getDay());
+            event.setMinute(event.getMinute());
+            blackhole.consume(event.getFormattedDate());
+            blackhole.consume(event.getFormattedTime());
+        }
+    }
+
+    @Benchmark
+    public void cachedFormat(Blackhole blackhole) {
+        for (Event event : events) {
+            blackhole.consume(event.getFormattedDate());
+            blackhole.consume(event.getFormattedTime());
+        }
+    }
+}
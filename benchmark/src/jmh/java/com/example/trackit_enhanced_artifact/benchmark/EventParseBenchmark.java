@@ -0,0 +1,85 @@
+package com.example.trackit_enhanced_artifact.benchmark;
+
+/* EventParseBenchmark.java
+ *
+ * Measures turning text and stored rows into events: EventBuilder.fromInput for the add/edit
+ * dialog, DateTimeCodec against the split-and-parseInt parsing getUserEvents did for every row
+ * before the epoch-minute column, and decoding that column as rows are read today.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import com.example.trackit_enhanced_artifact.DateTimeCodec;
+import com.example.trackit_enhanced_artifact.Event;
+import com.example.trackit_enhanced_artifact.EventBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventParseBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private String[] dates;
+    private String[] times;
+    private long[] epochMinutes;
+
+    @Setup
+    public void setUp() {
+        List<Event> events = BenchmarkEvents.random(COUNT, 2);
+        dates = new String[COUNT];
+        times = new String[COUNT];
+        epochMinutes = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            Event event = events.get(i);
+            dates[i] = event.getFormattedDate();
+            times[i] = event.getFormattedTime();
+            epochMinutes[i] = event.getEpochMinute();
+        }
+    }
+
+    @Benchmark
+    public void fromInput(Blackhole blackhole) {
+        for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(EventBuilder.fromInput("Event", "Description", dates[i], times[i]));
+        }
+    }
+
+    @Benchmark
+    public void parseTextColumns(Blackhole blackhole) {
+        for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(new Event(i, "Event", "Description", DateTimeCodec.parse(dates[i], times[i])));
+        }
+    }
+
+    @Benchmark
+    public void legacyParseTextColumns(Blackhole blackhole) {
+        for (int i = 0; i < COUNT; i++) {
+            String[] dateParts = dates[i].split("-");
+            String[] timeParts = times[i].split(":");
+            blackhole.consume(new Event(i, "Event", "Description",
+                    Integer.parseInt(dateParts[0]), Integer.parseInt(dateParts[1]), Integer.parseInt(dateParts[2]),
+                    Integer.parseInt(timeParts[0]), Integer.parseInt(timeParts[1])));
+        }
+    }
+
+    @Benchmark
+    public void decodeEpochMinute(Blackhole blackhole) {
+        for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(new Event(i, "Event", "Description", epochMinutes[i]));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.trackit_enhanced_artifact.benchmark;
+
+/* EventSortBenchmark.java
+ *
+ * Measures EventSorter against the recursive merge sort the event list used to run on every
+ * load, and against Collections.sort. Run with -prof gc to see the allocation per sort.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import com.example.trackit_enhanced_artifact.Event;
+import com.example.trackit_enhanced_artifact.EventSorter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventSortBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Event> shuffled;
+    private List<Event> events;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        shuffled = BenchmarkEvents.random(size, 3);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        events = new ArrayList<>(shuffled);
+    }
+
+    @Benchmark
+    public List<Event> eventSorter() {
+        EventSorter.sort(events);
+        return events;
+    }
+
+    @Benchmark
+    public List<Event> collectionsSort() {
+        Collections.sort(events);
+        return events;
+    }
+
+    @Benchmark
+    public List<Event> legacyMergeSort() {
+        return mergeSort(events);
+    }
+
+    /**
+     * The merge sort EventListActivity used before events were loaded in database order.
+     */
+    private static List<Event> mergeSort(List<Event> events) {
+        if (events.size() <= 1) return events;
+
+        int mid = events.size() / 2;
+        List<Event> left = mergeSort(new ArrayList<>(events.subList(0, mid)));
+        List<Event> right = mergeSort(new ArrayList<>(events.subList(mid, events.size())));
+
+        List<Event> result = new ArrayList<>();
+        int i = 0, j = 0;
+        while (i < left.size() && j < right.size()) {
+            if (left.get(i).compareTo(right.get(j)) <= 0) {
+                result.add(left.get(i++));
+            } else {
+                result.add(right.get(j++));
+            }
+        }
+        while (i < left.size()) result.add(left.get(i++));
+        while (j < right.size()) result.add(right.get(j++));
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.trackit_enhanced_artifact.benchmark;
+
+/* UpcomingQueueBenchmark.java
+ *
+ * Measures removing and re-adding one event in the upcoming-event queue, as an edit or delete
+ * does: the IndexedMinHeap finds the event by ID, while PriorityQueue.remove scans the queue.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import com.example.trackit_enhanced_artifact.Event;
+import com.example.trackit_enhanced_artifact.IndexedMinHeap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UpcomingQueueBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Event[] events;
+    private PriorityQueue<Event> queue;
+    private IndexedMinHeap<Event> heap;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Event> list = BenchmarkEvents.random(size, 4);
+        events = list.toArray(new Event[0]);
+        queue = new PriorityQueue<>(list);
+        heap = new IndexedMinHeap<>();
+        for (Event event : events) {
+            heap.put(event.getId(), event.getSortKey(), event);
+        }
+    }
+
+    @Benchmark
+    public boolean priorityQueueRemove() {
+        Event event = nextEvent();
+        boolean removed = queue.remove(event);
+        queue.add(event);
+        return removed;
+    }
+
+    @Benchmark
+    public Event indexedHeapRemove() {
+        Event event = nextEvent();
+        Event removed = heap.remove(event.getId());
+        heap.put(event.getId(), event.getSortKey(), event);
+        return removed;
+    }
+
+    private Event nextEvent() {
+        Event event = events[next];
+        next = next + 1 == events.length ? 0 : next + 1;
+        return event;
+    }
+}
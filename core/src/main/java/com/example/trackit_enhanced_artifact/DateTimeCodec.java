@@ -0,0 +1,234 @@
+package com.example.trackit_enhanced_artifact;
+
+/* DateTimeCodec.java
+ *
+ * The one place event dates and times are turned into text and back. Parsing scans the
+ * characters directly and checks ranges in the same pass, accepting both the padded forms the
+ * app writes (yyyy-MM-dd, HH:mm) and the unpadded ones older versions stored (yyyy-M-d, H:mm).
+ * Formatting always writes the padded forms, into a caller's char[] or StringBuilder.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+public final class DateTimeCodec {
+
+    // Lengths of the padded forms written by the format methods
+    public static final int DATE_LENGTH = 10;
+    public static final int TIME_LENGTH = 5;
+
+    private static final int INVALID = -1;
+
+    private DateTimeCodec() {
+    }
+
+    /**
+     * Parses a date as yyyy-MM-dd or yyyy-M-d, allowing spaces around each number.
+     *
+     * @return the date packed as year * 10000 + month * 100 + day, as {@link EventTime#civilDate} returns
+     * @throws IllegalArgumentException if the text is malformed or names a day that does not exist
+     */
+    public static int parseDate(CharSequence text) {
+        int date = scanDate(text);
+        if (date == INVALID) throw new IllegalArgumentException("Invalid date: " + text);
+        return date;
+    }
+
+    /**
+     * Parses a 24-hour time as HH:mm or H:mm, allowing spaces around each number.
+     *
+     * @return the minute of the day, from 0 to 1439
+     * @throws IllegalArgumentException if the text is malformed or out of range
+     */
+    public static int parseTime(CharSequence text) {
+        int time = scanTime(text);
+        if (time == INVALID) throw new IllegalArgumentException("Invalid time: " + text);
+        return time;
+    }
+
+    /**
+     * Parses a date and a time into an epoch-minute timestamp.
+     *
+     * @throws IllegalArgumentException if either value is malformed
+     */
+    public static long parse(CharSequence date, CharSequence time) {
+        int civil = parseDate(date);
+        int minuteOfDay = parseTime(time);
+        return EventTime.toEpochMinute(civil / 10000, civil / 100 % 100, civil % 100,
+                minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    public static boolean isValidDate(CharSequence text) {
+        return scanDate(text) != INVALID;
+    }
+
+    public static boolean isValidTime(CharSequence text) {
+        return scanTime(text) != INVALID;
+    }
+
+    /**
+     * Writes yyyy-MM-dd at offset.
+     *
+     * @return the offset just past the date
+     */
+    public static int writeDate(char[] chars, int offset, int year, int month, int day) {
+        writeDigits(chars, offset, year, 4);
+        chars[offset + 4] = '-';
+        writeDigits(chars, offset + 5, month, 2);
+        chars[offset + 7] = '-';
+        writeDigits(chars, offset + 8, day, 2);
+        return offset + DATE_LENGTH;
+    }
+
+    /**
+     * Writes HH:mm at offset.
+     *
+     * @return the offset just past the time
+     */
+    public static int writeTime(char[] chars, int offset, int hour, int minute) {
+        writeDigits(chars, offset, hour, 2);
+        chars[offset + 2] = ':';
+        writeDigits(chars, offset + 3, minute, 2);
+        return offset + TIME_LENGTH;
+    }
+
+    public static StringBuilder appendDate(StringBuilder out, int year, int month, int day) {
+        appendDigits(out, year, 4);
+        out.append('-');
+        appendDigits(out, month, 2);
+        out.append('-');
+        appendDigits(out, day, 2);
+        return out;
+    }
+
+    public static StringBuilder appendTime(StringBuilder out, int hour, int minute) {
+        appendDigits(out, hour, 2);
+        out.append(':');
+        appendDigits(out, minute, 2);
+        return out;
+    }
+
+    public static String formatDate(int year, int month, int day) {
+        char[] chars = new char[DATE_LENGTH];
+        writeDate(chars, 0, year, month, day);
+        return new String(chars);
+    }
+
+    public static String formatTime(int hour, int minute) {
+        char[] chars = new char[TIME_LENGTH];
+        writeTime(chars, 0, hour, minute);
+        return new String(chars);
+    }
+
+    private static int scanDate(CharSequence text) {
+        if (text == null) return INVALID;
+
+        long field = readNumber(text, 0, 4);
+        if (field == INVALID) return INVALID;
+        int year = value(field);
+        int pos = expect(text, position(field), '-');
+        if (pos == INVALID) return INVALID;
+
+        field = readNumber(text, pos, 2);
+        if (field == INVALID) return INVALID;
+        int month = value(field);
+        pos = expect(text, position(field), '-');
+        if (pos == INVALID) return INVALID;
+
+        field = readNumber(text, pos, 2);
+        if (field == INVALID || position(field) != text.length()) return INVALID;
+        int day = value(field);
+
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) return INVALID;
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static int scanTime(CharSequence text) {
+        if (text == null) return INVALID;
+
+        long field = readNumber(text, 0, 2);
+        if (field == INVALID) return INVALID;
+        int hour = value(field);
+        int pos = expect(text, position(field), ':');
+        if (pos == INVALID) return INVALID;
+
+        field = readNumber(text, pos, 2);
+        if (field == INVALID || position(field) != text.length()) return INVALID;
+        int minute = value(field);
+
+        if (hour > 23 || minute > 59) return INVALID;
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Reads one to maxDigits digits starting at pos, skipping spaces on either side.
+     *
+     * @return the value in the high 32 bits and the position after it in the low 32, or INVALID
+     */
+    private static long readNumber(CharSequence text, int pos, int maxDigits) {
+        int length = text.length();
+        while (pos < length && text.charAt(pos) == ' ') pos++;
+
+        int value = 0;
+        int digits = 0;
+        while (pos < length && digits < maxDigits) {
+            char c = text.charAt(pos);
+            if (c < '0' || c > '9') break;
+            value = value * 10 + (c - '0');
+            digits++;
+            pos++;
+        }
+        if (digits == 0) return INVALID;
+
+        while (pos < length && text.charAt(pos) == ' ') pos++;
+        return ((long) value << 32) | pos;
+    }
+
+    private static int value(long field) {
+        return (int) (field >>> 32);
+    }
+
+    private static int position(long field) {
+        return (int) field;
+    }
+
+    /**
+     * Returns the position after the separator at pos, or INVALID if it is not there.
+     */
+    private static int expect(CharSequence text, int pos, char separator) {
+        return pos < text.length() && text.charAt(pos) == separator ? pos + 1 : INVALID;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Writes a non-negative value as exactly width zero-padded digits (higher digits are dropped).
+     */
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void appendDigits(StringBuilder out, int value, int width) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+}
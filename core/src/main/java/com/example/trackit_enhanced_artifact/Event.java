@@ -0,0 +1,347 @@
+package com.example.trackit_enhanced_artifact;
+
+/* Event.java
+ *
+ * This class represents an Event object, containing details such as
+ * a unique ID, name, description, and scheduled date/time components.
+ * It is used throughout the TrackIt mobile app for managing event data.
+ *
+ * Author: Collin Lanier
+ * Date: 2025-03-26
+ */
+
+import androidx.annotation.NonNull;
+
+public class Event implements Comparable<Event> {
+
+    // Longest description shown in a list row before it is cut off
+    public static final int PREVIEW_LENGTH = 80;
+
+    // Unique ID for the event (used for database operations)
+    private int id;
+
+    // Event details
+    private String name;
+    private String description;
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+
+    // Chronological position, recomputed by every setter of the fields it depends on:
+    // the epoch minute, and that minute packed above the ID so one long comparison orders events
+    private long epochMinute;
+    private long sortKey;
+
+    // Display text cached for list binding, cleared by the setters of the fields it shows
+    private String formattedDate;
+    private String formattedTime;
+    private String descriptionPreview;
+
+    /**
+     * Constructor to initialize an event with a unique ID.
+     *
+     * @param id          the unique ID of the event
+     * @param name        the name of the event
+     * @param description a brief description of the event
+     * @param year        the year of the event
+     * @param month       the month of the event
+     * @param day         the day of the event
+     * @param hour        the hour of the event
+     * @param minute      the minute of the event
+     */
+    public Event(int id, String name, String description, int year, int month, int day, int hour, int minute) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.hour = hour;
+        this.minute = minute;
+        updateKeys();
+    }
+
+    // Constructor without ID
+    public Event(String name, String description, int year, int month, int day, int hour, int minute) {
+        this.name = name;
+        this.description = description;
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.hour = hour;
+        this.minute = minute;
+        updateKeys();
+    }
+
+    /**
+     * Constructor to initialize an event from a stored epoch-minute timestamp.
+     *
+     * @param id          the unique ID of the event
+     * @param name        the name of the event
+     * @param description a brief description of the event
+     * @param epochMinute the scheduled time as produced by {@link EventTime#toEpochMinute}
+     */
+    public Event(int id, String name, String description, long epochMinute) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        int date = EventTime.civilDate(epochMinute);
+        int minuteOfDay = EventTime.minuteOfDay(epochMinute);
+        this.year = date / 10000;
+        this.month = date / 100 % 100;
+        this.day = date % 100;
+        this.hour = minuteOfDay / 60;
+        this.minute = minuteOfDay % 60;
+        this.epochMinute = epochMinute;
+        this.sortKey = sortKey(epochMinute, id);
+    }
+
+    /**
+     * Constructor for a list row read with only the stored preview of its description.
+     * {@link #getDescription()} returns null until the full text is loaded.
+     *
+     * @param id                 the unique ID of the event
+     * @param name               the name of the event
+     * @param description        the full description, or null if it was not loaded
+     * @param descriptionPreview the stored preview, see {@link #previewOf(String)}
+     * @param epochMinute        the scheduled time as produced by {@link EventTime#toEpochMinute}
+     */
+    public Event(int id, String name, String description, String descriptionPreview, long epochMinute) {
+        this(id, name, description, epochMinute);
+        this.descriptionPreview = descriptionPreview;
+    }
+
+    /**
+     * Compares the event to another to determine correct order (chronological).
+     * Events at the same minute are ordered by ID, matching the database's ORDER BY ts, id,
+     * so the order is total and the same in the list, the cache and the upcoming-event heap.
+     *
+     * @param other the object to be compared.
+     * @return A negative number if the event comes before the other,
+     *         zero if both are the same event at the same time,
+     *         or a positive number if the event comes after the other
+     */
+    @Override
+    public int compareTo(Event other) {
+        return Long.compare(sortKey, other.sortKey);
+    }
+
+    /**
+     * Packs a timestamp and an ID into one long whose natural order is (epochMinute, id).
+     * The ID takes the low 32 bits as an unsigned value, so any int ID keeps its order among
+     * events at the same minute, and signed comparison of the keys orders the minutes.
+     */
+    public static long sortKey(long epochMinute, int id) {
+        return (epochMinute << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Shortens a description to what a list row shows: its first line, cut to
+     * {@link #PREVIEW_LENGTH} characters with an ellipsis if anything was left out.
+     * The database stores this next to the full text so lists never have to load the latter.
+     */
+    public static String previewOf(String description) {
+        if (description == null) return null;
+
+        int end = Math.min(description.length(), PREVIEW_LENGTH);
+        int newline = description.indexOf('\n');
+        if (newline >= 0 && newline < end) end = newline;
+        if (end == description.length()) return description;
+
+        // Never split a surrogate pair
+        if (end > 0 && Character.isHighSurrogate(description.charAt(end - 1))) end--;
+        return description.substring(0, end).trim() + "\u2026";
+    }
+
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the full description, or null for an event read for a list without it.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the description as shown in a list row, cached like {@link #getFormattedDate()}.
+     */
+    public String getDescriptionPreview() {
+        String text = descriptionPreview;
+        if (text == null && description != null) {
+            text = previewOf(description);
+            descriptionPreview = text;
+        }
+        return text;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public int getDay() {
+        return day;
+    }
+
+    public int getHour() {
+        return hour;
+    }
+
+    public int getMinute() {
+        return minute;
+    }
+
+    /**
+     * Returns the date as yyyy-MM-dd. The text is built once and reused until the date changes,
+     * so binding the same event repeatedly allocates nothing.
+     */
+    public String getFormattedDate() {
+        String text = formattedDate;
+        if (text == null) {
+            text = DateTimeCodec.formatDate(year, month, day);
+            formattedDate = text;
+        }
+        return text;
+    }
+
+    /**
+     * Returns the time as HH:mm, cached like {@link #getFormattedDate()}.
+     */
+    public String getFormattedTime() {
+        String text = formattedTime;
+        if (text == null) {
+            text = DateTimeCodec.formatTime(hour, minute);
+            formattedTime = text;
+        }
+        return text;
+    }
+
+    /**
+     * Returns the scheduled time as the epoch-minute timestamp stored in the database.
+     */
+    public long getEpochMinute() {
+        return epochMinute;
+    }
+
+    /**
+     * Returns the chronological sort key, see {@link #sortKey(long, int)}.
+     */
+    public long getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * Recomputes the epoch minute and sort key after the date, time or ID changed.
+     */
+    private void updateKeys() {
+        epochMinute = EventTime.toEpochMinute(year, month, day, hour, minute);
+        sortKey = sortKey(epochMinute, id);
+    }
+
+    // Setters
+    public void setId(int id) {
+        this.id = id;
+        sortKey = sortKey(epochMinute, id);
+    }
+
+    public void setName(String name) {
+        if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Event name cannot be empty.");
+        this.name = name;
+    }
+
+    public void setDescription(String description) {
+        if (description == null) throw new IllegalArgumentException("Description cannot be null.");
+        this.description = description;
+        descriptionPreview = null;
+    }
+
+    public void setYear(int year) {
+        if (year < 2000) throw new IllegalArgumentException("Year is invalid.");
+        this.year = year;
+        formattedDate = null;
+        updateKeys();
+    }
+
+    public void setMonth(int month) {
+        if (month < 1 || month > 12) throw new IllegalArgumentException("Month must be between 1 and 12.");
+        this.month = month;
+        formattedDate = null;
+        updateKeys();
+    }
+
+    public void setDay(int day) {
+        if (day < 1 || day > 31) throw new IllegalArgumentException("Day must be between 1 and 31.");
+        this.day = day;
+        formattedDate = null;
+        updateKeys();
+    }
+
+    public void setHour(int hour) {
+        if (hour < 0 || hour > 23) throw new IllegalArgumentException("Hour must be between 0 and 23.");
+        this.hour = hour;
+        formattedTime = null;
+        updateKeys();
+    }
+
+    public void setMinute(int minute) {
+        if (minute < 0 || minute > 59) throw new IllegalArgumentException("Minute must be between 0 and 59.");
+        this.minute = minute;
+        formattedTime = null;
+        updateKeys();
+    }
+
+    @NonNull
+    @Override
+    /*
+      Returns a string representation of the Event object.
+      Used for logging and showing all event details in a readable format.
+
+      @return a formatted string containing the event’s information
+     */
+    public String toString() {
+        StringBuilder builder = new StringBuilder(64)
+                .append("Event{id=").append(id)
+                .append(", name='").append(name).append('\'')
+                .append(", description='").append(description).append('\'')
+                .append(", date=");
+        DateTimeCodec.appendDate(builder, year, month, day).append(", time=");
+        return DateTimeCodec.appendTime(builder, hour, minute).append('}').toString();
+    }
+
+    /**
+     * Compares this Event with another object for equality.
+     * Two events are considered equal if they have the same unique ID.
+     *
+     * @param obj the object to compare with
+     * @return true if the other object is an Event with the same ID, false if not
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Event)) return false;
+        Event other = (Event) obj;
+        return this.id == other.id;
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}, so events can be used as
+     * keys in hash-based collections.
+     */
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+}
\ No newline at end of file
@@ -78,36 +78,42 @@ public class EventBuilder {
 
     /**
      * Helper method to create an Event from raw input.
+     *
+     * @param date yyyy-MM-dd or yyyy-M-d
+     * @param time HH:mm or H:mm
+     * @throws IllegalArgumentException if the date or time is malformed or out of range
      */
     public static Event fromInput(String name, String description, String date, String time) {
-        String[] dateParts = date.split("-");
-        String[] timeParts = time.split(":");
+        int civilDate = DateTimeCodec.parseDate(date);
+        int minuteOfDay = DateTimeCodec.parseTime(time);
 
         return new EventBuilder()
                 .setName(name)
                 .setDescription(description)
-                .setYear(Integer.parseInt(dateParts[0]))
-                .setMonth(Integer.parseInt(dateParts[1]))
-                .setDay(Integer.parseInt(dateParts[2]))
-                .setHour(Integer.parseInt(timeParts[0]))
-                .setMinute(Integer.parseInt(timeParts[1]))
+                .setYear(civilDate / 10000)
+                .setMonth(civilDate / 100 % 100)
+                .setDay(civilDate % 100)
+                .setHour(minuteOfDay / 60)
+                .setMinute(minuteOfDay % 60)
                 .build();
     }
 
     /**
      * Helper method to update an existing Event object with new input.
+     *
+     * @throws IllegalArgumentException if the date or time is malformed or out of range
      */
     public static void updateEventFromInput(Event event, String name, String description, String date, String time) {
+        // Parse both before changing anything, so bad input leaves the event untouched
+        int civilDate = DateTimeCodec.parseDate(date);
+        int minuteOfDay = DateTimeCodec.parseTime(time);
+
         event.setName(name);
         event.setDescription(description);
-
-        String[] dateParts = date.split("-");
-        String[] timeParts = time.split(":");
-
-        event.setYear(Integer.parseInt(dateParts[0]));
-        event.setMonth(Integer.parseInt(dateParts[1]));
-        event.setDay(Integer.parseInt(dateParts[2]));
-        event.setHour(Integer.parseInt(timeParts[0]));
-        event.setMinute(Integer.parseInt(timeParts[1]));
+        event.setYear(civilDate / 10000);
+        event.setMonth(civilDate / 100 % 100);
+        event.setDay(civilDate % 100);
+        event.setHour(minuteOfDay / 60);
+        event.setMinute(minuteOfDay % 60);
     }
 }
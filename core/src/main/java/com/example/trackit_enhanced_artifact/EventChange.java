@@ -0,0 +1,70 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventChange.java
+ *
+ * One entry of the event change journal: what happened to which event, and the event as it was
+ * right after the change. Entries are full snapshots, so a reader applies each one on its own:
+ * INSERT and UPDATE both mean "the event now looks like this" and DELETE means "the event is
+ * gone". Applying entries in sequence order from any starting point reaches the current state.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+public final class EventChange {
+
+    // Operation codes, as stored in the journal
+    public static final int INSERT = 1;
+    public static final int UPDATE = 2;
+    public static final int DELETE = 3;
+
+    private final long sequence;
+    private final int operation;
+    private final int eventId;
+    private final int userId;
+    private final Event event;
+
+    /**
+     * @param event the event after the change, or null for a DELETE
+     */
+    public EventChange(long sequence, int operation, int eventId, int userId, Event event) {
+        if (operation < INSERT || operation > DELETE) {
+            throw new IllegalArgumentException("Unknown journal operation " + operation);
+        }
+        this.sequence = sequence;
+        this.operation = operation;
+        this.eventId = eventId;
+        this.userId = userId;
+        this.event = event;
+    }
+
+    /**
+     * Position in the journal. Later changes always have larger sequences.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getOperation() {
+        return operation;
+    }
+
+    public int getEventId() {
+        return eventId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * The event after the change, or null for a DELETE.
+     */
+    public Event getEvent() {
+        return event;
+    }
+
+    public boolean isDelete() {
+        return operation == DELETE;
+    }
+}
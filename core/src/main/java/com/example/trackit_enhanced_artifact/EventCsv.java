@@ -0,0 +1,231 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventCsv.java
+ *
+ * Streams events to and from CSV, one row at a time, so an export or import of any size holds
+ * only the current row. Rows are name,description,date,time with the date and time written by
+ * DateTimeCodec, so a file opens cleanly in a spreadsheet and reads back exactly. Fields are
+ * quoted as RFC 4180 describes, which lets descriptions carry commas, quotes and line breaks.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public final class EventCsv {
+
+    public static final String HEADER = "name,description,date,time";
+
+    private static final int FIELD_COUNT = 4;
+
+    private EventCsv() {
+    }
+
+    /**
+     * Writes the header on creation and then one line per event. Nothing is buffered here, so
+     * wrap the target in a BufferedWriter.
+     */
+    public static final class Writer {
+        private final java.io.Writer out;
+
+        // Date and time of the current row, reused for every row
+        private final char[] dateTime = new char[DateTimeCodec.DATE_LENGTH + DateTimeCodec.TIME_LENGTH];
+
+        public Writer(java.io.Writer out) throws IOException {
+            this.out = out;
+            out.write(HEADER);
+            out.write("\r\n");
+        }
+
+        /**
+         * Writes one row.
+         *
+         * @param description the description, or null to leave the field empty
+         */
+        public void write(String name, String description, long epochMinute) throws IOException {
+            int date = EventTime.civilDate(epochMinute);
+            int minuteOfDay = EventTime.minuteOfDay(epochMinute);
+            int end = DateTimeCodec.writeDate(dateTime, 0, date / 10000, date / 100 % 100, date % 100);
+            DateTimeCodec.writeTime(dateTime, end, minuteOfDay / 60, minuteOfDay % 60);
+
+            writeField(name);
+            out.write(',');
+            writeField(description != null ? description : "");
+            out.write(',');
+            out.write(dateTime, 0, DateTimeCodec.DATE_LENGTH);
+            out.write(',');
+            out.write(dateTime, DateTimeCodec.DATE_LENGTH, DateTimeCodec.TIME_LENGTH);
+            out.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (!needsQuotes(value)) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            int from = 0;
+            for (int quote = value.indexOf('"'); quote >= 0; quote = value.indexOf('"', quote + 1)) {
+                out.write(value, from, quote + 1 - from);
+                out.write('"');
+                from = quote + 1;
+            }
+            out.write(value, from, value.length() - from);
+            out.write('"');
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reads rows back as events through its own fixed-size buffer. A row with the wrong number
+     * of fields or an invalid value is reported by {@link #next()} without losing the rows after
+     * it; text that is not CSV at all ends the read with an IOException.
+     */
+    public static final class Reader implements Closeable {
+        private static final int END = -1;
+
+        private final java.io.Reader in;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+
+        private final StringBuilder field = new StringBuilder(64);
+        private final String[] fields = new String[FIELD_COUNT];
+        private int fieldCount;
+        private int line = 1;
+        private int recordLine;
+
+        /**
+         * Reads and checks the header line.
+         *
+         * @throws IOException if the input does not start with {@link #HEADER}
+         */
+        public Reader(java.io.Reader in) throws IOException {
+            this.in = in;
+            // A byte order mark is written by some spreadsheet exports
+            if (peek() == '\uFEFF') position++;
+            if (!readRecord() || fieldCount != FIELD_COUNT || !HEADER.equals(String.join(",", fields))) {
+                throw new IOException("Not an event CSV file: expected header " + HEADER);
+            }
+        }
+
+        /**
+         * Reads the next row.
+         *
+         * @return the event, with no ID yet, or null at the end of the input
+         * @throws IllegalArgumentException if the row is malformed; the reader moves past it
+         * @throws IOException              if the input cannot be read or a quoted field never ends
+         */
+        public Event next() throws IOException {
+            if (!readRecord()) return null;
+            if (fieldCount != FIELD_COUNT) {
+                throw new IllegalArgumentException("Line " + recordLine + ": expected " + FIELD_COUNT
+                        + " fields but found " + fieldCount);
+            }
+            try {
+                return EventBuilder.fromInput(fields[0], fields[1], fields[2], fields[3]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + recordLine + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Line of the input where the last row read started, for error messages.
+         */
+        public int getLineNumber() {
+            return recordLine;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        /**
+         * Reads one record into fields, skipping blank lines. Fields past FIELD_COUNT are only counted.
+         *
+         * @return false at the end of the input
+         */
+        private boolean readRecord() throws IOException {
+            while (peek() == '\r' || peek() == '\n') {
+                endOfLine();
+            }
+            if (peek() == END) return false;
+
+            recordLine = line;
+            fieldCount = 0;
+            while (true) {
+                field.setLength(0);
+                if (peek() == '"') {
+                    position++;
+                    readQuoted();
+                } else {
+                    for (int c = peek(); c != ',' && c != '\r' && c != '\n' && c != END; c = peek()) {
+                        field.append((char) c);
+                        position++;
+                    }
+                }
+                if (fieldCount < FIELD_COUNT) fields[fieldCount] = field.toString();
+                fieldCount++;
+
+                int c = peek();
+                if (c == ',') {
+                    position++;
+                } else if (c == '\r' || c == '\n' || c == END) {
+                    if (c != END) endOfLine();
+                    return true;
+                } else {
+                    throw new IOException("Line " + line + ": unexpected text after a quoted field");
+                }
+            }
+        }
+
+        /**
+         * Reads a quoted field up to its closing quote, which is consumed.
+         */
+        private void readQuoted() throws IOException {
+            while (true) {
+                int c = peek();
+                if (c == END) throw new IOException("Line " + recordLine + ": quoted field never ends");
+                position++;
+                if (c == '"') {
+                    if (peek() != '"') return;
+                    position++;
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            }
+        }
+
+        /**
+         * Consumes one \n, \r or \r\n.
+         */
+        private void endOfLine() throws IOException {
+            if (peek() == '\r') position++;
+            if (peek() == '\n') position++;
+            line++;
+        }
+
+        private int peek() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return END;
+                }
+            }
+            return buffer[position];
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventSearch.java
+ *
+ * Helpers for full-text event search. Turns what the user typed into an FTS4 prefix query
+ * and scores each match from SQLite's matchinfo() so the best results can be listed first.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+
+public final class EventSearch {
+
+    // A hit in the name counts for more than the same hit in the description
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private EventSearch() {
+    }
+
+    /**
+     * Builds an FTS4 MATCH expression in which every word must match as a prefix,
+     * so "team mee" finds "Team meeting". Punctuation is dropped and words are lower-cased
+     * so nothing the user types can be read as an FTS operator.
+     *
+     * @return the MATCH expression, or null if the text contains no searchable words
+     */
+    public static String toMatchQuery(String text) {
+        if (text == null) return null;
+
+        StringBuilder query = new StringBuilder();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i > start) {
+                if (query.length() > 0) query.append(' ');
+                query.append(text.substring(start, i).toLowerCase(Locale.ROOT)).append('*');
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    /**
+     * Scores one row from its matchinfo('pcx') blob: for every query word and column, the
+     * row's hits divided by the hits across all rows, weighted by column. Words that are rare
+     * overall therefore count for more than common ones.
+     */
+    public static double score(byte[] matchInfo) {
+        // matchinfo is an array of 32-bit unsigned integers in the device's byte order
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phrases = buffer.getInt(0);
+        int columns = buffer.getInt(4);
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int offset = 4 * (2 + 3 * (phrase * columns + column));
+                int hitsInRow = buffer.getInt(offset);
+                int hitsInAllRows = buffer.getInt(offset + 4);
+                if (hitsInRow > 0) {
+                    double weight = column == 0 ? NAME_WEIGHT : DESCRIPTION_WEIGHT;
+                    score += weight * hitsInRow / hitsInAllRows;
+                }
+            }
+        }
+        return score;
+    }
+}
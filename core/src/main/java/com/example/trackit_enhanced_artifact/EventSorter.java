@@ -0,0 +1,208 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventSorter.java
+ *
+ * In-place sorting of events by precomputed primitive keys. Instead of comparing Event objects,
+ * the keys are copied once into a long[] and sorted together with an int[] of the positions they
+ * came from, so a sort allocates two arrays no matter how deep it recurses. Large inputs are
+ * partitioned across the common fork/join pool.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class EventSorter {
+
+    // Below this many elements insertion sort beats partitioning
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    // Inputs at least this large are sorted in parallel
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // Partitions smaller than this are finished by a single worker
+    private static final int PARALLEL_GRAIN = 1 << 13;
+
+    private EventSorter() {
+    }
+
+    /**
+     * Sorts events chronologically in place, in the order of {@link Event#getSortKey()}.
+     *
+     * @param events a list supporting {@link List#set}
+     */
+    public static void sort(List<Event> events) {
+        int size = events.size();
+        if (size < 2) return;
+
+        long[] keys = new long[size];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = events.get(i).getSortKey();
+            order[i] = i;
+        }
+        sortIndices(keys, order);
+
+        Event[] snapshot = events.toArray(new Event[0]);
+        for (int i = 0; i < size; i++) {
+            events.set(i, snapshot[order[i]]);
+        }
+    }
+
+    /**
+     * Sorts keys ascending and applies the same moves to order, so afterwards order[i] holds
+     * the position keys[i] came from. Equal keys are ordered by their order value, which makes
+     * the sort stable when order starts out as 0, 1, 2, ...
+     *
+     * @param keys  the keys to sort
+     * @param order the values carried along with the keys, usually their original positions
+     */
+    public static void sortIndices(long[] keys, int[] order) {
+        if (keys.length != order.length) {
+            throw new IllegalArgumentException("keys and order must have the same length");
+        }
+        sortIndices(keys, order, keys.length >= PARALLEL_THRESHOLD);
+    }
+
+    static void sortIndices(long[] keys, int[] order, boolean parallel) {
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(keys.length));
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new SortTask(keys, order, 0, keys.length, depthLimit));
+        } else {
+            introSort(keys, order, 0, keys.length, depthLimit);
+        }
+    }
+
+    /**
+     * Quicksort on [from, to) that recurses into the smaller side so the stack stays
+     * logarithmic, and falls back to heapsort if partitioning keeps going badly.
+     */
+    private static void introSort(long[] keys, int[] order, int from, int to, int depthLimit) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(keys, order, from, to);
+                return;
+            }
+            int pivot = partition(keys, order, from, to);
+            if (pivot - from < to - pivot - 1) {
+                introSort(keys, order, from, pivot, depthLimit);
+                from = pivot + 1;
+            } else {
+                introSort(keys, order, pivot + 1, to, depthLimit);
+                to = pivot;
+            }
+        }
+        insertionSort(keys, order, from, to);
+    }
+
+    /**
+     * Partitions [from, to) around the median of its first, middle and last elements.
+     *
+     * @return the pivot's final position; everything before it is smaller, everything after larger
+     */
+    private static int partition(long[] keys, int[] order, int from, int to) {
+        int last = to - 1;
+        int mid = (from + last) >>> 1;
+        if (less(keys, order, mid, from)) swap(keys, order, mid, from);
+        if (less(keys, order, last, from)) swap(keys, order, last, from);
+        if (less(keys, order, mid, last)) swap(keys, order, mid, last);
+        // The median is now at last
+
+        long pivotKey = keys[last];
+        int pivotOrder = order[last];
+        int store = from;
+        for (int i = from; i < last; i++) {
+            if (keys[i] < pivotKey || (keys[i] == pivotKey && order[i] < pivotOrder)) {
+                swap(keys, order, i, store++);
+            }
+        }
+        swap(keys, order, store, last);
+        return store;
+    }
+
+    private static void insertionSort(long[] keys, int[] order, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = keys[i];
+            int value = order[i];
+            int j = i - 1;
+            while (j >= from && (keys[j] > key || (keys[j] == key && order[j] > value))) {
+                keys[j + 1] = keys[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            order[j + 1] = value;
+        }
+    }
+
+    private static void heapSort(long[] keys, int[] order, int from, int to) {
+        int size = to - from;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(keys, order, from, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(keys, order, from, from + end);
+            siftDown(keys, order, from, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] order, int base, int node, int size) {
+        while (true) {
+            int child = 2 * node + 1;
+            if (child >= size) return;
+            if (child + 1 < size && less(keys, order, base + child, base + child + 1)) child++;
+            if (!less(keys, order, base + node, base + child)) return;
+            swap(keys, order, base + node, base + child);
+            node = child;
+        }
+    }
+
+    private static boolean less(long[] keys, int[] order, int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && order[a] < order[b]);
+    }
+
+    private static void swap(long[] keys, int[] order, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int value = order[a];
+        order[a] = order[b];
+        order[b] = value;
+    }
+
+    /**
+     * Partitions on the calling worker and sorts the two sides in parallel until they are
+     * small enough for one thread.
+     */
+    private static final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] keys;
+        private final int[] order;
+        private final int from;
+        private final int to;
+        private final int depthLimit;
+
+        SortTask(long[] keys, int[] order, int from, int to, int depthLimit) {
+            this.keys = keys;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN || depthLimit == 0) {
+                introSort(keys, order, from, to, depthLimit);
+                return;
+            }
+            int pivot = partition(keys, order, from, to);
+            invokeAll(new SortTask(keys, order, from, pivot, depthLimit - 1),
+                    new SortTask(keys, order, pivot + 1, to, depthLimit - 1));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.trackit_enhanced_artifact;
+
+/* EventTime.java
+ *
+ * Converts between calendar fields and the epoch-minute timestamps stored in the events table.
+ * An epoch minute counts wall-clock minutes since 1970-01-01 00:00, so timestamps sort
+ * chronologically inside SQLite and decode back to exactly the date and time the user entered.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import java.util.Calendar;
+
+public final class EventTime {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    // 1970-01-01 was a Thursday, three days after the Monday that starts its week
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+
+    private EventTime() {
+        // Static helpers only
+    }
+
+    /**
+     * Packs calendar fields into an epoch-minute timestamp.
+     *
+     * @param year   the year
+     * @param month  the month (1-12)
+     * @param day    the day of the month (1-31)
+     * @param hour   the hour (0-23)
+     * @param minute the minute (0-59)
+     * @return wall-clock minutes since 1970-01-01 00:00
+     */
+    public static long toEpochMinute(int year, int month, int day, int hour, int minute) {
+        return daysFromCivil(year, month, day) * MINUTES_PER_DAY + hour * 60L + minute;
+    }
+
+    /**
+     * Returns the calendar date of a timestamp packed as yyyyMMdd (for example 20250327).
+     */
+    public static int civilDate(long epochMinute) {
+        return civilFromDays(Math.floorDiv(epochMinute, MINUTES_PER_DAY));
+    }
+
+    /**
+     * Returns the number of minutes past midnight of a timestamp.
+     */
+    public static int minuteOfDay(long epochMinute) {
+        return (int) Math.floorMod(epochMinute, (long) MINUTES_PER_DAY);
+    }
+
+    /**
+     * Returns the current wall-clock time in the device's time zone as an epoch minute.
+     */
+    public static long now() {
+        Calendar calendar = Calendar.getInstance();
+        return toEpochMinute(
+                calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH),
+                calendar.get(Calendar.HOUR_OF_DAY),
+                calendar.get(Calendar.MINUTE)
+        );
+    }
+
+    /**
+     * Returns midnight at the start of the timestamp's day.
+     */
+    public static long startOfDay(long epochMinute) {
+        return epochMinute - minuteOfDay(epochMinute);
+    }
+
+    /**
+     * Returns midnight at the start of the timestamp's week, taking Monday as the first day.
+     */
+    public static long startOfWeek(long epochMinute) {
+        long day = Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+        long monday = day - Math.floorMod(day + EPOCH_DAY_OF_WEEK, 7L);
+        return monday * MINUTES_PER_DAY;
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (Howard Hinnant's days_from_civil).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Inverse of {@link #daysFromCivil(int, int, int)}, returning the date packed as yyyyMMdd.
+     */
+    private static int civilFromDays(long days) {
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        return year * 10000 + month * 100 + day;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.trackit_enhanced_artifact;
+
+/* IndexedMinHeap.java
+ *
+ * Binary min-heap of values identified by an int ID and ordered by a long key (ties broken by ID).
+ * A position index from ID to heap slot makes remove-by-ID and re-keying O(log n), where
+ * java.util.PriorityQueue needs a linear scan and equals() to find the element first.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class IndexedMinHeap<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Parallel arrays holding the heap; slot 0 is the minimum
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    // ID -> current heap slot
+    private final Map<Integer, Integer> positions = new HashMap<>();
+
+    /**
+     * Inserts a value, or updates the key and value of the one already stored under this ID
+     * and moves it up or down to its new place.
+     *
+     * @param id    the value's unique ID
+     * @param key   the ordering key; smaller keys come out first
+     * @param value the value to store
+     */
+    public void put(int id, long key, T value) {
+        Integer slot = positions.get(id);
+        if (slot != null) {
+            long oldKey = keys[slot];
+            keys[slot] = key;
+            values[slot] = value;
+            if (key < oldKey) {
+                siftUp(slot);
+            } else {
+                siftDown(slot);
+            }
+            return;
+        }
+
+        if (size == ids.length) grow();
+        ids[size] = id;
+        keys[size] = key;
+        values[size] = value;
+        positions.put(id, size);
+        siftUp(size++);
+    }
+
+    /**
+     * Removes the value stored under an ID.
+     *
+     * @return the removed value, or null if the ID was not present
+     */
+    public T remove(int id) {
+        Integer slot = positions.get(id);
+        return slot == null ? null : removeAt(slot);
+    }
+
+    /**
+     * Returns the value with the smallest key without removing it, or null if the heap is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return size == 0 ? null : (T) values[0];
+    }
+
+    /**
+     * Returns the smallest key. Only valid when the heap is not empty.
+     */
+    public long peekKey() {
+        if (size == 0) throw new IllegalStateException("Heap is empty.");
+        return keys[0];
+    }
+
+    /**
+     * Removes and returns the value with the smallest key, or null if the heap is empty.
+     */
+    public T poll() {
+        return size == 0 ? null : removeAt(0);
+    }
+
+    public boolean contains(int id) {
+        return positions.containsKey(id);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T removeAt(int slot) {
+        T removed = (T) values[slot];
+        positions.remove(ids[slot]);
+
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            // The moved value can belong above or below its new slot
+            siftDown(slot);
+            siftUp(slot);
+        }
+        values[last] = null;
+        return removed;
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!less(slot, parent)) break;
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int left = 2 * slot + 1;
+            if (left >= size) break;
+            int right = left + 1;
+            int smallest = right < size && less(right, left) ? right : left;
+            if (!less(smallest, slot)) break;
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] != keys[b] ? keys[a] < keys[b] : ids[a] < ids[b];
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        long key = keys[a];
+        Object value = values[a];
+        move(b, a);
+        ids[b] = id;
+        keys[b] = key;
+        values[b] = value;
+        positions.put(id, b);
+    }
+
+    /**
+     * Copies the entry in slot from into slot to and records its new position.
+     */
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        keys[to] = keys[from];
+        values[to] = values[from];
+        positions.put(ids[to], to);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+}
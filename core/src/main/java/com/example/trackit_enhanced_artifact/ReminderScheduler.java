@@ -0,0 +1,209 @@
+package com.example.trackit_enhanced_artifact;
+
+/* ReminderScheduler.java
+ *
+ * Keeps every pending event reminder, across all users, in one IndexedMinHeap ordered by due time
+ * and keeps a single alarm armed for the soonest one. Each event has one heap entry for its next
+ * reminder, so scheduling, rescheduling after an edit, and cancelling are all O(log n), and the
+ * number of alarms stays at one however many reminders are pending.
+ *
+ * The scheduler itself has no Android dependencies: time, alarms and delivery come in through
+ * the Clock, AlarmSetter and ReminderSender interfaces (see ReminderAlarms for the real ones).
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ReminderScheduler {
+
+    private static final long NOT_ARMED = Long.MIN_VALUE;
+
+    /**
+     * Source of the current wall-clock time, replaceable by a fake clock in tests.
+     */
+    public interface Clock {
+        long nowEpochMinute();
+    }
+
+    /**
+     * Arms or disarms the one alarm that wakes the scheduler.
+     */
+    public interface AlarmSetter {
+        void setAlarm(long epochMinute);
+
+        void cancelAlarm();
+    }
+
+    /**
+     * Delivers a reminder that has come due.
+     */
+    public interface ReminderSender {
+        /**
+         * @param leadMinutes minutes left until the event; less than the configured lead time
+         *                    when the alarm fired late
+         */
+        void sendReminder(Event event, int leadMinutes);
+    }
+
+    /**
+     * The next reminder of one event: which lead time it is for and when it is due.
+     */
+    private static final class Pending {
+        final Event event;
+        final int leadIndex;
+
+        Pending(Event event, int leadIndex) {
+            this.event = event;
+            this.leadIndex = leadIndex;
+        }
+    }
+
+    private final Clock clock;
+    private final AlarmSetter alarmSetter;
+    private final ReminderSender sender;
+
+    // Lead times in minutes, longest first, so an event's reminders come due in index order
+    private final int[] leadMinutes;
+
+    private final IndexedMinHeap<Pending> pending = new IndexedMinHeap<>();
+
+    // Due time of the currently armed alarm, or NOT_ARMED
+    private long armedAt = NOT_ARMED;
+
+    /**
+     * @param leadMinutes how long before each event to send a reminder, e.g. 60 and 10 for
+     *                    one reminder an hour ahead and another ten minutes ahead
+     */
+    public ReminderScheduler(Clock clock, AlarmSetter alarmSetter, ReminderSender sender, int... leadMinutes) {
+        if (leadMinutes.length == 0) throw new IllegalArgumentException("At least one lead time is required.");
+        this.clock = clock;
+        this.alarmSetter = alarmSetter;
+        this.sender = sender;
+        this.leadMinutes = leadMinutes.clone();
+        Arrays.sort(this.leadMinutes);
+        for (int i = 0, j = this.leadMinutes.length - 1; i < j; i++, j--) {
+            int longer = this.leadMinutes[j];
+            this.leadMinutes[j] = this.leadMinutes[i];
+            this.leadMinutes[i] = longer;
+        }
+    }
+
+    /**
+     * Schedules the reminders of a new event, or moves those of an edited one.
+     * Reminders whose due time has already passed are skipped.
+     */
+    public synchronized void schedule(Event event) {
+        put(event, clock.nowEpochMinute());
+        rearm();
+    }
+
+    /**
+     * Schedules many events at once, arming the alarm only after all of them are in.
+     */
+    public synchronized void scheduleAll(List<Event> events) {
+        long now = clock.nowEpochMinute();
+        for (Event event : events) {
+            put(event, now);
+        }
+        rearm();
+    }
+
+    /**
+     * Drops the pending reminders of a deleted event.
+     */
+    public synchronized void cancel(int eventId) {
+        pending.remove(eventId);
+        rearm();
+    }
+
+    /**
+     * Called when the alarm fires: sends every reminder that is due, queues each event's next
+     * reminder if it has one, and arms the alarm for whatever is due next. An alarm that fires
+     * late (in Doze, or after a reboot) may find several of an event's reminders overdue; only
+     * the latest is sent, with the minutes actually left, and none once the event has started.
+     *
+     * @return the number of reminders sent
+     */
+    public synchronized int onAlarm() {
+        armedAt = NOT_ARMED;
+        long now = clock.nowEpochMinute();
+
+        List<Event> due = new ArrayList<>();
+        while (!pending.isEmpty() && pending.peekKey() <= now) {
+            Pending next = pending.poll();
+            long eventTime = next.event.getEpochMinute();
+            int leadIndex = next.leadIndex;
+            while (leadIndex + 1 < leadMinutes.length && eventTime - leadMinutes[leadIndex + 1] <= now) {
+                leadIndex++;
+            }
+            if (eventTime >= now) {
+                due.add(next.event);
+            }
+            put(next.event, leadIndex + 1, now);
+        }
+        rearm();
+
+        for (Event event : due) {
+            sender.sendReminder(event, (int) (event.getEpochMinute() - now));
+        }
+        return due.size();
+    }
+
+    /**
+     * Number of events with a reminder still to send.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Drops every pending reminder and disarms the alarm.
+     */
+    public synchronized void clear() {
+        pending.clear();
+        rearm();
+    }
+
+    private void put(Event event, long now) {
+        put(event, 0, now);
+    }
+
+    /**
+     * Queues the first reminder of an event, starting at the given lead time, that is not yet
+     * overdue; removes the event if it has none left.
+     */
+    private void put(Event event, int fromLeadIndex, long now) {
+        long eventTime = event.getEpochMinute();
+        for (int i = fromLeadIndex; i < leadMinutes.length; i++) {
+            long dueAt = eventTime - leadMinutes[i];
+            if (dueAt >= now) {
+                pending.put(event.getId(), dueAt, new Pending(event, i));
+                return;
+            }
+        }
+        pending.remove(event.getId());
+    }
+
+    /**
+     * Points the single alarm at the soonest pending reminder, touching it only when that changes.
+     */
+    private void rearm() {
+        if (pending.isEmpty()) {
+            if (armedAt != NOT_ARMED) {
+                alarmSetter.cancelAlarm();
+                armedAt = NOT_ARMED;
+            }
+            return;
+        }
+
+        long next = pending.peekKey();
+        if (next != armedAt) {
+            alarmSetter.setAlarm(next);
+            armedAt = next;
+        }
+    }
+}
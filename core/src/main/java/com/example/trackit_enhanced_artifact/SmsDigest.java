@@ -0,0 +1,66 @@
+package com.example.trackit_enhanced_artifact;
+
+/* SmsDigest.java
+ *
+ * Collects event notifications for one phone number while digest mode is on, so a burst of
+ * changes goes out as a single text. Notifications about the same event replace each other,
+ * leaving only the event's latest state.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SmsDigest {
+
+    // Beyond this many events the digest only counts the rest, keeping it to a few SMS parts
+    static final int MAX_LINES = 10;
+
+    // Event ID -> latest notification, in the order events first changed
+    private final Map<Integer, String> lines = new LinkedHashMap<>();
+
+    /**
+     * Adds a notification, replacing any earlier one for the same event.
+     */
+    public void add(int eventId, String line) {
+        lines.put(eventId, line);
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public int size() {
+        return lines.size();
+    }
+
+    /**
+     * Builds the combined message and empties the digest. A single notification is sent as is.
+     *
+     * @return the message, or null if the digest is empty
+     */
+    public String drain() {
+        if (lines.isEmpty()) return null;
+
+        String message;
+        if (lines.size() == 1) {
+            message = lines.values().iterator().next();
+        } else {
+            StringBuilder builder = new StringBuilder("TrackIt: ").append(lines.size()).append(" event changes");
+            int written = 0;
+            for (String line : lines.values()) {
+                if (written == MAX_LINES) {
+                    builder.append("\n...and ").append(lines.size() - MAX_LINES).append(" more");
+                    break;
+                }
+                builder.append('\n').append(line);
+                written++;
+            }
+            message = builder.toString();
+        }
+        lines.clear();
+        return message;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.trackit_enhanced_artifact;
+
+/* SyncRecord.java
+ *
+ * The unit of sync traffic: one event as its latest version, keyed by a uuid that is the same
+ * on every device. A deleted event travels as a tombstone with only its uuid and the time of
+ * the delete, so other devices can drop it and an older edit cannot bring it back. Conflicts
+ * are settled by updatedAt: whichever side wrote last wins. Two versions written in the same
+ * millisecond are ordered by their content, so every device and the server pick the same one.
+ *
+ * Author: Collin Lanier
+ * Date: 2026-10-16
+ */
+
+public final class SyncRecord {
+
+    private final String uuid;
+    private final String name;
+    private final String description;
+    private final long epochMinute;
+    private final long updatedAt;
+    private final boolean deleted;
+
+    /**
+     * @param updatedAt epoch milliseconds of the edit that produced this version
+     */
+    public SyncRecord(String uuid, String name, String description, long epochMinute, long updatedAt) {
+        this(uuid, name, description, epochMinute, updatedAt, false);
+    }
+
+    private SyncRecord(String uuid, String name, String description, long epochMinute, long updatedAt,
+                       boolean deleted) {
+        if (uuid == null) throw new IllegalArgumentException("A sync record needs a uuid.");
+        this.uuid = uuid;
+        this.name = name;
+        this.description = description;
+        this.epochMinute = epochMinute;
+        this.updatedAt = updatedAt;
+        this.deleted = deleted;
+    }
+
+    /**
+     * A record saying the event was deleted at the given time.
+     */
+    public static SyncRecord tombstone(String uuid, long updatedAt) {
+        return new SyncRecord(uuid, null, null, 0, updatedAt, true);
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * The event name, or null for a tombstone.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getEpochMinute() {
+        return epochMinute;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Whether this version should replace the other under last-writer-wins. Equal updatedAt
+     * falls back to {@link #compareContent(SyncRecord)}; identical versions keep the other, so
+     * applying the same record twice changes nothing.
+     */
+    public boolean supersedes(SyncRecord other) {
+        if (other == null) return true;
+        if (updatedAt != other.updatedAt) return updatedAt > other.updatedAt;
+        return compareContent(other) > 0;
+    }
+
+    /**
+     * Orders two versions by what they say rather than where they came from: an edit ranks
+     * above a tombstone, then name, description and time decide. Only used to break ties, so it
+     * needs to be consistent on every device, not meaningful.
+     */
+    int compareContent(SyncRecord other) {
+        if (deleted != other.deleted) return deleted ? -1 : 1;
+        int result = compareNullable(name, other.name);
+        if (result == 0) result = compareNullable(description, other.description);
+        if (result == 0) result = Long.compare(epochMinute, other.epochMinute);
+        return result;
+    }
+
+    private static int compareNullable(String a, String b) {
+        if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+        return a.compareTo(b);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Local unit tests for the shared date/time parser and formatter.
+ */
+public class DateTimeCodecTest {
+
+    @Test
+    public void parse_acceptsPaddedAndLegacyUnpaddedForms() {
+        assertEquals(20300504, DateTimeCodec.parseDate("2030-05-04"));
+        assertEquals(20300504, DateTimeCodec.parseDate("2030-5-4"));
+        assertEquals(20300504, DateTimeCodec.parseDate(" 2030 - 5 - 04 "));
+        assertEquals(9 * 60 + 5, DateTimeCodec.parseTime("09:05"));
+        assertEquals(9 * 60 + 5, DateTimeCodec.parseTime("9:05"));
+        assertEquals(EventTime.toEpochMinute(2030, 5, 4, 23, 59), DateTimeCodec.parse("2030-5-4", "23:59"));
+    }
+
+    @Test
+    public void parse_rejectsMalformedAndOutOfRangeValues() {
+        String[] dates = {"", "2030", "2030-05", "2030-05-04-01", "2030/05/04", "20300-05-04", "2030-13-01",
+                "2030-00-10", "2030-04-31", "2030-02-29", "2030-05-x4", "-2030-05-04"};
+        for (String date : dates) {
+            assertFalse(date, DateTimeCodec.isValidDate(date));
+        }
+        String[] times = {"", "9", "24:00", "12:60", "12:5x", "123:00", "12:00:00", "12-00"};
+        for (String time : times) {
+            assertFalse(time, DateTimeCodec.isValidTime(time));
+        }
+        assertTrue(DateTimeCodec.isValidDate("2032-02-29"));
+        assertFalse(DateTimeCodec.isValidDate("2100-02-29"));
+        assertTrue(DateTimeCodec.isValidDate("2000-02-29"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromInput_throwsOnInvalidDate() {
+        EventBuilder.fromInput("Dentist", "Checkup", "2030-02-30", "09:00");
+    }
+
+    @Test
+    public void format_writesPaddedFormsThatParseBack() {
+        assertEquals("2030-05-04", DateTimeCodec.formatDate(2030, 5, 4));
+        assertEquals("07:03", DateTimeCodec.formatTime(7, 3));
+
+        StringBuilder builder = new StringBuilder("at ");
+        DateTimeCodec.appendTime(DateTimeCodec.appendDate(builder, 987, 12, 31).append(' '), 0, 0);
+        assertEquals("at 0987-12-31 00:00", builder.toString());
+
+        char[] chars = new char[DateTimeCodec.DATE_LENGTH + DateTimeCodec.TIME_LENGTH];
+        int end = DateTimeCodec.writeDate(chars, 0, 2030, 1, 2);
+        assertEquals(chars.length, DateTimeCodec.writeTime(chars, end, 13, 45));
+        assertEquals("2030-01-0213:45", new String(chars));
+
+        assertEquals(20300102, DateTimeCodec.parseDate(DateTimeCodec.formatDate(2030, 1, 2)));
+    }
+
+    @Test
+    public void parseAndAppend_allocateNothing() {
+        StringBuilder builder = new StringBuilder(64);
+        String date = "2030-5-4";
+        String time = "09:05";
+        long checksum = runParseAndAppend(builder, date, time, 1_000);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        checksum += runParseAndAppend(builder, date, time, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum > 0);
+        assertTrue("Parsing allocated " + allocated + " bytes", allocated < 4 * 1024);
+    }
+
+    private static long runParseAndAppend(StringBuilder builder, String date, String time, int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += DateTimeCodec.parse(date, time);
+            builder.setLength(0);
+            DateTimeCodec.appendTime(DateTimeCodec.appendDate(builder, 2030, 5, 4), 9, 5);
+            checksum += builder.length();
+        }
+        return checksum;
+    }
+}
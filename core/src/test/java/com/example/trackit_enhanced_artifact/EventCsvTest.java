@@ -0,0 +1,185 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FilterReader;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Local unit tests for streaming events to and from CSV.
+ */
+public class EventCsvTest {
+
+    // Rows in the large round trip; a million with ./gradlew :core:test -Pperf=true
+    private static final int LARGE_ROWS = Boolean.getBoolean("perf") ? 1_000_000 : 10_000;
+
+    @Test
+    public void roundTrip_preservesQuotesCommasAndLineBreaks() throws IOException {
+        long minute = EventTime.toEpochMinute(2030, 5, 4, 9, 5);
+        StringWriter out = new StringWriter();
+        EventCsv.Writer writer = new EventCsv.Writer(out);
+        writer.write("Dentist", "Bring \"forms\", card\nand referral", minute);
+        writer.write("Standup, daily", null, minute + 1);
+
+        assertTrue(out.toString().startsWith(EventCsv.HEADER + "\r\n"
+                + "Dentist,\"Bring \"\"forms\"\", card\nand referral\",2030-05-04,09:05\r\n"));
+
+        EventCsv.Reader reader = new EventCsv.Reader(new StringReader(out.toString()));
+        Event first = reader.next();
+        assertEquals("Dentist", first.getName());
+        assertEquals("Bring \"forms\", card\nand referral", first.getDescription());
+        assertEquals(minute, first.getEpochMinute());
+        Event second = reader.next();
+        assertEquals("Standup, daily", second.getName());
+        assertEquals("", second.getDescription());
+        assertEquals(4, reader.getLineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void reader_reportsBadRowsAndKeepsReading() throws IOException {
+        String csv = EventCsv.HEADER + "\n"
+                + "Gym,,2030-02-30,07:00\n"
+                + "Lunch,only three,2030-01-01\n"
+                + "\n"
+                + "Review,ok,2030-1-2,9:00\n";
+        EventCsv.Reader reader = new EventCsv.Reader(new StringReader(csv));
+
+        for (int line = 2; line <= 3; line++) {
+            try {
+                reader.next();
+                fail("Line " + line + " should be rejected");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Line " + line + ":"));
+            }
+        }
+        assertEquals(EventTime.toEpochMinute(2030, 1, 2, 9, 0), reader.next().getEpochMinute());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void reader_rejectsOtherFilesAndUnterminatedQuotes() throws IOException {
+        try {
+            new EventCsv.Reader(new StringReader("title,start\nGym,2030-01-01\n"));
+            fail("A file without the event header should be refused");
+        } catch (IOException expected) {
+            // Not an event export
+        }
+
+        EventCsv.Reader reader = new EventCsv.Reader(
+                new StringReader("\uFEFF" + EventCsv.HEADER + "\r\nGym,\"never closed,2030-01-01,07:00\r\n"));
+        try {
+            reader.next();
+            fail("An unterminated quote should end the read");
+        } catch (IOException expected) {
+            // Nothing after the quote can be trusted
+        }
+    }
+
+    @Test
+    public void roundTrip_streamsRowByRow() throws IOException {
+        File file = File.createTempFile("events", ".csv");
+        file.deleteOnExit();
+        long firstMinute = EventTime.toEpochMinute(2030, 1, 1, 0, 0);
+
+        // Every row reaches the target as soon as it is written
+        try (CountingWriter out = new CountingWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            EventCsv.Writer writer = new EventCsv.Writer(out);
+            long written = out.count;
+            for (int i = 0; i < LARGE_ROWS; i++) {
+                writer.write("Event " + i, "Description, part " + i, firstMinute + i);
+                assertTrue(out.count > written);
+                written = out.count;
+            }
+        }
+        long fileLength = file.length();
+
+        // Rows come back while most of the file is still unread, and closing the reader closes the input
+        int rows = 0;
+        long checksum = 0;
+        CountingReader in = new CountingReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8));
+        try (EventCsv.Reader reader = new EventCsv.Reader(in)) {
+            for (Event event = reader.next(); event != null; event = reader.next()) {
+                if (rows++ == 0) assertTrue(in.count < fileLength / 2);
+                checksum += event.getEpochMinute() - firstMinute;
+            }
+        }
+        assertTrue(in.closed);
+        assertEquals(LARGE_ROWS, rows);
+        assertEquals((long) LARGE_ROWS * (LARGE_ROWS - 1) / 2, checksum);
+    }
+
+    /**
+     * Counts the characters handed to the wrapped writer.
+     */
+    private static final class CountingWriter extends FilterWriter {
+        long count;
+
+        CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            count++;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            super.write(chars, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            super.write(text, offset, length);
+            count += length;
+        }
+    }
+
+    /**
+     * Counts the characters taken from the wrapped reader and whether it was closed.
+     */
+    private static final class CountingReader extends FilterReader {
+        long count;
+        boolean closed;
+
+        CountingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c != -1) count++;
+            return c;
+        }
+
+        @Override
+        public int read(char[] chars, int offset, int length) throws IOException {
+            int read = super.read(chars, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Local unit tests for EventSorter, including equivalence with Collections.sort and with the
+ * recursive merge sort the event list used before. Speed and allocation are measured by
+ * EventSortBenchmark in the benchmark module.
+ */
+public class EventSorterTest {
+
+    @Test
+    public void sort_ordersEventsLikeCompareTo() {
+        List<Event> events = randomEvents(5_000, 1);
+        List<Event> expected = new ArrayList<>(events);
+        Collections.sort(expected);
+
+        EventSorter.sort(events);
+
+        assertEquals(expected, events);
+    }
+
+    @Test
+    public void sort_ordersSameMinuteById() {
+        List<Event> events = new ArrayList<>();
+        events.add(new Event(9, "c", "", 2030, 5, 1, 9, 0));
+        events.add(new Event(2, "b", "", 2030, 5, 1, 9, 0));
+        events.add(new Event(1, "a", "", 2030, 5, 1, 10, 0));
+
+        EventSorter.sort(events);
+
+        assertEquals(2, events.get(0).getId());
+        assertEquals(9, events.get(1).getId());
+        assertEquals(1, events.get(2).getId());
+    }
+
+    @Test
+    public void sortIndices_isStableForEqualKeys() {
+        long[] keys = {5, 1, 5, 1, 5, 0};
+        int[] order = {0, 1, 2, 3, 4, 5};
+
+        EventSorter.sortIndices(keys, order);
+
+        assertEquals("[0, 1, 1, 5, 5, 5]", Arrays.toString(keys));
+        assertEquals("[5, 1, 3, 0, 2, 4]", Arrays.toString(order));
+    }
+
+    @Test
+    public void sortIndices_handlesPresortedAndDuplicateHeavyInput() {
+        int size = 50_000;
+        long[] ascending = new long[size];
+        long[] descending = new long[size];
+        long[] fewValues = new long[size];
+        Random random = new Random(7);
+        for (int i = 0; i < size; i++) {
+            ascending[i] = i;
+            descending[i] = size - i;
+            fewValues[i] = random.nextInt(3);
+        }
+
+        for (long[] keys : new long[][]{ascending, descending, fewValues}) {
+            long[] expected = keys.clone();
+            Arrays.sort(expected);
+            int[] order = identity(size);
+            EventSorter.sortIndices(keys, order, false);
+            assertTrue(Arrays.equals(expected, keys));
+            assertStable(keys, order);
+        }
+    }
+
+    @Test
+    public void sortIndices_parallelPathMatchesSequential() {
+        int size = EventSorter.PARALLEL_THRESHOLD * 4;
+        long[] parallelKeys = new long[size];
+        Random random = new Random(11);
+        for (int i = 0; i < size; i++) {
+            parallelKeys[i] = random.nextInt(size / 8);
+        }
+        long[] sequentialKeys = parallelKeys.clone();
+        int[] parallelOrder = identity(size);
+        int[] sequentialOrder = identity(size);
+
+        EventSorter.sortIndices(parallelKeys, parallelOrder, true);
+        EventSorter.sortIndices(sequentialKeys, sequentialOrder, false);
+
+        assertTrue(Arrays.equals(sequentialKeys, parallelKeys));
+        assertTrue(Arrays.equals(sequentialOrder, parallelOrder));
+    }
+
+    @Test
+    public void sort_matchesCollectionsSortAndRecursiveMergeSort() {
+        // Below and above the size where the sort goes parallel
+        for (int size : new int[]{0, 1, 1_000, EventSorter.PARALLEL_THRESHOLD * 2}) {
+            List<Event> events = randomEvents(size, size);
+            List<Event> expected = new ArrayList<>(events);
+            Collections.sort(expected);
+
+            List<Event> sorted = new ArrayList<>(events);
+            EventSorter.sort(sorted);
+
+            assertEquals(expected, sorted);
+            assertEquals(expected, legacyMergeSort(new ArrayList<>(events)));
+            for (int i = 0; i < size; i++) {
+                assertSame(expected.get(i), sorted.get(i));
+            }
+        }
+    }
+
+    private static List<Event> randomEvents(int count, long seed) {
+        Random random = new Random(seed);
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Few distinct minutes, so many events share one and are ordered by ID
+            long epochMinute = EventTime.toEpochMinute(2030, 1, 1, 0, 0) + random.nextInt(Math.max(1, count / 4));
+            events.add(new Event(random.nextInt(Integer.MAX_VALUE), "Event", "Description", epochMinute));
+        }
+        return events;
+    }
+
+    private static int[] identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        return order;
+    }
+
+    private static void assertStable(long[] keys, int[] order) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1] == keys[i]) {
+                assertTrue("Unstable at " + i, order[i - 1] < order[i]);
+            }
+        }
+    }
+
+    /**
+     * The recursive merge sort EventListActivity used to run on every load, kept here to check
+     * that EventSorter orders events exactly as it did.
+     */
+    private static List<Event> legacyMergeSort(List<Event> events) {
+        if (events.size() <= 1) return events;
+
+        int mid = events.size() / 2;
+        List<Event> left = legacyMergeSort(new ArrayList<>(events.subList(0, mid)));
+        List<Event> right = legacyMergeSort(new ArrayList<>(events.subList(mid, events.size())));
+
+        List<Event> result = new ArrayList<>();
+        int i = 0, j = 0;
+        while (i < left.size() && j < right.size()) {
+            if (left.get(i).compareTo(right.get(j)) <= 0) {
+                result.add(left.get(i++));
+            } else {
+                result.add(right.get(j++));
+            }
+        }
+        while (i < left.size()) result.add(left.get(i++));
+        while (j < right.size()) result.add(right.get(j++));
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Local unit tests for Event's packed chronological sort key.
+ */
+public class EventTest {
+
+    @Test
+    public void sortKey_ordersByMinuteThenId() {
+        Event early = new Event(9, "Early", "", 2030, 1, 1, 8, 0);
+        Event sameMinuteLowId = new Event(2, "A", "", 2030, 1, 1, 9, 0);
+        Event sameMinuteHighId = new Event(5, "B", "", 2030, 1, 1, 9, 0);
+        Event nextYear = new Event(1, "Later", "", 2031, 1, 1, 0, 0);
+
+        assertTrue(early.getSortKey() < sameMinuteLowId.getSortKey());
+        assertTrue(sameMinuteLowId.getSortKey() < sameMinuteHighId.getSortKey());
+        assertTrue(sameMinuteHighId.getSortKey() < nextYear.getSortKey());
+        assertTrue(sameMinuteLowId.compareTo(sameMinuteHighId) < 0);
+    }
+
+    @Test
+    public void setters_keepSortKeyInSync() {
+        Event event = new Event(3, "Dentist", "", 2030, 5, 1, 9, 0);
+
+        event.setDay(2);
+        event.setHour(10);
+        event.setId(4);
+
+        assertEquals(EventTime.toEpochMinute(2030, 5, 2, 10, 0), event.getEpochMinute());
+        assertEquals(Event.sortKey(event.getEpochMinute(), 4), event.getSortKey());
+        assertEquals(event.getSortKey(), new Event(4, "Dentist", "", event.getEpochMinute()).getSortKey());
+    }
+
+    @Test
+    public void sortKey_matchesFieldByFieldOrder() {
+        Random random = new Random(7);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            events.add(new Event(random.nextInt(50), "Event", "", 1960 + random.nextInt(100),
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60)));
+        }
+
+        List<Event> byKey = new ArrayList<>(events);
+        Collections.sort(byKey);
+        List<Event> byFields = new ArrayList<>(events);
+        byFields.sort((a, b) -> {
+            if (a.getYear() != b.getYear()) return Integer.compare(a.getYear(), b.getYear());
+            if (a.getMonth() != b.getMonth()) return Integer.compare(a.getMonth(), b.getMonth());
+            if (a.getDay() != b.getDay()) return Integer.compare(a.getDay(), b.getDay());
+            if (a.getHour() != b.getHour()) return Integer.compare(a.getHour(), b.getHour());
+            if (a.getMinute() != b.getMinute()) return Integer.compare(a.getMinute(), b.getMinute());
+            return Integer.compare(a.getId(), b.getId());
+        });
+
+        for (int i = 0; i < events.size(); i++) {
+            assertTrue(byKey.get(i) == byFields.get(i) || byKey.get(i).compareTo(byFields.get(i)) == 0);
+        }
+    }
+
+    @Test
+    public void previewOf_keepsFirstLineWithinLimit() {
+        String longText = "x".repeat(Event.PREVIEW_LENGTH + 20);
+
+        assertEquals("Checkup", Event.previewOf("Checkup"));
+        assertEquals("Bring forms\u2026", Event.previewOf("Bring forms \nand insurance card"));
+        assertEquals("x".repeat(Event.PREVIEW_LENGTH) + "\u2026", Event.previewOf(longText));
+        // An emoji straddling the limit is dropped whole rather than split
+        assertEquals("x".repeat(Event.PREVIEW_LENGTH - 1) + "\u2026",
+                Event.previewOf("x".repeat(Event.PREVIEW_LENGTH - 1) + "\uD83D\uDE00 done"));
+        assertNull(Event.previewOf(null));
+    }
+
+    @Test
+    public void descriptionPreview_followsDescriptionUntilStoredOneIsGiven() {
+        Event event = new Event(1, "Dentist", "Checkup\nRoom 4", 0);
+        assertEquals("Checkup\u2026", event.getDescriptionPreview());
+
+        event.setDescription("Cleaning");
+        assertEquals("Cleaning", event.getDescriptionPreview());
+
+        Event row = new Event(1, "Dentist", null, "Stored", 0);
+        assertNull(row.getDescription());
+        assertEquals("Stored", row.getDescriptionPreview());
+    }
+}
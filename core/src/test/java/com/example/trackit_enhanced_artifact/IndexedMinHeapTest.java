@@ -0,0 +1,84 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Local unit tests for the ID-indexed min-heap behind the upcoming-event banner.
+ */
+public class IndexedMinHeapTest {
+
+    @Test
+    public void poll_returnsValuesByKeyThenId() {
+        IndexedMinHeap<String> heap = new IndexedMinHeap<>();
+        heap.put(3, 20, "c");
+        heap.put(1, 30, "a");
+        heap.put(2, 20, "b");
+
+        assertEquals("b", heap.poll());
+        assertEquals("c", heap.poll());
+        assertEquals("a", heap.poll());
+        assertNull(heap.poll());
+    }
+
+    @Test
+    public void put_reKeysExistingIdInBothDirections() {
+        IndexedMinHeap<String> heap = new IndexedMinHeap<>();
+        for (int id = 1; id <= 10; id++) {
+            heap.put(id, id * 10L, "event " + id);
+        }
+
+        heap.put(7, 5, "moved earlier");
+        assertEquals("moved earlier", heap.peek());
+        heap.put(7, 500, "moved later");
+        assertEquals("event 1", heap.peek());
+        assertEquals(10, heap.size());
+    }
+
+    @Test
+    public void remove_dropsOnlyTheGivenId() {
+        IndexedMinHeap<String> heap = new IndexedMinHeap<>();
+        heap.put(1, 10, "a");
+        heap.put(2, 20, "b");
+
+        assertEquals("a", heap.remove(1));
+        assertNull(heap.remove(1));
+        assertFalse(heap.contains(1));
+        assertTrue(heap.contains(2));
+        assertEquals(20, heap.peekKey());
+    }
+
+    @Test
+    public void randomOperations_matchReferenceOrdering() {
+        IndexedMinHeap<Integer> heap = new IndexedMinHeap<>();
+        TreeMap<Integer, Long> expected = new TreeMap<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20_000; step++) {
+            int id = random.nextInt(200);
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                long key = random.nextInt(1000);
+                heap.put(id, key, id);
+                expected.put(id, key);
+            } else if (operation == 1) {
+                assertEquals(expected.remove(id) != null, heap.remove(id) != null);
+            } else if (!expected.isEmpty()) {
+                int minId = expected.firstKey();
+                for (Integer candidate : expected.keySet()) {
+                    if (expected.get(candidate) < expected.get(minId)) minId = candidate;
+                }
+                assertEquals(Integer.valueOf(minId), heap.poll());
+                expected.remove(minId);
+            }
+            assertEquals(expected.size(), heap.size());
+        }
+    }
+}
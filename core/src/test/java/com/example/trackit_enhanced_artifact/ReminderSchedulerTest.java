@@ -0,0 +1,129 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local unit tests for ReminderScheduler, driven by a fake clock and a recording alarm.
+ */
+public class ReminderSchedulerTest {
+
+    private static final long NOON = EventTime.toEpochMinute(2030, 5, 1, 12, 0);
+
+    private long now;
+    private final List<Long> alarms = new ArrayList<>();
+    private int cancelledAlarms;
+    private final List<String> sent = new ArrayList<>();
+    private ReminderScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        now = NOON;
+        scheduler = new ReminderScheduler(() -> now,
+                new ReminderScheduler.AlarmSetter() {
+                    @Override
+                    public void setAlarm(long epochMinute) {
+                        alarms.add(epochMinute);
+                    }
+
+                    @Override
+                    public void cancelAlarm() {
+                        cancelledAlarms++;
+                    }
+                },
+                (event, leadMinutes) -> sent.add(event.getName() + "@" + leadMinutes),
+                10, 60);
+    }
+
+    @Test
+    public void schedule_armsOneAlarmForTheSoonestReminder() {
+        scheduler.scheduleAll(List.of(
+                event(1, "Late", NOON + 300),
+                event(2, "Soon", NOON + 90),
+                event(3, "Later", NOON + 200)));
+
+        assertEquals(List.of(NOON + 30), alarms);
+        assertEquals(3, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void onAlarm_sendsDueReminderAndRearmsForTheNext() {
+        scheduler.schedule(event(1, "Standup", NOON + 90));
+
+        now = NOON + 30;
+        assertEquals(1, scheduler.onAlarm());
+        now = NOON + 80;
+        assertEquals(1, scheduler.onAlarm());
+
+        assertEquals(List.of("Standup@60", "Standup@10"), sent);
+        assertEquals(List.of(NOON + 30, NOON + 80), alarms);
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void lateAlarm_sendsOnlyTheLatestOverdueReminderWithTheRealLeadTime() {
+        scheduler.scheduleAll(List.of(
+                event(1, "Standup", NOON + 90),
+                event(2, "Review", NOON + 120),
+                event(3, "Coffee", NOON + 80)));
+
+        // The alarm for NOON + 20 fires more than an hour late
+        now = NOON + 85;
+        assertEquals(2, scheduler.onAlarm());
+
+        // Standup's 60 and 10 minute reminders are both overdue, Review's 10 minute one is not yet
+        // due, and Coffee has already started
+        assertEquals(List.of("Standup@5", "Review@35"), sent);
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(NOON + 110, (long) alarms.get(alarms.size() - 1));
+    }
+
+    @Test
+    public void schedule_skipsRemindersAlreadyOverdue() {
+        scheduler.schedule(event(1, "Lunch", NOON + 30));
+        scheduler.schedule(event(2, "Past", NOON - 5));
+
+        assertEquals(List.of(NOON + 20), alarms);
+        assertEquals(1, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void editAndDelete_rescheduleTheSingleAlarm() {
+        scheduler.schedule(event(1, "Dentist", NOON + 120));
+        scheduler.schedule(event(2, "Gym", NOON + 240));
+
+        scheduler.schedule(event(1, "Dentist", NOON + 600));
+        assertEquals(NOON + 180, (long) alarms.get(alarms.size() - 1));
+
+        scheduler.cancel(2);
+        assertEquals(NOON + 540, (long) alarms.get(alarms.size() - 1));
+
+        scheduler.cancel(1);
+        assertEquals(1, cancelledAlarms);
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void manyReminders_neverNeedMoreThanOneAlarm() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            events.add(event(i + 1, "Event " + i, NOON + 61 + i));
+        }
+        scheduler.scheduleAll(events);
+        assertEquals(1, alarms.size());
+
+        now = NOON + 1;
+        assertEquals(1, scheduler.onAlarm());
+        assertEquals(NOON + 2, (long) alarms.get(alarms.size() - 1));
+        assertEquals(10_000, scheduler.getPendingCount());
+    }
+
+    private static Event event(int id, String name, long epochMinute) {
+        return new Event(id, name, "", epochMinute);
+    }
+}
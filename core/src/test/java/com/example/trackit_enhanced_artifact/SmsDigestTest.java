@@ -0,0 +1,46 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Local unit tests for combining event notifications into one digest message.
+ */
+public class SmsDigestTest {
+
+    @Test
+    public void repeatedChangesToOneEvent_keepOnlyTheLatest() {
+        SmsDigest digest = new SmsDigest();
+        digest.add(1, "Event: Dentist at 09:00");
+        digest.add(2, "Event: Gym at 18:00");
+        digest.add(1, "Updated Event: Dentist at 10:30");
+
+        assertEquals("TrackIt: 2 event changes\nUpdated Event: Dentist at 10:30\nEvent: Gym at 18:00", digest.drain());
+        assertTrue(digest.isEmpty());
+        assertNull(digest.drain());
+    }
+
+    @Test
+    public void singleNotification_isSentUnchanged() {
+        SmsDigest digest = new SmsDigest();
+        digest.add(7, "Event: Lunch at 12:00");
+        digest.add(7, "Updated Event: Lunch at 12:30");
+
+        assertEquals("Updated Event: Lunch at 12:30", digest.drain());
+    }
+
+    @Test
+    public void longDigest_listsOnlyTheFirstEventsAndCountsTheRest() {
+        SmsDigest digest = new SmsDigest();
+        for (int id = 1; id <= SmsDigest.MAX_LINES + 5; id++) {
+            digest.add(id, "Event " + id);
+        }
+
+        String message = digest.drain();
+        assertTrue(message.startsWith("TrackIt: 15 event changes\nEvent 1\n"));
+        assertTrue(message.endsWith("\nEvent 10\n...and 5 more"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.trackit_enhanced_artifact;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Local unit tests for SyncRecord's last-writer-wins ordering.
+ */
+public class SyncRecordTest {
+
+    private static final String UUID = "0123456789abcdef0123456789abcdef";
+
+    @Test
+    public void supersedes_prefersTheLaterWrite() {
+        SyncRecord older = new SyncRecord(UUID, "Zoo", "", 100, 1_000);
+        SyncRecord newer = new SyncRecord(UUID, "Aquarium", "", 100, 1_001);
+
+        assertTrue(newer.supersedes(older));
+        assertFalse(older.supersedes(newer));
+        assertTrue(SyncRecord.tombstone(UUID, 1_002).supersedes(newer));
+        assertTrue(older.supersedes(null));
+    }
+
+    @Test
+    public void supersedes_breaksEqualTimesTheSameWayFromEitherSide() {
+        SyncRecord[] versions = {
+                SyncRecord.tombstone(UUID, 1_000),
+                new SyncRecord(UUID, "Review", null, 100, 1_000),
+                new SyncRecord(UUID, "Review", "Moved", 100, 1_000),
+                new SyncRecord(UUID, "Review", "Moved", 160, 1_000),
+                new SyncRecord(UUID, "Standup", "", 0, 1_000)
+        };
+
+        for (int i = 0; i < versions.length; i++) {
+            for (int j = 0; j < versions.length; j++) {
+                // Exactly one of two different versions wins, and a version never replaces itself
+                assertTrue(versions[i].supersedes(versions[j]) == i > j);
+            }
+        }
+        assertFalse(new SyncRecord(UUID, "Review", "", 100, 1_000)
+                .supersedes(new SyncRecord(UUID, "Review", "", 100, 1_000)));
+    }
+}